@@ -15,5 +15,6 @@ java \
   --add-opens java.desktop/sun.awt=ALL-UNNAMED \
   --add-opens java.desktop/sun.lwawt=ALL-UNNAMED \
   --add-opens java.desktop/sun.lwawt.macosx=ALL-UNNAMED \
+  --add-modules jdk.incubator.vector \
   -cp "$CP" \
   kitchenmaker.KitchenApp
\ No newline at end of file
@@ -0,0 +1,80 @@
+package kitchenmaker;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prüft, dass die Pfade aus {@link MathBenchmark} (Matrizen, Picking, Culling) und {@link RenderLoopBenchmark}
+ * (CPU-Teil eines Frames über einem Snapshot: Static Batcher, Szenen-Cache, Culling, LOD, Instanzdaten) nach dem
+ * Aufwärmen keine Objekte allokieren, und beendet sich sonst mit Exit-Code 1. Die GL-Aufrufe selbst sind
+ * nicht abgedeckt, da ohne Kontext gemessen wird.
+ * <p>
+ * Läuft mit {@code mvn -Pbenchmarks verify} (Phase {@code verify}, eigene JVM). Gemessen wird exakt über
+ * {@link ThreadMXBean#getThreadAllocatedBytes(long)} statt über die gemittelte Rate des GC-Profilers, damit
+ * bereits ein einzelnes zurückgekehrtes Hilfsobjekt auffällt.
+ * <p>
+ * Einzelne Allokationen der Laufzeit (JIT-Kompilierung, Deoptimierung, Safepoints unter Last) können in
+ * ein Messfenster fallen, ohne vom geprüften Pfad zu stammen. Je Pfad werden deshalb bis zu
+ * {@value #MAX_WINDOWS} Fenster gemessen und das Minimum bewertet: Ein Pfad, der bei jedem Aufruf allokiert,
+ * allokiert in jedem Fenster, einmalige Störungen dagegen nicht.
+ */
+public class AllocationCheck {
+
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int MEASURED_CALLS = 10_000;
+    private static final int MAX_WINDOWS = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        MathBenchmark benchmark = new MathBenchmark();
+        benchmark.objects = 200;
+        benchmark.setup();
+
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("modelMatrix", benchmark::modelMatrix);
+        operations.put("eulerTransform", benchmark::eulerTransform);
+        operations.put("quaternionTransform", benchmark::quaternionTransform);
+        operations.put("slerpTransform", benchmark::slerpTransform);
+        operations.put("multiplyInvert", benchmark::multiplyInvert);
+        operations.put("affineMultiplyInvert", benchmark::affineMultiplyInvert);
+        operations.put("projectionTimesAffineView", benchmark::projectionTimesAffineView);
+        operations.put("frustumCulling", benchmark::frustumCulling);
+        operations.put("pick", benchmark::pick);
+        operations.put("groundPlane", benchmark::groundPlane);
+
+        RenderLoopBenchmark renderLoop = new RenderLoopBenchmark();
+        renderLoop.objects = 1000;
+        renderLoop.setup();
+        operations.put("frame", renderLoop::frame);
+        operations.put("dragFrame", renderLoop::dragFrame);
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        int failures = 0;
+        for (Map.Entry<String, Runnable> operation : operations.entrySet()) {
+            Runnable task = operation.getValue();
+            for (int i = 0; i < WARMUP_CALLS; i++) task.run();
+
+            // Minimum über mehrere Fenster; das erste Fenster ohne Allokation beendet die Messung
+            long allocated = Long.MAX_VALUE;
+            int windows = 0;
+            while (allocated != 0 && windows < MAX_WINDOWS) {
+                long before = threads.getThreadAllocatedBytes(thread);
+                for (int i = 0; i < MEASURED_CALLS; i++) task.run();
+                allocated = Math.min(allocated, threads.getThreadAllocatedBytes(thread) - before);
+                windows++;
+            }
+
+            System.out.printf("%-28s %10d B (%d Aufrufe, Minimum aus %d Fenster(n))%n",
+                    operation.getKey(), allocated, MEASURED_CALLS, windows);
+            if (allocated != 0) failures++;
+        }
+
+        if (failures > 0) {
+            System.err.println("Allokationen in " + failures + " Pfad(en) gefunden, erwartet werden 0 Bytes");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BatchMath} mit Vector API gegenüber der skalaren Rechnung.
+ * <p>
+ * Die Methoden ohne Suffix laufen mit {@code --add-modules jdk.incubator.vector}; die Varianten {@code *Scalar}
+ * in einer eigenen JVM mit {@code -Dkitchenmaker.simd=false} (skalarer Fallback). {@link #vec4Loop} ist die
+ * bisherige Schleife über {@link Vec4#multiply} als Vergleichswert für {@link #transformPoints}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchMathBenchmark {
+
+    @Param({"20000"})
+    public int vertices;
+
+    private final Mat4 matrix = new Affine3().setTranslation(1, 0.5f, -2).rotateAroundY(0.7f).rotateAroundX(0.2f)
+            .scale(1, 2, 0.5f).toMat4(new Mat4());
+    private final Vec4 point = new Vec4();
+    private final Vec3 min = new Vec3();
+    private final Vec3 max = new Vec3();
+
+    private float[] vertexData;
+    private float[] pointData;
+    private float[] vertexResult;
+    private float[] pointResult;
+
+    private float[] transforms;
+    private float[] localBounds;
+    private float[] worldBounds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        vertexData = new float[vertices * BatchMath.VERTEX_STRIDE];
+        for (int i = 0; i < vertexData.length; i++) vertexData[i] = random.nextFloat() * 2 - 1;
+        pointData = new float[vertices * 3];
+        for (int i = 0; i < pointData.length; i++) pointData[i] = random.nextFloat() * 2 - 1;
+        vertexResult = new float[vertexData.length];
+        pointResult = new float[pointData.length];
+
+        // Eine Box pro Vertex-Eintrag wäre unrealistisch: 1/10 entspricht einer großen Szene
+        int boxes = vertices / 10;
+        transforms = new float[12 * boxes];
+        localBounds = new float[6 * boxes];
+        worldBounds = new float[6 * boxes];
+        for (int i = 0; i < transforms.length; i++) transforms[i] = random.nextFloat() * 2 - 1;
+        for (int i = 0; i < boxes; i++) {
+            for (int c = 0; c < 3; c++) {
+                float low = random.nextFloat();
+                localBounds[c * boxes + i] = low;
+                localBounds[(c + 3) * boxes + i] = low + random.nextFloat();
+            }
+        }
+    }
+
+    /**
+     * Bisherige Rechnung: ein {@link Vec4} pro Punkt durch die 4x4-Matrix.
+     */
+    @Benchmark
+    public float[] vec4Loop() {
+        for (int i = 0; i < pointData.length; i += 3) {
+            point.set(pointData[i], pointData[i + 1], pointData[i + 2], 1).multiply(matrix);
+            pointResult[i] = point.x;
+            pointResult[i + 1] = point.y;
+            pointResult[i + 2] = point.z;
+        }
+        return pointResult;
+    }
+
+    @Benchmark
+    public float[] transformPoints() {
+        BatchMath.transformPoints(matrix, pointData, pointResult, vertices);
+        return pointResult;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dkitchenmaker.simd=false")
+    public float[] transformPointsScalar() {
+        return transformPoints();
+    }
+
+    /**
+     * Positionen und Normalen im Mesh-Layout (Static Batching).
+     */
+    @Benchmark
+    public float[] transformVertices() {
+        BatchMath.transformVertices(matrix, vertexData, vertexResult, vertices);
+        return vertexResult;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dkitchenmaker.simd=false")
+    public float[] transformVerticesScalar() {
+        return transformVertices();
+    }
+
+    /**
+     * Bounding Box eines Meshes (Mesh-Konstruktor).
+     */
+    @Benchmark
+    public Vec3 bounds() {
+        BatchMath.bounds(vertexData, BatchMath.VERTEX_STRIDE, vertices, min, max);
+        return max;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dkitchenmaker.simd=false")
+    public Vec3 boundsScalar() {
+        return bounds();
+    }
+
+    /**
+     * Welt-AABBs mit je eigener Transformation (Structure of Arrays).
+     */
+    @Benchmark
+    public float[] transformBounds() {
+        int boxes = vertices / 10;
+        BatchMath.transformBounds(transforms, localBounds, worldBounds, boxes, boxes);
+        return worldBounds;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dkitchenmaker.simd=false")
+    public float[] transformBoundsScalar() {
+        return transformBounds();
+    }
+}
@@ -0,0 +1,27 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Einstiegspunkt von {@code benchmarks.jar}.
+ * <p>
+ * Entspricht {@code org.openjdk.jmh.Main}, aktiviert aber immer den GC-Profiler, damit die
+ * Allokationsrate ({@code gc.alloc.rate.norm}) neben dem Durchsatz erscheint. Alle JMH-Optionen
+ * (z.B. {@code -p triangles=100000} oder ein Filter wie {@code Synthetic}) werden durchgereicht.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) options.include("kitchenmaker\\..*Benchmark");
+        options.parent(commandLine);
+        options.addProfiler(GCProfiler.class);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matrix- und Strahlberechnungen aus Render-Loop und Picking.
+ * <p>
+ * Alle Varianten arbeiten mit Zielparametern bzw. wiederverwendeten Instanzen und sollen nichts allokieren:
+ * der GC-Profiler des {@link BenchmarkRunner} muss für jede Methode {@code gc.alloc.rate.norm ≈ 0 B/op} melden.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dkitchenmaker.meshcache=false", "-Dkitchenmaker.lod=false"})
+public class MathBenchmark {
+
+    @Param({"200"})
+    public int objects;
+
+    private final RenderEngine camera = new RenderEngine();
+    private final RayCaster rayCaster = new RayCaster();
+    private final Frustum frustum = new Frustum();
+    private final Mat4 projection = new Mat4().setPerspective((float) Math.toRadians(60), 16f / 9f, 0.1f, 100f);
+    private final Mat4 view = new Mat4();
+    private final Mat4 viewProjection = new Mat4();
+    private final Mat4 inverse = new Mat4();
+    private final Mat4 modelMatrix = new Mat4();
+    private final Affine3 model = new Affine3().setTranslation(1, 0, 2).rotateAroundY(0.7f).scale(1, 2, 1);
+    private final Affine3 affineView = new Affine3();
+    private final Affine3 affineResult = new Affine3();
+    private final Affine3 affineInverse = new Affine3();
+    private final Vec3 hitPoint = new Vec3();
+    private final Vec3 position = new Vec3(1, 0, 2);
+    private final Vec3 rotation = new Vec3(0.2f, 0.7f, 0.1f);
+    private final Vec3 scale = new Vec3(1, 2, 1);
+    private final Quat orientation = new Quat().setFromEuler(0.2f, 0.7f, 0.1f);
+    private final Quat targetOrientation = new Quat().setFromEuler(0, -0.9f, 0);
+    private final Quat interpolated = new Quat();
+
+    private SceneData.Object3D moved;
+    private SceneSnapshot snapshot;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Einheitswürfel genügt: gemessen wird nur die Mathematik, nicht das Mesh
+        float[] vertices = {
+                -0.5f, -0.5f, -0.5f, 0, 0, -1,  0.5f, -0.5f, -0.5f, 0, 0, -1,
+                0.5f, 0.5f, 0.5f, 0, 0, 1,  -0.5f, 0.5f, 0.5f, 0, 0, 1};
+        Mesh box = new Mesh(vertices, new int[]{0, 1, 2, 0, 2, 3});
+        List<SceneData.Object3D> scene = new ArrayList<>();
+        for (int i = 0; i < objects; i++) {
+            SceneData.Object3D obj = new SceneData.Object3D("Objekt " + i, box);
+            obj.setPosition((i % 20) - 10, 0.5f, (i / 20) - 5);
+            obj.setRotation(0, i * 0.3f, 0);
+            scene.add(obj);
+        }
+        moved = scene.get(0);
+        snapshot = SceneSnapshot.capture(scene, null, null);
+        view.setLookAt(new Vec3(6, 4, 6), new Vec3(), new Vec3(0, 1, 0));
+        affineView.setLookAt(new Vec3(6, 4, 6), new Vec3(), new Vec3(0, 1, 0));
+    }
+
+    /**
+     * Modellmatrix und Welt-AABB eines verschobenen Objekts (wie beim Ziehen pro Mausereignis).
+     */
+    @Benchmark
+    public Mat4 modelMatrix() {
+        moved.setPosition(frame++ & 7, 0.5f, 0);
+        return moved.getModelMatrix(modelMatrix);
+    }
+
+    /**
+     * Modelltransformation aus drei Euler-Winkeln (drei Sinus/Cosinus-Paare und drei Rotationsschritte).
+     */
+    @Benchmark
+    public Affine3 eulerTransform() {
+        return affineResult.setTranslation(position)
+                .rotateAroundX(rotation.x).rotateAroundY(rotation.y).rotateAroundZ(rotation.z).scale(scale);
+    }
+
+    /**
+     * Dieselbe Modelltransformation direkt aus dem Quaternion, wie in {@code Object3D}.
+     */
+    @Benchmark
+    public Affine3 quaternionTransform() {
+        return affineResult.setTransform(position, orientation, scale);
+    }
+
+    /**
+     * Ein Schritt der Dreh-Animation: Slerp und Umrechnung in die Modelltransformation.
+     */
+    @Benchmark
+    public Affine3 slerpTransform() {
+        Quat.slerp(orientation, targetOrientation, (frame++ & 63) / 63f, interpolated);
+        return affineResult.setTransform(position, interpolated, scale);
+    }
+
+    /**
+     * View-Projection-Matrix und deren Inverse mit Zielparametern.
+     */
+    @Benchmark
+    public Mat4 multiplyInvert() {
+        return Mat4.mul(projection, view, viewProjection).invert(inverse);
+    }
+
+    /**
+     * Dieselbe Rechnung für affine Transformationen: View * Modell und Inverse über {@link Affine3#invertOrthogonal}.
+     */
+    @Benchmark
+    public Affine3 affineMultiplyInvert() {
+        return Affine3.mul(affineView, model, affineResult).invertOrthogonal(affineInverse);
+    }
+
+    /**
+     * Projektion * affine View (48 statt 64 Multiplikationen).
+     */
+    @Benchmark
+    public Mat4 projectionTimesAffineView() {
+        return Mat4.mul(projection, affineView, viewProjection);
+    }
+
+    /**
+     * Frustum aus der View-Projection-Matrix und Culling-Test aller Objekte (wie pro Frame in der RenderEngine).
+     */
+    @Benchmark
+    public int frustumCulling() {
+        frustum.set(Mat4.mul(projection, affineView, viewProjection));
+        int visible = 0;
+        List<SceneSnapshot.Entry> entries = snapshot.getEntries();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            SceneSnapshot.Entry entry = entries.get(i);
+            if (frustum.intersects(entry.getWorldBoundsMin(), entry.getWorldBoundsMax())) visible++;
+        }
+        return visible;
+    }
+
+    /**
+     * Mausstrahl und Schnitttest gegen alle Objekte (Picking per Klick).
+     */
+    @Benchmark
+    public float pick() {
+        rayCaster.set(camera, 640 + (frame++ & 63), 360, 1280, 720);
+        float closest = Float.MAX_VALUE;
+        List<SceneSnapshot.Entry> entries = snapshot.getEntries();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            SceneSnapshot.Entry entry = entries.get(i);
+            float t = rayCaster.intersectAABB(entry.getWorldBoundsMin(), entry.getWorldBoundsMax(), 0.2f);
+            if (t > 0 && t < closest) closest = t;
+        }
+        return closest;
+    }
+
+    /**
+     * Mausstrahl und Schnitt mit der Bodenebene (Verschieben per Drag).
+     */
+    @Benchmark
+    public Vec3 groundPlane() {
+        return rayCaster.set(camera, 640 + (frame++ & 63), 360, 1280, 720).intersectHorizontalPlane(0, hitPoint);
+    }
+}
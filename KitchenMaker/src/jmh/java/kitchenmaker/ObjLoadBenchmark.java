@@ -0,0 +1,93 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ladezeiten der mitgelieferten Möbelmodelle.
+ * <p>
+ * Mesh-Cache und LOD-Erzeugung sind abgeschaltet, damit jeder Aufruf die komplette Ladekette misst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dkitchenmaker.meshcache=false", "-Dkitchenmaker.lod=false"})
+public class ObjLoadBenchmark {
+
+    // Katalog-Typ je Ressource (siehe SceneData.OBJECT_DEFINITIONS)
+    private static final Map<String, String> TYPES = Map.of(
+            "backofen.obj", "Oven",
+            "kuehlschrank.obj", "Fridge",
+            "mikrowelle.obj", "Microwave",
+            "theke.obj", "Counter",
+            "theke_ecke_aussen.obj", "Counter Outer Corner",
+            "theke_ecke_innen.obj", "Counter Inner Corner",
+            "waschbecken.obj", "Sink"
+    );
+
+    @Param({"backofen.obj", "kuehlschrank.obj", "mikrowelle.obj", "theke.obj",
+            "theke_ecke_aussen.obj", "theke_ecke_innen.obj", "waschbecken.obj"})
+    public String resource;
+
+    private byte[] content;
+    private Mesh parsed;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        try (InputStream is = ObjLoadBenchmark.class.getResourceAsStream("/" + resource)) {
+            if (is == null) throw new IOException("Ressource nicht gefunden: " + resource);
+            content = is.readAllBytes();
+        }
+        parsed = ObjParser.parse(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Parsen inklusive Vertex Welding, Vertex-Cache-Optimierung und Bounding Box.
+     */
+    @Benchmark
+    public Mesh parse(ObjLoadCounters counters) throws IOException {
+        Mesh mesh = ObjParser.parse(new ByteArrayInputStream(content));
+        counters.count(content.length, mesh);
+        return mesh;
+    }
+
+    /**
+     * Nur die Bounding-Box-Berechnung (Konstruktor ohne bekannte Bounds).
+     */
+    @Benchmark
+    public Mesh bounds(ObjLoadCounters counters) {
+        Mesh mesh = new Mesh(parsed.vertices, parsed.indices, parsed.getSourceVertexCount());
+        counters.count(content.length, mesh);
+        return mesh;
+    }
+
+    /**
+     * Kompletter Weg über den Katalog: Ressource lesen, Hash, Parsen und Registry.
+     * Das Objekt wird sofort wieder freigegeben, damit jeder Aufruf neu lädt.
+     */
+    @Benchmark
+    public SceneData.Object3D createByType(ObjLoadCounters counters) {
+        SceneData.Object3D obj = SceneData.createByType(TYPES.get(resource));
+        obj.release();
+        counters.count(content.length, obj.mesh);
+        return obj;
+    }
+}
@@ -0,0 +1,34 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Zusätzliche Messwerte der Lade-Benchmarks.
+ * <p>
+ * JMH gibt die Felder im Throughput-Modus als Rate pro Sekunde aus, also als MB/s bzw. Dreiecke/s.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ObjLoadCounters {
+
+    public double megabytes;
+    public long triangles;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+        triangles = 0;
+    }
+
+    /**
+     * Verbucht einen Ladevorgang.
+     */
+    void count(long bytes, Mesh mesh) {
+        megabytes += bytes / (1024.0 * 1024.0);
+        triangles += mesh.indices.length / 3;
+    }
+}
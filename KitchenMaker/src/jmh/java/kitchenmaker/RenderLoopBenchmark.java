@@ -0,0 +1,133 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU-Teil eines Frames über einem {@link SceneSnapshot}, in derselben Reihenfolge wie {@link RenderEngine#display}:
+ * Kamera und Sichtpyramide, Abgleich mit dem {@link StaticBatcher}, Gültigkeitsprüfung des {@link StaticSceneCache},
+ * Culling, LOD-Auswahl, Gruppierung und Instanzdaten des {@link InstancedRenderer}. Die GL-Aufrufe selbst
+ * (Uniforms, Puffer-Uploads, Draw Calls) fehlen, da ohne Kontext gemessen wird.
+ * <p>
+ * Wie bei {@link MathBenchmark} soll nichts allokiert werden; {@link AllocationCheck} prüft beide Frame-Arten.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dkitchenmaker.meshcache=false"})
+public class RenderLoopBenchmark {
+
+    private static final int WIDTH = 1920, HEIGHT = 1080;
+
+    /** Höchstdauer, die {@link #setup} auf fertige Gruppen des Static Batchers wartet. */
+    private static final long FREEZE_TIMEOUT_MILLIS = 10_000;
+
+    @Param({"1000"})
+    public int objects;
+
+    private final RenderEngine engine = new RenderEngine();
+    private final InstancedRenderer instancedRenderer = new InstancedRenderer();
+    private final StaticSceneCache.Contents sceneCache = new StaticSceneCache.Contents();
+
+    private SceneSnapshot scene;
+    // Gezogenes Objekt an zwei Positionen, jedes zehnte Objekt animiert (dynamisch)
+    private SceneSnapshot dragA, dragB;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        float[] vertices = {
+                -0.5f, -0.5f, -0.5f, 0, 0, -1,  0.5f, -0.5f, -0.5f, 0, 0, -1,
+                0.5f, 0.5f, 0.5f, 0, 0, 1,  -0.5f, 0.5f, 0.5f, 0, 0, 1};
+        Mesh box = new Mesh(vertices, new int[]{0, 1, 2, 0, 2, 3});
+        // Grobe Detailstufe, damit entfernte Objekte ein anderes Mesh (und eine eigene Instanzgruppe) erhalten
+        box.setLodLevels(new Mesh.LodLevel[]{new Mesh.LodLevel(new Mesh(vertices, new int[]{0, 1, 2}), 4)});
+        Mesh panel = new Mesh(vertices.clone(), new int[]{0, 2, 1, 0, 3, 2});
+
+        List<SceneData.Object3D> list = new ArrayList<>();
+        for (int i = 0; i < objects; i++) {
+            SceneData.Object3D obj = new SceneData.Object3D("Objekt " + i, i % 3 == 0 ? panel : box);
+            obj.setPosition((i % 40) - 20, 0.5f, (i / 40) - 12);
+            obj.setRotation(0, i * 0.3f, 0);
+            if (i % 5 == 0) obj.setColor(0.8f, 0.3f, 0.2f);
+            list.add(obj);
+        }
+        engine.cameraDistance = 25;
+
+        scene = SceneSnapshot.capture(list, null, null);
+        awaitStaticBatches();
+
+        SceneData.Object3D dragged = list.get(objects / 2);
+        for (int i = 1; i < objects; i += 10) list.get(i).startAnimation(SceneData.AppearanceMode.SPIN, 3600);
+        dragged.setPosition(1, 0.5f, 1);
+        dragA = SceneSnapshot.capture(list, dragged, dragged, scene);
+        dragged.setPosition(2, 0.5f, 1);
+        dragB = SceneSnapshot.capture(list, dragged, dragged, dragA);
+    }
+
+    /**
+     * Zeichnet Frames, bis der Static Batcher alle Objekte eingefroren und ihre Gruppen aufgebaut hat, sodass die
+     * Messung den Dauerbetrieb erfasst (ohne Static Batching oder nach Ablauf der Wartezeit: sofort weiter).
+     */
+    private void awaitStaticBatches() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + FREEZE_TIMEOUT_MILLIS;
+        renderFrame(scene);
+        Thread.sleep(StaticBatcher.FREEZE_DELAY_MILLIS);
+        while (StaticBatcher.ENABLED && renderFrame(scene).hasRemaining() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Ruhende Szene: alle Objekte eingefroren, nur Kamera, Batcher-Abgleich und Culling laufen.
+     */
+    @Benchmark
+    public FloatBuffer frame() {
+        return renderFrame(scene);
+    }
+
+    /**
+     * Ziehen eines Objekts bei laufenden Animationen: in jedem Frame ein neuer Snapshot, statischer Teil aus dem
+     * Szenen-Cache, dynamische Objekte per Instancing.
+     */
+    @Benchmark
+    public FloatBuffer dragFrame() {
+        return renderFrame((frame++ & 1) == 0 ? dragA : dragB);
+    }
+
+    private FloatBuffer renderFrame(SceneSnapshot snapshot) {
+        engine.prepareFrame(snapshot, WIDTH, HEIGHT);
+        if (StaticSceneCache.hasDynamicEntries(snapshot)) {
+            Mat4 viewProjection = engine.getViewProjectionMatrix();
+            if (!sceneCache.matches(snapshot, viewProjection, WIDTH, HEIGHT)) {
+                engine.collectInstances(snapshot, RenderEngine.Pass.STATIC, instancedRenderer);
+                instancedRenderer.writeInstanceData();
+                instancedRenderer.resetBatches();
+                sceneCache.set(snapshot, viewProjection, WIDTH, HEIGHT, 0);
+            }
+            engine.collectInstances(snapshot, RenderEngine.Pass.DYNAMIC, instancedRenderer);
+        } else {
+            engine.collectInstances(snapshot, RenderEngine.Pass.ALL, instancedRenderer);
+        }
+        FloatBuffer data = instancedRenderer.writeInstanceData();
+        instancedRenderer.resetBatches();
+        return data;
+    }
+}
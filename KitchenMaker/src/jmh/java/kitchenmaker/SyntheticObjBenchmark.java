@@ -0,0 +1,117 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser-Durchsatz für generierte OBJ-Dateien mit 10k, 100k und 1M Dreiecken.
+ * <p>
+ * Die Datei ist ein welliges Höhenfeld mit Normalen im Format {@code f a//a b//b c//c},
+ * wie es typische Exporte aus Blender liefern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Dkitchenmaker.meshcache=false", "-Dkitchenmaker.lod=false", "-Xmx4g"})
+public class SyntheticObjBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int triangles;
+
+    private byte[] content;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        content = generate(triangles);
+        file = File.createTempFile("kitchenmaker-bench-", ".obj");
+        Files.write(file.toPath(), content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (file != null) file.delete();
+    }
+
+    /**
+     * Streaming-Parser auf einem Datenstrom (Weg für kleine Dateien).
+     */
+    @Benchmark
+    public Mesh parseStream(ObjLoadCounters counters) throws IOException {
+        Mesh mesh = ObjParser.parse(new ByteArrayInputStream(content));
+        counters.count(content.length, mesh);
+        return mesh;
+    }
+
+    /**
+     * Paralleler Import über Memory-Mapping (Weg für große Dateien).
+     */
+    @Benchmark
+    public Mesh loadMapped(ObjLoadCounters counters) throws IOException {
+        Mesh mesh = MappedObjLoader.load(file);
+        counters.count(content.length, mesh);
+        return mesh;
+    }
+
+    /**
+     * Erzeugt ein Höhenfeld aus n × n Quads (je zwei Dreiecke) mit mindestens der gewünschten Dreieckszahl.
+     */
+    static byte[] generate(int minTriangles) {
+        int n = (int) Math.ceil(Math.sqrt(minTriangles / 2.0));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(minTriangles * 40);
+        PrintStream out = new PrintStream(bytes, false, StandardCharsets.US_ASCII);
+        out.println("# Synthetisches Höhenfeld, " + (2 * n * n) + " Dreiecke");
+
+        float step = 1.0f / n;
+        for (int z = 0; z <= n; z++) {
+            for (int x = 0; x <= n; x++) {
+                float px = x * step, pz = z * step;
+                float py = 0.05f * (float) (Math.sin(px * 12.0) * Math.cos(pz * 9.0));
+                out.printf(Locale.ROOT, "v %.6f %.6f %.6f%n", px, py, pz);
+            }
+        }
+        for (int z = 0; z <= n; z++) {
+            for (int x = 0; x <= n; x++) {
+                // Normale des Höhenfelds aus den partiellen Ableitungen
+                float px = x * step, pz = z * step;
+                float dx = 0.6f * (float) (Math.cos(px * 12.0) * Math.cos(pz * 9.0));
+                float dz = -0.45f * (float) (Math.sin(px * 12.0) * Math.sin(pz * 9.0));
+                float len = (float) Math.sqrt(dx * dx + 1 + dz * dz);
+                out.printf(Locale.ROOT, "vn %.4f %.4f %.4f%n", -dx / len, 1 / len, -dz / len);
+            }
+        }
+        for (int z = 0; z < n; z++) {
+            for (int x = 0; x < n; x++) {
+                int a = z * (n + 1) + x + 1; // OBJ-Indizes sind 1-basiert
+                int b = a + 1, c = a + n + 1, d = c + 1;
+                out.printf("f %d//%d %d//%d %d//%d%n", a, a, c, c, b, b);
+                out.printf("f %d//%d %d//%d %d//%d%n", b, b, c, c, d, d);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
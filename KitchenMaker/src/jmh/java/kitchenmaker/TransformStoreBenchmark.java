@@ -0,0 +1,85 @@
+package kitchenmaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aktualisierung vieler Objekte pro Frame: alle Objekte werden verschoben, danach werden Modellmatrizen und
+ * Welt-AABBs gelesen (wie beim Aufbau eines {@link SceneSnapshot} während einer Animation).
+ * <p>
+ * {@link #sharedStore} legt alle Objekte in einen gemeinsamen {@link TransformStore} (ein Durchlauf über alle
+ * veralteten Slots), {@link #perObjectStores} gibt jedem Objekt einen eigenen Store mit einem Slot
+ * (entspricht {@code -Dkitchenmaker.transformStore=false}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dkitchenmaker.meshcache=false"})
+public class TransformStoreBenchmark {
+
+    @Param({"1000", "10000"})
+    public int objects;
+
+    private final Mat4 modelMatrix = new Mat4();
+    private final Vec3 min = new Vec3();
+    private final Vec3 max = new Vec3();
+
+    private SceneData.Object3D[] shared;
+    private SceneData.Object3D[] separate;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float[] vertices = {
+                -0.5f, -0.5f, -0.5f, 0, 0, -1,  0.5f, -0.5f, -0.5f, 0, 0, -1,
+                0.5f, 0.5f, 0.5f, 0, 0, 1,  -0.5f, 0.5f, 0.5f, 0, 0, 1};
+        Mesh box = new Mesh(vertices, new int[]{0, 1, 2, 0, 2, 3});
+        TransformStore store = new TransformStore(objects);
+        shared = new SceneData.Object3D[objects];
+        separate = new SceneData.Object3D[objects];
+        for (int i = 0; i < objects; i++) {
+            shared[i] = new SceneData.Object3D("Objekt " + i, box, store);
+            separate[i] = new SceneData.Object3D("Objekt " + i, box, new TransformStore(1));
+            shared[i].setRotation(0, i * 0.3f, 0);
+            separate[i].setRotation(0, i * 0.3f, 0);
+        }
+    }
+
+    @Benchmark
+    public float sharedStore() {
+        return moveAndRead(shared);
+    }
+
+    @Benchmark
+    public float perObjectStores() {
+        return moveAndRead(separate);
+    }
+
+    private float moveAndRead(SceneData.Object3D[] scene) {
+        float offset = frame++ & 7;
+        for (int i = 0; i < scene.length; i++) {
+            scene[i].setPosition((i % 100) + offset, 0.5f, i / 100);
+        }
+        float sum = 0;
+        for (SceneData.Object3D obj : scene) {
+            obj.getModelMatrix(modelMatrix);
+            obj.getWorldBounds(min, max);
+            sum += modelMatrix.matrixElements[12] + max.y;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,385 @@
+package kitchenmaker;
+
+/**
+ * Affine Transformation im 3D-Raum (3x4-Matrix: linearer 3x3-Anteil und Translation).
+ * <p>
+ * Modellmatrizen der Objekte (Translation, Rotation, Skalierung) und die View-Matrix der Kamera haben
+ * immer die letzte Zeile (0, 0, 0, 1). Diese Klasse lässt sie weg: Verknüpfen kostet 36 statt 64
+ * Multiplikationen, und die Inverse ergibt sich aus der Inversen des 3x3-Anteils – für Rotation mit
+ * Skalierung sogar ohne Determinante, da die Spalten orthogonal sind ({@link #invertOrthogonal}).
+ * Zum Hochladen in einen Shader wird die Transformation mit {@link #toMat4} in eine {@link Mat4} kopiert.
+ * <p>
+ * Alle Methoden arbeiten ohne Hilfsobjekte; Varianten mit {@code dest} dürfen diese Instanz als Ziel erhalten.
+ */
+public class Affine3 {
+    /**
+     * Elemente im Column-Major-Format (wie {@link Mat4} ohne die letzte Zeile):
+     * m[0]  m[3]  m[6]  m[9]
+     * m[1]  m[4]  m[7]  m[10]
+     * m[2]  m[5]  m[8]  m[11]
+     */
+    public final float[] elements = new float[12];
+
+    /**
+     * Erstellt die identische Transformation.
+     */
+    public Affine3() {
+        setIdentity();
+    }
+
+    /**
+     * Erstellt eine Kopie der angegebenen Transformation.
+     */
+    public Affine3(Affine3 other) {
+        set(other);
+    }
+
+    /**
+     * Übernimmt die Elemente der angegebenen Transformation.
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 set(Affine3 other) {
+        System.arraycopy(other.elements, 0, elements, 0, 12);
+        return this;
+    }
+
+    /**
+     * Übernimmt die oberen drei Zeilen einer Matrix, deren letzte Zeile (0, 0, 0, 1) ist.
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 set(Mat4 matrix) {
+        float[] m = matrix.matrixElements, a = elements;
+        a[0] = m[0]; a[1] = m[1]; a[2] = m[2];
+        a[3] = m[4]; a[4] = m[5]; a[5] = m[6];
+        a[6] = m[8]; a[7] = m[9]; a[8] = m[10];
+        a[9] = m[12]; a[10] = m[13]; a[11] = m[14];
+        return this;
+    }
+
+    /**
+     * Setzt diese Transformation auf die Identität.
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 setIdentity() {
+        return setTranslation(0, 0, 0);
+    }
+
+    /**
+     * Setzt diese Transformation auf eine reine Verschiebung.
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 setTranslation(float x, float y, float z) {
+        float[] a = elements;
+        a[0] = 1; a[1] = 0; a[2] = 0;
+        a[3] = 0; a[4] = 1; a[5] = 0;
+        a[6] = 0; a[7] = 0; a[8] = 1;
+        a[9] = x; a[10] = y; a[11] = z;
+        return this;
+    }
+
+    public Affine3 setTranslation(Vec3 translation) {
+        return setTranslation(translation.x, translation.y, translation.z);
+    }
+
+    /**
+     * Hängt eine Verschiebung an (this = this * T).
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 translate(float deltaX, float deltaY, float deltaZ) {
+        float[] a = elements;
+        a[9] += a[0] * deltaX + a[3] * deltaY + a[6] * deltaZ;
+        a[10] += a[1] * deltaX + a[4] * deltaY + a[7] * deltaZ;
+        a[11] += a[2] * deltaX + a[5] * deltaY + a[8] * deltaZ;
+        return this;
+    }
+
+    /**
+     * Hängt eine Rotation um die X-Achse an (this = this * Rx).
+     * @param angleInRadians Rotationswinkel in Radiant
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 rotateAroundX(float angleInRadians) {
+        if (angleInRadians == 0) return this;
+        float cosAngle = (float) Math.cos(angleInRadians);
+        float sinAngle = (float) Math.sin(angleInRadians);
+        float[] a = elements;
+        for (int row = 0; row < 3; row++) {
+            float y = a[row + 3], z = a[row + 6];
+            a[row + 3] = y * cosAngle + z * sinAngle;
+            a[row + 6] = z * cosAngle - y * sinAngle;
+        }
+        return this;
+    }
+
+    /**
+     * Hängt eine Rotation um die Y-Achse an (this = this * Ry).
+     * @param angleInRadians Rotationswinkel in Radiant
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 rotateAroundY(float angleInRadians) {
+        if (angleInRadians == 0) return this;
+        float cosAngle = (float) Math.cos(angleInRadians);
+        float sinAngle = (float) Math.sin(angleInRadians);
+        float[] a = elements;
+        for (int row = 0; row < 3; row++) {
+            float x = a[row], z = a[row + 6];
+            a[row] = x * cosAngle - z * sinAngle;
+            a[row + 6] = x * sinAngle + z * cosAngle;
+        }
+        return this;
+    }
+
+    /**
+     * Hängt eine Rotation um die Z-Achse an (this = this * Rz).
+     * @param angleInRadians Rotationswinkel in Radiant
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 rotateAroundZ(float angleInRadians) {
+        if (angleInRadians == 0) return this;
+        float cosAngle = (float) Math.cos(angleInRadians);
+        float sinAngle = (float) Math.sin(angleInRadians);
+        float[] a = elements;
+        for (int row = 0; row < 3; row++) {
+            float x = a[row], y = a[row + 3];
+            a[row] = x * cosAngle + y * sinAngle;
+            a[row + 3] = y * cosAngle - x * sinAngle;
+        }
+        return this;
+    }
+
+    /**
+     * Hängt eine Skalierung an (this = this * S).
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 scale(float scaleX, float scaleY, float scaleZ) {
+        if (scaleX == 1 && scaleY == 1 && scaleZ == 1) return this;
+        float[] a = elements;
+        a[0] *= scaleX; a[1] *= scaleX; a[2] *= scaleX;
+        a[3] *= scaleY; a[4] *= scaleY; a[5] *= scaleY;
+        a[6] *= scaleZ; a[7] *= scaleZ; a[8] *= scaleZ;
+        return this;
+    }
+
+    public Affine3 scale(Vec3 scaleFactors) {
+        return scale(scaleFactors.x, scaleFactors.y, scaleFactors.z);
+    }
+
+    /**
+     * Setzt diese Transformation auf T * R * S aus Verschiebung, Rotation (Einheitsquaternion) und Skalierung.
+     * Die Rotationsmatrix wird direkt aus dem Quaternion gebildet – ohne Winkelfunktionen und ohne
+     * Matrixmultiplikation.
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 setTransform(Vec3 translation, Quat rotation, Vec3 scale) {
+        float x = rotation.x, y = rotation.y, z = rotation.z, w = rotation.w;
+        float xx = x * x, yy = y * y, zz = z * z;
+        float xy = x * y, xz = x * z, yz = y * z;
+        float wx = w * x, wy = w * y, wz = w * z;
+        float sx = scale.x, sy = scale.y, sz = scale.z;
+
+        float[] a = elements;
+        a[0] = (1 - 2 * (yy + zz)) * sx; a[1] = 2 * (xy + wz) * sx; a[2] = 2 * (xz - wy) * sx;
+        a[3] = 2 * (xy - wz) * sy; a[4] = (1 - 2 * (xx + zz)) * sy; a[5] = 2 * (yz + wx) * sy;
+        a[6] = 2 * (xz + wy) * sz; a[7] = 2 * (yz - wx) * sz; a[8] = (1 - 2 * (xx + yy)) * sz;
+        a[9] = translation.x; a[10] = translation.y; a[11] = translation.z;
+        return this;
+    }
+
+    /**
+     * Setzt diese Transformation auf die View-Transformation einer Kamera (wie {@link Mat4#setLookAt}).
+     * @return diese Transformation für Methoden-Verkettung
+     */
+    public Affine3 setLookAt(Vec3 cameraPosition, Vec3 targetPosition, Vec3 upDirection) {
+        float fx = cameraPosition.x - targetPosition.x;
+        float fy = cameraPosition.y - targetPosition.y;
+        float fz = cameraPosition.z - targetPosition.z;
+        float fLength = (float) Math.sqrt(fx * fx + fy * fy + fz * fz);
+        if (fLength > 0) { fx /= fLength; fy /= fLength; fz /= fLength; }
+
+        // right = up x forward
+        float rx = upDirection.y * fz - upDirection.z * fy;
+        float ry = upDirection.z * fx - upDirection.x * fz;
+        float rz = upDirection.x * fy - upDirection.y * fx;
+        float rLength = (float) Math.sqrt(rx * rx + ry * ry + rz * rz);
+        if (rLength > 0) { rx /= rLength; ry /= rLength; rz /= rLength; }
+
+        // cameraUp = forward x right
+        float ux = fy * rz - fz * ry;
+        float uy = fz * rx - fx * rz;
+        float uz = fx * ry - fy * rx;
+
+        float px = cameraPosition.x, py = cameraPosition.y, pz = cameraPosition.z;
+        float[] a = elements;
+        a[0] = rx; a[3] = ry; a[6] = rz; a[9] = -(rx * px + ry * py + rz * pz);
+        a[1] = ux; a[4] = uy; a[7] = uz; a[10] = -(ux * px + uy * py + uz * pz);
+        a[2] = fx; a[5] = fy; a[8] = fz; a[11] = -(fx * px + fy * py + fz * pz);
+        return this;
+    }
+
+    /**
+     * Verknüpft zwei Transformationen: {@code dest = a * b} (erst b, dann a). {@code dest} darf
+     * {@code a} oder {@code b} sein.
+     * @return dest
+     */
+    public static Affine3 mul(Affine3 a, Affine3 b, Affine3 dest) {
+        float[] x = a.elements, y = b.elements, d = dest.elements;
+        float b0 = y[0], b1 = y[1], b2 = y[2], b3 = y[3], b4 = y[4], b5 = y[5];
+        float b6 = y[6], b7 = y[7], b8 = y[8], b9 = y[9], b10 = y[10], b11 = y[11];
+        for (int row = 0; row < 3; row++) {
+            float a0 = x[row], a1 = x[row + 3], a2 = x[row + 6], a3 = x[row + 9];
+            d[row] = a0 * b0 + a1 * b1 + a2 * b2;
+            d[row + 3] = a0 * b3 + a1 * b4 + a2 * b5;
+            d[row + 6] = a0 * b6 + a1 * b7 + a2 * b8;
+            d[row + 9] = a0 * b9 + a1 * b10 + a2 * b11 + a3;
+        }
+        return dest;
+    }
+
+    /**
+     * Schreibt die Inverse nach {@code dest} (beliebiger invertierbarer 3x3-Anteil, auch mit Scherung).
+     * Ist die Transformation nicht invertierbar, wird {@code dest} auf die Identität gesetzt.
+     * @return dest
+     */
+    public Affine3 invert(Affine3 dest) {
+        float[] a = elements;
+        float m00 = a[0], m10 = a[1], m20 = a[2];
+        float m01 = a[3], m11 = a[4], m21 = a[5];
+        float m02 = a[6], m12 = a[7], m22 = a[8];
+        float tx = a[9], ty = a[10], tz = a[11];
+
+        // Kofaktoren; die Inverse ist die transponierte Kofaktormatrix geteilt durch die Determinante
+        float c00 = m11 * m22 - m12 * m21, c01 = m12 * m20 - m10 * m22, c02 = m10 * m21 - m11 * m20;
+        float c10 = m02 * m21 - m01 * m22, c11 = m00 * m22 - m02 * m20, c12 = m01 * m20 - m00 * m21;
+        float c20 = m01 * m12 - m02 * m11, c21 = m02 * m10 - m00 * m12, c22 = m00 * m11 - m01 * m10;
+        float determinant = m00 * c00 + m01 * c01 + m02 * c02;
+        if (Math.abs(determinant) < 0.00001f) return dest.setIdentity();
+
+        float s = 1.0f / determinant;
+        return setInverse(dest, c00 * s, c01 * s, c02 * s, c10 * s, c11 * s, c12 * s, c20 * s, c21 * s, c22 * s, tx, ty, tz);
+    }
+
+    /**
+     * Schreibt die Inverse nach {@code dest} unter der Annahme, dass die Spalten des 3x3-Anteils orthogonal
+     * sind (Rotation mit Skalierung, z.B. Modellmatrizen T·R·S und die View-Matrix). Dann ist die Inverse
+     * die Transponierte, deren Zeilen durch die quadrierten Spaltenlängen geteilt werden – ohne Determinante.
+     * @return dest
+     */
+    public Affine3 invertOrthogonal(Affine3 dest) {
+        float[] a = elements;
+        float m00 = a[0], m10 = a[1], m20 = a[2];
+        float m01 = a[3], m11 = a[4], m21 = a[5];
+        float m02 = a[6], m12 = a[7], m22 = a[8];
+        float tx = a[9], ty = a[10], tz = a[11];
+
+        float s0 = inverseSquaredLength(m00, m10, m20);
+        float s1 = inverseSquaredLength(m01, m11, m21);
+        float s2 = inverseSquaredLength(m02, m12, m22);
+        return setInverse(dest, m00 * s0, m01 * s1, m02 * s2, m10 * s0, m11 * s1, m12 * s2, m20 * s0, m21 * s1, m22 * s2,
+                tx, ty, tz);
+    }
+
+    private static float inverseSquaredLength(float x, float y, float z) {
+        float squared = x * x + y * y + z * z;
+        return squared > 0 ? 1.0f / squared : 0;
+    }
+
+    /**
+     * Schreibt den invertierten 3x3-Anteil (Column-Major, i00 = Zeile 0, Spalte 0) und die zugehörige
+     * Translation {@code -inverse * t} nach {@code dest}.
+     */
+    private static Affine3 setInverse(Affine3 dest, float i00, float i10, float i20, float i01, float i11, float i21,
+                                      float i02, float i12, float i22, float tx, float ty, float tz) {
+        float[] d = dest.elements;
+        d[0] = i00; d[1] = i10; d[2] = i20;
+        d[3] = i01; d[4] = i11; d[5] = i21;
+        d[6] = i02; d[7] = i12; d[8] = i22;
+        d[9] = -(i00 * tx + i01 * ty + i02 * tz);
+        d[10] = -(i10 * tx + i11 * ty + i12 * tz);
+        d[11] = -(i20 * tx + i21 * ty + i22 * tz);
+        return dest;
+    }
+
+    /**
+     * Berechnet die Normalenmatrix (inverse Transponierte des 3x3-Anteils) als 3x3-Matrix im Column-Major-Format,
+     * wie sie {@code glUniformMatrix3fv} erwartet. Transformierte Normalen müssen bei Skalierung noch normalisiert
+     * werden. Ist der 3x3-Anteil singulär, wird die Einheitsmatrix geschrieben.
+     * @param dest Array mit mindestens 9 Elementen
+     * @return dest
+     */
+    public float[] getNormalMatrix(float[] dest) {
+        float[] a = elements;
+        float m00 = a[0], m10 = a[1], m20 = a[2];
+        float m01 = a[3], m11 = a[4], m21 = a[5];
+        float m02 = a[6], m12 = a[7], m22 = a[8];
+
+        // Inverse Transponierte = Kofaktormatrix / Determinante
+        float c00 = m11 * m22 - m12 * m21, c01 = m12 * m20 - m10 * m22, c02 = m10 * m21 - m11 * m20;
+        float c10 = m02 * m21 - m01 * m22, c11 = m00 * m22 - m02 * m20, c12 = m01 * m20 - m00 * m21;
+        float c20 = m01 * m12 - m02 * m11, c21 = m02 * m10 - m00 * m12, c22 = m00 * m11 - m01 * m10;
+        float determinant = m00 * c00 + m01 * c01 + m02 * c02;
+        if (Math.abs(determinant) < 0.00001f) {
+            dest[0] = 1; dest[1] = 0; dest[2] = 0;
+            dest[3] = 0; dest[4] = 1; dest[5] = 0;
+            dest[6] = 0; dest[7] = 0; dest[8] = 1;
+            return dest;
+        }
+        float s = 1.0f / determinant;
+        dest[0] = c00 * s; dest[1] = c10 * s; dest[2] = c20 * s;
+        dest[3] = c01 * s; dest[4] = c11 * s; dest[5] = c21 * s;
+        dest[6] = c02 * s; dest[7] = c12 * s; dest[8] = c22 * s;
+        return dest;
+    }
+
+    /**
+     * Transformiert einen Punkt (mit Translation). {@code dest} darf {@code point} sein.
+     * @return dest
+     */
+    public Vec3 transformPosition(Vec3 point, Vec3 dest) {
+        float[] a = elements;
+        float x = point.x, y = point.y, z = point.z;
+        return dest.set(
+                a[0] * x + a[3] * y + a[6] * z + a[9],
+                a[1] * x + a[4] * y + a[7] * z + a[10],
+                a[2] * x + a[5] * y + a[8] * z + a[11]);
+    }
+
+    /**
+     * Transformiert eine Richtung (ohne Translation). {@code dest} darf {@code direction} sein.
+     * @return dest
+     */
+    public Vec3 transformDirection(Vec3 direction, Vec3 dest) {
+        float[] a = elements;
+        float x = direction.x, y = direction.y, z = direction.z;
+        return dest.set(
+                a[0] * x + a[3] * y + a[6] * z,
+                a[1] * x + a[4] * y + a[7] * z,
+                a[2] * x + a[5] * y + a[8] * z);
+    }
+
+    /**
+     * Kopiert die Transformation in eine 4x4-Matrix (letzte Zeile 0, 0, 0, 1), z.B. zum Hochladen.
+     * @return dest
+     */
+    public Mat4 toMat4(Mat4 dest) {
+        float[] a = elements, m = dest.matrixElements;
+        m[0] = a[0]; m[1] = a[1]; m[2] = a[2]; m[3] = 0;
+        m[4] = a[3]; m[5] = a[4]; m[6] = a[5]; m[7] = 0;
+        m[8] = a[6]; m[9] = a[7]; m[10] = a[8]; m[11] = 0;
+        m[12] = a[9]; m[13] = a[10]; m[14] = a[11]; m[15] = 1;
+        return dest;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Affine3:\n");
+        for (int row = 0; row < 3; row++) {
+            sb.append("  [");
+            for (int col = 0; col < 4; col++) {
+                sb.append(String.format("%8.3f", elements[col * 3 + row]));
+                if (col < 3) sb.append(", ");
+            }
+            sb.append("]\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package kitchenmaker;
+
+/**
+ * Transformationen und Bounding Boxes für viele Elemente in einem Aufruf.
+ * <p>
+ * Läuft die Anwendung mit {@code --add-modules jdk.incubator.vector}, rechnen die Methoden mit der Java
+ * Vector API ({@link VectorBatchMath}): mehrere Floats pro Befehl, ohne Gather/Scatter, direkt auf den
+ * verschachtelten Vertex-Daten der Meshes. Ohne das Modul (oder mit {@code -Dkitchenmaker.simd=false})
+ * wird dieselbe Rechnung skalar ausgeführt; die Ergebnisse stimmen bis auf Rundungsunterschiede (FMA) überein.
+ * <p>
+ * Layouts:
+ * <ul>
+ *   <li>Punkte und Normalen: je 3 Floats (x, y, z) hintereinander</li>
+ *   <li>Vertices: Mesh-Layout mit 6 Floats (Position x, y, z, Normale x, y, z)</li>
+ *   <li>Bounding Boxes in {@link #transformBounds}: Structure of Arrays, siehe dort</li>
+ * </ul>
+ * Quell- und Zielarray müssen verschieden sein.
+ */
+public final class BatchMath {
+
+    /**
+     * Floats pro Vertex im Mesh-Layout.
+     */
+    public static final int VERTEX_STRIDE = 6;
+
+    static final boolean SIMD = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.simd"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorBatchMath.isUseful();
+
+    private BatchMath() {
+    }
+
+    /**
+     * Gibt an, ob die Vector API verwendet wird (für Log und Profiler).
+     */
+    public static boolean isSimdEnabled() {
+        return SIMD;
+    }
+
+    /**
+     * Transformiert {@code count} Punkte (je x, y, z) mit der Matrix (inkl. Translation).
+     */
+    public static void transformPoints(Mat4 matrix, float[] source, float[] dest, int count) {
+        float[] rows = new float[3 * 4];
+        pointRows(matrix, rows, 0);
+        transform(rows, 3, -1, source, dest, count * 3);
+    }
+
+    /**
+     * Transformiert {@code count} Normalen (je x, y, z) mit der inversen Transponierten des 3x3-Anteils und
+     * normalisiert sie, sodass auch ungleichmäßige Skalierung korrekt beleuchtet wird.
+     */
+    public static void transformNormals(Mat4 matrix, float[] source, float[] dest, int count) {
+        float[] rows = new float[3 * 4];
+        normalRows(matrix, rows, 0);
+        transform(rows, 3, 0, source, dest, count * 3);
+    }
+
+    /**
+     * Transformiert {@code count} Vertices im Mesh-Layout: Positionen wie {@link #transformPoints},
+     * Normalen wie {@link #transformNormals}.
+     */
+    public static void transformVertices(Mat4 matrix, float[] source, float[] dest, int count) {
+        float[] rows = new float[VERTEX_STRIDE * 4];
+        pointRows(matrix, rows, 0);
+        normalRows(matrix, rows, 3);
+        transform(rows, VERTEX_STRIDE, 3, source, dest, count * VERTEX_STRIDE);
+    }
+
+    /**
+     * Berechnet die achsenparallele Bounding Box der ersten drei Komponenten von {@code count} Elementen
+     * mit {@code stride} Floats (z.B. 3 für Punkte, {@link #VERTEX_STRIDE} für Vertices; andere Strides
+     * werden skalar berechnet).
+     * Bei {@code count == 0} ist min = +MAX und max = -MAX.
+     */
+    public static void bounds(float[] data, int stride, int count, Vec3 min, Vec3 max) {
+        min.set(Float.MAX_VALUE);
+        max.set(-Float.MAX_VALUE);
+        if (SIMD && (stride == 3 || stride == VERTEX_STRIDE)) {
+            VectorBatchMath.bounds(data, stride, count * stride, min, max);
+        } else {
+            scalarBounds(data, stride, 0, count * stride, min, max);
+        }
+    }
+
+    /**
+     * Transformiert {@code count} lokale Bounding Boxes mit je eigener affiner Transformation in Weltkoordinaten
+     * (nach Arvo: nur Mittelpunkt und halbe Ausdehnung werden transformiert).
+     * <p>
+     * Alle Arrays liegen als Structure of Arrays mit Kapazität {@code capacity} vor:
+     * <ul>
+     *   <li>{@code transforms[e * capacity + i]}: Element e (0..11, Layout wie {@link Affine3#elements}) von Box i</li>
+     *   <li>{@code localBounds[c * capacity + i]} und {@code worldBounds[c * capacity + i]}:
+     *       Komponente c (min x, min y, min z, max x, max y, max z) von Box i</li>
+     * </ul>
+     */
+    public static void transformBounds(float[] transforms, float[] localBounds, float[] worldBounds, int capacity, int count) {
+        transformBounds(transforms, localBounds, worldBounds, capacity, 0, count);
+    }
+
+    /**
+     * Wie {@link #transformBounds(float[], float[], float[], int, int)}, aber nur für die Boxen {@code [from, to)}.
+     */
+    public static void transformBounds(float[] transforms, float[] localBounds, float[] worldBounds, int capacity,
+                                       int from, int to) {
+        if (SIMD && to - from >= 4) {
+            VectorBatchMath.transformBounds(transforms, localBounds, worldBounds, capacity, from, to);
+        } else {
+            scalarTransformBounds(transforms, localBounds, worldBounds, capacity, from, to);
+        }
+    }
+
+    private static void transform(float[] rows, int stride, int normalStart, float[] source, float[] dest, int length) {
+        if (SIMD) {
+            VectorBatchMath.transform(rows, stride, normalStart, source, dest, length);
+        } else {
+            scalarTransform(rows, stride, normalStart, source, dest, 0, length);
+        }
+    }
+
+    /**
+     * Zeilen der Punkt-Transformation: je Komponente drei Koeffizienten und die Translation.
+     */
+    private static void pointRows(Mat4 matrix, float[] rows, int component) {
+        float[] m = matrix.matrixElements;
+        for (int row = 0; row < 3; row++) {
+            int r = (component + row) * 4;
+            rows[r] = m[row];
+            rows[r + 1] = m[4 + row];
+            rows[r + 2] = m[8 + row];
+            rows[r + 3] = m[12 + row];
+        }
+    }
+
+    /**
+     * Zeilen der Normalen-Transformation: Kofaktormatrix des 3x3-Anteils (entspricht der inversen Transponierten
+     * bis auf einen Faktor, der durch das Normalisieren entfällt), ohne Translation.
+     */
+    private static void normalRows(Mat4 matrix, float[] rows, int component) {
+        float[] m = matrix.matrixElements;
+        // Column-Major: Element (Zeile r, Spalte c) = m[c * 4 + r]
+        float a = m[0], b = m[4], c = m[8];
+        float d = m[1], e = m[5], f = m[9];
+        float g = m[2], h = m[6], k = m[10];
+        float c00 = e * k - f * h, c01 = f * g - d * k, c02 = d * h - e * g;
+        float c10 = c * h - b * k, c11 = a * k - c * g, c12 = b * g - a * h;
+        float c20 = b * f - c * e, c21 = c * d - a * f, c22 = a * e - b * d;
+        // Bei Spiegelungen (negative Determinante) zeigen die Kofaktor-Normalen nach innen
+        float sign = a * c00 + b * c01 + c * c02 < 0 ? -1 : 1;
+
+        int r = component * 4;
+        rows[r] = c00 * sign; rows[r + 1] = c01 * sign; rows[r + 2] = c02 * sign; rows[r + 3] = 0;
+        rows[r + 4] = c10 * sign; rows[r + 5] = c11 * sign; rows[r + 6] = c12 * sign; rows[r + 7] = 0;
+        rows[r + 8] = c20 * sign; rows[r + 9] = c21 * sign; rows[r + 10] = c22 * sign; rows[r + 11] = 0;
+    }
+
+    /**
+     * Skalare Transformation der Floats {@code [from, to)} (Vielfache von {@code stride}).
+     * Komponenten ab {@code normalStart} (falls >= 0) werden anschließend normalisiert.
+     */
+    static void scalarTransform(float[] rows, int stride, int normalStart, float[] source, float[] dest, int from, int to) {
+        for (int i = from; i < to; i += stride) {
+            for (int group = 0; group < stride; group += 3) {
+                float x = source[i + group], y = source[i + group + 1], z = source[i + group + 2];
+                int r = group * 4;
+                float tx = rows[r] * x + rows[r + 1] * y + rows[r + 2] * z + rows[r + 3];
+                float ty = rows[r + 4] * x + rows[r + 5] * y + rows[r + 6] * z + rows[r + 7];
+                float tz = rows[r + 8] * x + rows[r + 9] * y + rows[r + 10] * z + rows[r + 11];
+                if (group == normalStart) {
+                    float length = (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+                    if (length > 0) {
+                        tx /= length;
+                        ty /= length;
+                        tz /= length;
+                    }
+                }
+                dest[i + group] = tx;
+                dest[i + group + 1] = ty;
+                dest[i + group + 2] = tz;
+            }
+        }
+    }
+
+    /**
+     * Erweitert min/max um die ersten drei Komponenten der Elemente in {@code [from, to)}.
+     */
+    static void scalarBounds(float[] data, int stride, int from, int to, Vec3 min, Vec3 max) {
+        float minX = min.x, minY = min.y, minZ = min.z;
+        float maxX = max.x, maxY = max.y, maxZ = max.z;
+        for (int i = from; i < to; i += stride) {
+            float x = data[i], y = data[i + 1], z = data[i + 2];
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        min.set(minX, minY, minZ);
+        max.set(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Skalare Variante von {@link #transformBounds} für die Boxen {@code [from, to)}.
+     */
+    static void scalarTransformBounds(float[] transforms, float[] localBounds, float[] worldBounds, int capacity, int from, int to) {
+        for (int i = from; i < to; i++) {
+            float minX = localBounds[i], minY = localBounds[capacity + i], minZ = localBounds[2 * capacity + i];
+            float maxX = localBounds[3 * capacity + i], maxY = localBounds[4 * capacity + i], maxZ = localBounds[5 * capacity + i];
+            float cx = 0.5f * (minX + maxX), cy = 0.5f * (minY + maxY), cz = 0.5f * (minZ + maxZ);
+            float ex = 0.5f * (maxX - minX), ey = 0.5f * (maxY - minY), ez = 0.5f * (maxZ - minZ);
+
+            for (int row = 0; row < 3; row++) {
+                float m0 = transforms[row * capacity + i];
+                float m1 = transforms[(row + 3) * capacity + i];
+                float m2 = transforms[(row + 6) * capacity + i];
+                float m3 = transforms[(row + 9) * capacity + i];
+                float center = m0 * cx + m1 * cy + m2 * cz + m3;
+                float extent = Math.abs(m0) * ex + Math.abs(m1) * ey + Math.abs(m2) * ez;
+                worldBounds[row * capacity + i] = center - extent;
+                worldBounds[(row + 3) * capacity + i] = center + extent;
+            }
+        }
+    }
+}
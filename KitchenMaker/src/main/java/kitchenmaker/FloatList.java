@@ -0,0 +1,77 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+
+/**
+ * Wachsende Liste primitiver float-Werte.
+ * Ersetzt {@code List<Float>} in Lade- und Verarbeitungsschleifen, damit dort kein Boxing
+ * und keine Allokation pro Element entsteht.
+ */
+public class FloatList {
+
+    private float[] data;
+    private int size;
+
+    public FloatList(int initialCapacity) {
+        data = new float[Math.max(4, initialCapacity)];
+    }
+
+    public void add(float value) {
+        if (size == data.length) grow(size + 1);
+        data[size++] = value;
+    }
+
+    /**
+     * Hängt drei Werte auf einmal an (z.B. eine Position oder Normale).
+     */
+    public void add(float a, float b, float c) {
+        if (size + 3 > data.length) grow(size + 3);
+        data[size] = a;
+        data[size + 1] = b;
+        data[size + 2] = c;
+        size += 3;
+    }
+
+    /**
+     * Hängt einen Ausschnitt eines Arrays an.
+     */
+    public void addAll(float[] values, int offset, int length) {
+        if (size + length > data.length) grow(size + length);
+        System.arraycopy(values, offset, data, size, length);
+        size += length;
+    }
+
+    public float get(int index) {
+        return data[index];
+    }
+
+    public void set(int index, float value) {
+        data[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Liefert das interne Array (Länge kann größer als {@link #size()} sein).
+     */
+    public float[] array() {
+        return data;
+    }
+
+    /**
+     * Kopiert den belegten Bereich in ein passgenaues Array.
+     */
+    public float[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, Math.max(minCapacity, data.length * 2));
+    }
+}
@@ -0,0 +1,331 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Misst pro Frame die CPU-Zeit der einzelnen Render-Stufen, die GPU-Zeit und die Zahl der
+ * Draw Calls, Dreiecke und Uniform-Uploads.
+ * <p>
+ * Die GPU-Zeit wird über {@code GL_TIME_ELAPSED}-Queries (OpenGL 3.3 bzw. ARB_timer_query) ermittelt.
+ * Damit der Render-Thread nie auf die GPU wartet, rotieren mehrere Query-Objekte; ein Ergebnis wird erst
+ * abgeholt, wenn es verfügbar ist, und nachträglich dem Frame zugeordnet, in dem es gestartet wurde.
+ * Die letzten {@value #HISTORY_FRAMES} Frames bleiben erhalten und lassen sich als CSV exportieren.
+ * <p>
+ * Aufzeichnung nur im Render-Thread; die Auswertung ({@link #getLastSample}, {@link #exportCsv})
+ * ist aus jedem Thread möglich.
+ */
+public class FrameProfiler {
+
+    /**
+     * Gemessene Abschnitte eines Frames in der Reihenfolge ihres Ablaufs.
+     */
+    public enum Stage {
+        PREPARE("Vorbereitung"),
+        SETUP("Kamera/Raster"),
+        SCENE("Szene"),
+        SUBMIT("Instancing"),
+        OVERLAY("HUD");
+
+        private final String displayName;
+
+        Stage(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    /** Anzahl der aufbewahrten Frames (Verlauf, Histogramm, Export). */
+    public static final int HISTORY_FRAMES = 600;
+
+    // Rotierende Query-Objekte; Ergebnisse liegen typischerweise ein bis zwei Frames später vor
+    private static final int QUERY_COUNT = 4;
+
+    /**
+     * Messwerte eines Frames. Die GPU-Zeit ist -1, solange (oder falls) kein Ergebnis vorliegt.
+     */
+    public static final class Sample {
+        private long frame = -1;
+        private final long[] stageNanos = new long[STAGES.length];
+        private long cpuNanos;
+        private long gpuNanos = -1;
+        private int drawCalls, triangles, uniformUploads;
+        private int drawnObjects, culledObjects, cachedObjects;
+
+        public long getFrame() {
+            return frame;
+        }
+
+        public long getStageNanos(Stage stage) {
+            return stageNanos[stage.ordinal()];
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getGpuNanos() {
+            return gpuNanos;
+        }
+
+        public int getDrawCalls() {
+            return drawCalls;
+        }
+
+        public int getTriangles() {
+            return triangles;
+        }
+
+        public int getUniformUploads() {
+            return uniformUploads;
+        }
+
+        public int getDrawnObjects() {
+            return drawnObjects;
+        }
+
+        public int getCulledObjects() {
+            return culledObjects;
+        }
+
+        /**
+         * Objekte, die nicht neu gezeichnet, sondern aus dem {@link StaticSceneCache} übernommen wurden.
+         */
+        public int getCachedObjects() {
+            return cachedObjects;
+        }
+
+        private void copyFrom(Sample other) {
+            frame = other.frame;
+            System.arraycopy(other.stageNanos, 0, stageNanos, 0, stageNanos.length);
+            cpuNanos = other.cpuNanos;
+            gpuNanos = other.gpuNanos;
+            drawCalls = other.drawCalls;
+            triangles = other.triangles;
+            uniformUploads = other.uniformUploads;
+            drawnObjects = other.drawnObjects;
+            culledObjects = other.culledObjects;
+            cachedObjects = other.cachedObjects;
+        }
+    }
+
+    private final Sample[] history = new Sample[HISTORY_FRAMES];
+    private final Sample current = new Sample();
+    private final Sample last = new Sample();
+    private long frameNumber;
+    private long frameStart, stageStart;
+
+    private final FrameStats cpuStats = new FrameStats(HISTORY_FRAMES);
+    private final FrameStats gpuStats = new FrameStats(HISTORY_FRAMES);
+
+    // Dauer des letzten Szenen-Snapshots im UI-Thread (Animationen, Modellmatrizen)
+    private volatile long sceneUpdateNanos;
+
+    // GPU-Timer (nur verwendet, falls der Kontext sie unterstützt)
+    private boolean gpuTimerSupported;
+    private final int[] queryIds = new int[QUERY_COUNT];
+    private final long[] queryFrames = new long[QUERY_COUNT];
+    private int activeQuery = -1;
+    private final int[] availableScratch = new int[1];
+    private final long[] resultScratch = new long[1];
+
+    public FrameProfiler() {
+        for (int i = 0; i < history.length; i++) history[i] = new Sample();
+    }
+
+    /**
+     * Legt die Query-Objekte an, falls der Kontext Timer-Queries unterstützt. Im Render-Thread aufrufen.
+     */
+    public void init(GL2 gl) {
+        gpuTimerSupported = gl.isFunctionAvailable("glGetQueryObjectui64v")
+                && (gl.isExtensionAvailable("GL_ARB_timer_query") || gl.isExtensionAvailable("GL_EXT_timer_query"));
+        if (gpuTimerSupported) {
+            gl.glGenQueries(QUERY_COUNT, queryIds, 0);
+        }
+        Arrays.fill(queryFrames, -1);
+        activeQuery = -1;
+    }
+
+    public boolean isGpuTimerSupported() {
+        return gpuTimerSupported;
+    }
+
+    /**
+     * Beginnt einen Frame: setzt die Zähler zurück, holt verfügbare GPU-Ergebnisse ab und startet eine neue Query.
+     */
+    public void beginFrame(GL2 gl) {
+        frameStart = stageStart = System.nanoTime();
+        Arrays.fill(current.stageNanos, 0);
+        current.drawCalls = current.triangles = current.uniformUploads = current.cachedObjects = 0;
+
+        if (!gpuTimerSupported) return;
+        collectGpuResults(gl);
+        for (int slot = 0; slot < QUERY_COUNT; slot++) {
+            if (queryFrames[slot] < 0) {
+                gl.glBeginQuery(GL2.GL_TIME_ELAPSED, queryIds[slot]);
+                queryFrames[slot] = frameNumber;
+                activeQuery = slot;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Schließt einen Abschnitt ab: die seit dem vorherigen Abschnitt vergangene Zeit wird {@code stage} zugerechnet.
+     */
+    public void endStage(Stage stage) {
+        long now = System.nanoTime();
+        current.stageNanos[stage.ordinal()] += now - stageStart;
+        stageStart = now;
+    }
+
+    public void countDrawCall(int triangles) {
+        current.drawCalls++;
+        current.triangles += triangles;
+    }
+
+    public void countUniformUploads(int uploads) {
+        current.uniformUploads += uploads;
+    }
+
+    public void countCachedObjects(int objects) {
+        current.cachedObjects += objects;
+    }
+
+    /**
+     * Beendet den Frame und übernimmt ihn in den Verlauf.
+     */
+    public void endFrame(GL2 gl, int drawnObjects, int culledObjects) {
+        if (activeQuery >= 0) {
+            gl.glEndQuery(GL2.GL_TIME_ELAPSED);
+            activeQuery = -1;
+        }
+        current.frame = frameNumber;
+        current.cpuNanos = System.nanoTime() - frameStart;
+        current.gpuNanos = -1;
+        current.drawnObjects = drawnObjects;
+        current.culledObjects = culledObjects;
+
+        synchronized (this) {
+            history[(int) (frameNumber % HISTORY_FRAMES)].copyFrom(current);
+            last.copyFrom(current);
+            frameNumber++;
+        }
+        cpuStats.record(current.cpuNanos);
+    }
+
+    private void collectGpuResults(GL2 gl) {
+        for (int slot = 0; slot < QUERY_COUNT; slot++) {
+            if (queryFrames[slot] < 0) continue;
+            gl.glGetQueryObjectiv(queryIds[slot], GL2.GL_QUERY_RESULT_AVAILABLE, availableScratch, 0);
+            if (availableScratch[0] == 0) continue;
+            gl.glGetQueryObjectui64v(queryIds[slot], GL2.GL_QUERY_RESULT, resultScratch, 0);
+            storeGpuTime(queryFrames[slot], resultScratch[0]);
+            queryFrames[slot] = -1;
+        }
+    }
+
+    private synchronized void storeGpuTime(long frame, long nanos) {
+        Sample sample = history[(int) (frame % HISTORY_FRAMES)];
+        if (sample.frame == frame) sample.gpuNanos = nanos;
+        if (last.frame == frame) last.gpuNanos = nanos;
+        gpuStats.record(nanos);
+    }
+
+    /**
+     * Hält die Dauer des letzten Szenen-Snapshots im UI-Thread fest (siehe {@link KitchenApp#sceneChanged}).
+     */
+    public void recordSceneUpdate(long nanos) {
+        sceneUpdateNanos = nanos;
+    }
+
+    public long getSceneUpdateNanos() {
+        return sceneUpdateNanos;
+    }
+
+    /**
+     * Kopiert die Messwerte des letzten abgeschlossenen Frames nach {@code dest}.
+     */
+    public synchronized Sample getLastSample(Sample dest) {
+        dest.copyFrom(last);
+        return dest;
+    }
+
+    /**
+     * CPU-Zeiten der letzten Frames (gesamter {@code display()}-Aufruf).
+     */
+    public FrameStats getCpuStats() {
+        return cpuStats;
+    }
+
+    /**
+     * GPU-Zeiten der letzten Frames (leer, falls keine Timer-Queries verfügbar sind).
+     */
+    public FrameStats getGpuStats() {
+        return gpuStats;
+    }
+
+    /**
+     * Schreibt den Verlauf (älteste Frames zuerst) als CSV mit Zeiten in Millisekunden.
+     */
+    public void exportCsv(Writer out) throws IOException {
+        // Verlauf kopieren, damit der Render-Thread während des Schreibens nicht wartet
+        Sample[] copy = new Sample[HISTORY_FRAMES];
+        long newest;
+        synchronized (this) {
+            newest = frameNumber - 1;
+            for (int i = 0; i < HISTORY_FRAMES; i++) {
+                copy[i] = new Sample();
+                copy[i].copyFrom(history[i]);
+            }
+        }
+
+        StringBuilder header = new StringBuilder("frame,cpu_ms");
+        for (Stage stage : STAGES) header.append(',').append(stage.name().toLowerCase(Locale.ROOT)).append("_ms");
+        header.append(",gpu_ms,draw_calls,triangles,uniform_uploads,drawn_objects,culled_objects,cached_objects\n");
+        out.write(header.toString());
+
+        for (long frame = Math.max(0, newest - HISTORY_FRAMES + 1); frame <= newest; frame++) {
+            Sample sample = copy[(int) (frame % HISTORY_FRAMES)];
+            if (sample.frame != frame) continue;
+            StringBuilder line = new StringBuilder();
+            line.append(frame).append(',').append(millis(sample.cpuNanos));
+            for (Stage stage : STAGES) line.append(',').append(millis(sample.getStageNanos(stage)));
+            line.append(',').append(sample.gpuNanos < 0 ? "" : millis(sample.gpuNanos))
+                    .append(',').append(sample.drawCalls)
+                    .append(',').append(sample.triangles)
+                    .append(',').append(sample.uniformUploads)
+                    .append(',').append(sample.drawnObjects)
+                    .append(',').append(sample.culledObjects)
+                    .append(',').append(sample.cachedObjects)
+                    .append('\n');
+            out.write(line.toString());
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.4f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Gibt die Query-Objekte frei (beim Zerstören des GL-Kontexts).
+     */
+    public void dispose(GL2 gl) {
+        if (gpuTimerSupported) {
+            if (activeQuery >= 0) gl.glEndQuery(GL2.GL_TIME_ELAPSED);
+            gl.glDeleteQueries(QUERY_COUNT, queryIds, 0);
+        }
+        gpuTimerSupported = false;
+        activeQuery = -1;
+    }
+}
@@ -0,0 +1,98 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+
+/**
+ * Gleitendes Fenster der letzten Frame-Zeiten mit einfachen Kennzahlen (Mittelwert, Perzentile, Maximum).
+ * <p>
+ * Das Aufzeichnen ({@link #record}) allokiert nichts und kann pro Frame aufgerufen werden; die Auswertung
+ * kopiert das Fenster und ist für gelegentliche Abfragen gedacht. Alle Methoden sind synchronisiert, da
+ * Render-Thread und UI-Thread gleichzeitig zugreifen können.
+ */
+public class FrameStats {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    /**
+     * @param capacity Anzahl der Frames im gleitenden Fenster
+     */
+    public FrameStats(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Zeichnet die Dauer eines Frames auf (in Nanosekunden).
+     */
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    public synchronized void clear() {
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * Anzahl der Frames im Fenster.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized double getAverageMillis() {
+        if (count == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < count; i++) sum += samples[i];
+        return sum / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Perzentil der Frame-Zeiten in Millisekunden.
+     * @param percentile Wert zwischen 0 und 100 (z.B. 95)
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+
+    public synchronized double getMaxMillis() {
+        long max = 0;
+        for (int i = 0; i < count; i++) max = Math.max(max, samples[i]);
+        return max / 1_000_000.0;
+    }
+
+    /**
+     * Verteilt die Frame-Zeiten des Fensters auf gleich breite Klassen (Histogramm). Die letzte Klasse
+     * enthält auch alle längeren Frames. Allokiert nichts.
+     *
+     * @param bucketMillis Breite einer Klasse in Millisekunden
+     * @param counts       Ziel-Array, dessen Länge die Zahl der Klassen bestimmt
+     * @return größte Klassenhäufigkeit (für die Skalierung der Darstellung)
+     */
+    public synchronized int histogram(double bucketMillis, int[] counts) {
+        Arrays.fill(counts, 0);
+        int max = 0;
+        for (int i = 0; i < count; i++) {
+            int bucket = (int) (samples[i] / 1_000_000.0 / bucketMillis);
+            bucket = Math.min(counts.length - 1, bucket);
+            max = Math.max(max, ++counts[bucket]);
+        }
+        return max;
+    }
+
+    /**
+     * Einzeilige Zusammenfassung, z.B. für die Konsole.
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("%d Frames, Mittel %.2f ms, Median %.2f ms, p95 %.2f ms, max %.2f ms",
+                count, getAverageMillis(), getPercentileMillis(50), getPercentileMillis(95), getMaxMillis());
+    }
+}
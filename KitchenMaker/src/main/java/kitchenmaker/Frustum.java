@@ -0,0 +1,57 @@
+package kitchenmaker;
+
+/**
+ * Sichtpyramide (View Frustum) der Kamera für das Culling.
+ * <p>
+ * Die sechs Ebenen werden nach Gribb/Hartmann direkt aus der kombinierten Matrix
+ * {@code projection * view} gelesen ("Fast Extraction of Viewing Frustum Planes from the
+ * World-View-Projection Matrix", 2001). Eine Ebene (a, b, c, d) enthält alle Punkte mit
+ * {@code a*x + b*y + c*z + d >= 0} auf der Innenseite.
+ */
+public class Frustum {
+
+    // 6 Ebenen à (a, b, c, d): links, rechts, unten, oben, nah, fern
+    private final float[] planes = new float[24];
+
+    /**
+     * Berechnet die Ebenen aus der View-Projection-Matrix (Column-Major).
+     * @return dieses Frustum für Methoden-Verkettung
+     */
+    public Frustum set(Mat4 viewProjection) {
+        float[] m = viewProjection.matrixElements;
+        // Zeile i der Matrix: m[i], m[i + 4], m[i + 8], m[i + 12]
+        for (int i = 0; i < 3; i++) {
+            setPlane(2 * i, m[3] + m[i], m[7] + m[i + 4], m[11] + m[i + 8], m[15] + m[i + 12]);
+            setPlane(2 * i + 1, m[3] - m[i], m[7] - m[i + 4], m[11] - m[i + 8], m[15] - m[i + 12]);
+        }
+        return this;
+    }
+
+    private void setPlane(int index, float a, float b, float c, float d) {
+        // Normierung, damit der Ebenenabstand in Welteinheiten vorliegt
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        int o = index * 4;
+        planes[o] = a / length;
+        planes[o + 1] = b / length;
+        planes[o + 2] = c / length;
+        planes[o + 3] = d / length;
+    }
+
+    /**
+     * Prüft, ob eine achsenparallele Box (in Weltkoordinaten) zumindest teilweise im Frustum liegt.
+     * Konservativ: Boxen nahe einer Ecke des Frustums können als sichtbar gelten, obwohl sie es nicht sind.
+     */
+    public boolean intersects(Vec3 min, Vec3 max) {
+        float cx = 0.5f * (min.x + max.x), cy = 0.5f * (min.y + max.y), cz = 0.5f * (min.z + max.z);
+        float ex = 0.5f * (max.x - min.x), ey = 0.5f * (max.y - min.y), ez = 0.5f * (max.z - min.z);
+
+        for (int o = 0; o < 24; o += 4) {
+            float a = planes[o], b = planes[o + 1], c = planes[o + 2];
+            // Abstand des Mittelpunkts und Projektion der halben Ausdehnung auf die Ebenennormale
+            float distance = a * cx + b * cy + c * cz + planes[o + 3];
+            float radius = Math.abs(a) * ex + Math.abs(b) * ey + Math.abs(c) * ez;
+            if (distance + radius < 0) return false;
+        }
+        return true;
+    }
+}
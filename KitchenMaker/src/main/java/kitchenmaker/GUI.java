@@ -6,7 +6,9 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Die grafische Benutzeroberfläche des KitchenMaker-Editors.
@@ -24,9 +26,14 @@ public class GUI extends JFrame {
     private final RenderEngine renderer;
     private final DefaultListModel<SceneData.Object3D> listModel;
     private final JList<SceneData.Object3D> objectList;
-    private final com.jogamp.opengl.awt.GLJPanel gljPanel;
+    private final Component viewportComponent;
     private final JLabel webcamLabel;
 
+    // Fortschrittsanzeigen laufender Hintergrund-Importe
+    private final JPanel importPanel = new JPanel();
+    private final Map<ObjImportService.ImportJob, JPanel> importRows = new HashMap<>();
+    private final Map<ObjImportService.ImportJob, Timer> importTimers = new HashMap<>();
+
     /**
      * Standard-Animationsmodus für neu hinzugefügte Objekte.
      */
@@ -37,13 +44,13 @@ public class GUI extends JFrame {
      * Initialisiert das Hauptfenster und die GUI-Komponenten.
      */
     public GUI(KitchenApp app, List<SceneData.Object3D> objects, RenderEngine renderer,
-               com.jogamp.opengl.awt.GLJPanel gljPanel, DefaultListModel<SceneData.Object3D> listModel,
+               Component viewportComponent, DefaultListModel<SceneData.Object3D> listModel,
                JList<SceneData.Object3D> objectList, JLabel webcamLabel) {
         super("KitchenMaker von Niklas Puls");
         this.app = app;
         this.objects = objects;
         this.renderer = renderer;
-        this.gljPanel = gljPanel;
+        this.viewportComponent = viewportComponent;
         this.listModel = listModel;
         this.objectList = objectList;
         this.webcamLabel = webcamLabel;
@@ -63,6 +70,7 @@ public class GUI extends JFrame {
         objectList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 renderer.selectedObject = objectList.getSelectedValue();
+                app.sceneChanged();
             }
         });
 
@@ -78,7 +86,7 @@ public class GUI extends JFrame {
 
         // Aufbau der Hauptstruktur: Toolbar oben, Viewport mittig, Sidebar links
         add(createToolBar(), BorderLayout.NORTH);
-        add(gljPanel, BorderLayout.CENTER);
+        add(viewportComponent, BorderLayout.CENTER);
         add(createSidePanel(), BorderLayout.WEST);
 
         setLocationRelativeTo(null); // Zentriert das Fenster auf dem Bildschirm
@@ -253,6 +261,10 @@ public class GUI extends JFrame {
         listPanel.add(objectsLabel, BorderLayout.NORTH);
         listPanel.add(scrollPane, BorderLayout.CENTER);
 
+        importPanel.setLayout(new BoxLayout(importPanel, BoxLayout.Y_AXIS));
+        importPanel.setOpaque(false);
+        listPanel.add(importPanel, BorderLayout.SOUTH);
+
         // Webcam-Bereich
         JPanel webcamPanel = new JPanel(new BorderLayout(0, 5));
         webcamPanel.setOpaque(false);
@@ -294,9 +306,10 @@ public class GUI extends JFrame {
 
         // Sichern des ursprünglichen Zustands für Undo-Funktionalität bei Abbruch
         String originalName = obj.name;
-        Vec3 originalPosition = new Vec3(obj.worldPosition);
-        float originalRotationY = obj.rotationAngles.y;
-        Vec3 originalColor = new Vec3(obj.color);
+        Vec3 originalPosition = obj.getPosition(new Vec3());
+        Vec3 originalRotation = obj.getRotation(new Vec3());
+        Vec3 originalColor = obj.getColor(new Vec3());
+        Vec3 current = new Vec3(); // Hilfsvektor für die Slider
 
         JPanel content = new JPanel();
         content.setLayout(new BoxLayout(content, BoxLayout.Y_AXIS));
@@ -316,25 +329,29 @@ public class GUI extends JFrame {
         content.add(Box.createVerticalStrut(15));
 
         // Slider für Position und Rotation
-        content.add(createSlider("Position X:", -100, 100, (int) (obj.worldPosition.x * 10),
+        content.add(createSlider("Position X:", -100, 100, (int) (originalPosition.x * 10),
                 v -> {
-                    obj.worldPosition.x = v / 10f;
-                    gljPanel.repaint();
+                    obj.getPosition(current);
+                    obj.setPosition(v / 10f, current.y, current.z);
+                    app.sceneChanged();
                 }, "%.1f", 10f));
-        content.add(createSlider("Position Y:", -100, 100, (int) (obj.worldPosition.y * 10),
+        content.add(createSlider("Position Y:", -100, 100, (int) (originalPosition.y * 10),
                 v -> {
-                    obj.worldPosition.y = v / 10f;
-                    gljPanel.repaint();
+                    obj.getPosition(current);
+                    obj.setPosition(current.x, v / 10f, current.z);
+                    app.sceneChanged();
                 }, "%.1f", 10f));
-        content.add(createSlider("Position Z:", -100, 100, (int) (obj.worldPosition.z * 10),
+        content.add(createSlider("Position Z:", -100, 100, (int) (originalPosition.z * 10),
                 v -> {
-                    obj.worldPosition.z = v / 10f;
-                    gljPanel.repaint();
+                    obj.getPosition(current);
+                    obj.setPosition(current.x, current.y, v / 10f);
+                    app.sceneChanged();
                 }, "%.1f", 10f));
-        content.add(createSlider("Rotation Y:", 0, 360, (int) Math.toDegrees(obj.rotationAngles.y),
+        content.add(createSlider("Rotation Y:", 0, 360, (int) Math.toDegrees(originalRotation.y),
                 v -> {
-                    obj.rotationAngles.y = (float) Math.toRadians(v);
-                    gljPanel.repaint();
+                    obj.getRotation(current);
+                    obj.setRotation(current.x, (float) Math.toRadians(v), current.z);
+                    app.sceneChanged();
                 }, "%d°", 1f));
 
         content.add(Box.createVerticalStrut(10));
@@ -342,7 +359,7 @@ public class GUI extends JFrame {
         // Farbauswahl
         JPanel colorPanel = createLabeledField("Farbe:");
         JButton colorButton = new JButton("  ");
-        colorButton.setBackground(new Color(obj.color.x, obj.color.y, obj.color.z));
+        colorButton.setBackground(new Color(originalColor.x, originalColor.y, originalColor.z));
         colorButton.setPreferredSize(Theme.COLOR_BUTTON);
         colorButton.setBorder(BorderFactory.createCompoundBorder(
                 BorderFactory.createLineBorder(Theme.ICON_BORDER, 1),
@@ -354,9 +371,9 @@ public class GUI extends JFrame {
             Color newColor = JColorChooser.showDialog(dialog, "Farbe wählen", colorButton.getBackground());
             if (newColor != null) {
                 colorButton.setBackground(newColor);
-                obj.color.set(newColor.getRed() / 255f, newColor.getGreen() / 255f, newColor.getBlue() / 255f);
+                obj.setColor(newColor.getRed() / 255f, newColor.getGreen() / 255f, newColor.getBlue() / 255f);
                 objectList.repaint();
-                gljPanel.repaint();
+                app.sceneChanged();
             }
         });
         colorPanel.add(colorButton);
@@ -368,11 +385,11 @@ public class GUI extends JFrame {
         cancelButton.addActionListener(e -> {
             // Wiederherstellung des Ursprungszustands
             obj.name = originalName;
-            obj.worldPosition.set(originalPosition);
-            obj.rotationAngles.y = originalRotationY;
-            obj.color.set(originalColor);
+            obj.setPosition(originalPosition);
+            obj.setRotation(originalRotation.x, originalRotation.y, originalRotation.z);
+            obj.setColor(originalColor);
             objectList.repaint();
-            gljPanel.repaint();
+            app.sceneChanged();
             dialog.dispose();
         });
         JButton applyButton = new JButton("OK");
@@ -417,6 +434,63 @@ public class GUI extends JFrame {
         return panel;
     }
 
+    /**
+     * Zeigt für einen laufenden Import eine Zeile mit Dateiname, Fortschrittsbalken und Abbrechen-Button an.
+     * Der Fortschritt wird per Swing-Timer aus dem Import-Thread abgefragt.
+     */
+    public void addImportProgress(ObjImportService.ImportJob job) {
+        JLabel nameLabel = new JLabel(job.getFile().getName());
+        nameLabel.setFont(Theme.LABEL_SMALL);
+        nameLabel.setForeground(Theme.TEXT_LABEL);
+
+        JProgressBar progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+
+        JButton cancelButton = new JButton(new FlatSVGIcon("icons/delete.svg", 14, 14));
+        cancelButton.setToolTipText("Import abbrechen");
+        cancelButton.setFocusPainted(false);
+        cancelButton.setContentAreaFilled(false);
+        cancelButton.setBorderPainted(false);
+        cancelButton.addActionListener(e -> {
+            job.cancel();
+            removeImportProgress(job);
+        });
+
+        JPanel row = new JPanel(new BorderLayout(5, 2));
+        row.setOpaque(false);
+        row.setBorder(new EmptyBorder(5, 0, 0, 0));
+        row.add(nameLabel, BorderLayout.NORTH);
+        row.add(progressBar, BorderLayout.CENTER);
+        row.add(cancelButton, BorderLayout.EAST);
+
+        Timer timer = new Timer(100, e -> {
+            ImportProgress progress = job.getProgress();
+            progressBar.setValue(Math.round(progress.getFraction() * 1000));
+            progressBar.setString(String.format("%.1f / %.1f MB",
+                    progress.getBytesConsumed() / 1048576.0, progress.getTotalBytes() / 1048576.0));
+        });
+        timer.start();
+
+        importRows.put(job, row);
+        importTimers.put(job, timer);
+        importPanel.add(row);
+        importPanel.revalidate();
+    }
+
+    /**
+     * Entfernt die Fortschrittsanzeige eines beendeten oder abgebrochenen Imports.
+     */
+    public void removeImportProgress(ObjImportService.ImportJob job) {
+        Timer timer = importTimers.remove(job);
+        if (timer != null) timer.stop();
+        JPanel row = importRows.remove(job);
+        if (row != null) {
+            importPanel.remove(row);
+            importPanel.revalidate();
+            importPanel.repaint();
+        }
+    }
+
     public SceneData.AppearanceMode getCurrentAppearanceMode() {
         return currentAppearanceMode;
     }
@@ -426,6 +500,8 @@ public class GUI extends JFrame {
     }
 
     private static class ObjectListCellRenderer extends DefaultListCellRenderer {
+        private final Vec3 cellColor = new Vec3();
+
         @Override
         public Component getListCellRendererComponent(JList<?> list, Object value, int index,
                                                       boolean isSelected, boolean cellHasFocus) {
@@ -435,7 +511,8 @@ public class GUI extends JFrame {
                 setText(obj.name);
                 setBorder(new EmptyBorder(8, 10, 8, 10));
 
-                Color objColor = new Color(obj.color.x, obj.color.y, obj.color.z);
+                Vec3 color = obj.getColor(cellColor);
+                Color objColor = new Color(color.x, color.y, color.z);
                 setIcon(new ColorIcon(objColor, 12, 12));
 
                 if (isSelected) {
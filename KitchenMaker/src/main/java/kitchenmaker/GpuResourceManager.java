@@ -0,0 +1,184 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+
+import java.nio.Buffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verwaltet alle OpenGL-Puffer und Vertex Array Objects der Anwendung.
+ * <p>
+ * Handles werden ausschließlich hier erzeugt und gelöscht. Freigaben dürfen aus jedem Thread
+ * angestoßen werden ({@link #delete}, {@link #release}); die eigentlichen {@code glDelete*}-Aufrufe
+ * erfolgen gesammelt zu Beginn des nächsten Frames im Render-Thread ({@link #processPending}).
+ * Nebenbei wird der belegte Pufferspeicher mitgezählt, sodass sich Lecks im Grafikspeicher im
+ * laufenden Betrieb erkennen lassen.
+ */
+public class GpuResourceManager {
+
+    /**
+     * Ein OpenGL-Handle (Puffer oder Vertex Array Object) samt belegtem Speicher.
+     */
+    public static final class Handle {
+        private final boolean buffer;
+        private final int id;
+        private long bytes;
+
+        private Handle(boolean buffer, int id) {
+            this.buffer = buffer;
+            this.id = id;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        /**
+         * Größe der zuletzt hochgeladenen Daten in Bytes (0 bei Vertex Array Objects).
+         */
+        public long bytes() {
+            return bytes;
+        }
+    }
+
+    private static final Set<Handle> LIVE = ConcurrentHashMap.newKeySet();
+
+    // Freigaben aus beliebigen Threads, abgearbeitet im Render-Thread
+    private static final Queue<Handle> PENDING_HANDLES = new ConcurrentLinkedQueue<>();
+    private static final Queue<Mesh> PENDING_MESHES = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicLong BUFFER_BYTES = new AtomicLong();
+    private static final AtomicInteger BUFFER_COUNT = new AtomicInteger();
+    private static final AtomicInteger VERTEX_ARRAY_COUNT = new AtomicInteger();
+
+    // Wird bei Verlust des GL-Kontexts erhöht; Handles älterer Generationen sind ungültig
+    private static volatile int generation;
+
+    // Hilfs-Array für glGen*/glDelete* (nur im Render-Thread verwendet)
+    private static final int[] SCRATCH = new int[1];
+
+    private GpuResourceManager() {
+    }
+
+    /**
+     * Erzeugt einen neuen Puffer (VBO/EBO). Nur im Render-Thread aufrufen.
+     */
+    public static Handle createBuffer(GL2 gl) {
+        gl.glGenBuffers(1, SCRATCH, 0);
+        Handle handle = new Handle(true, SCRATCH[0]);
+        LIVE.add(handle);
+        BUFFER_COUNT.incrementAndGet();
+        return handle;
+    }
+
+    /**
+     * Erzeugt ein neues Vertex Array Object. Nur im Render-Thread aufrufen.
+     */
+    public static Handle createVertexArray(GL2 gl) {
+        gl.glGenVertexArrays(1, SCRATCH, 0);
+        Handle handle = new Handle(false, SCRATCH[0]);
+        LIVE.add(handle);
+        VERTEX_ARRAY_COUNT.incrementAndGet();
+        return handle;
+    }
+
+    /**
+     * Bindet den Puffer an {@code target} und lädt die Daten hoch (glBufferData).
+     * Der Speicherverbrauch wird entsprechend angepasst.
+     */
+    public static void bufferData(GL2 gl, Handle buffer, int target, long bytes, Buffer data, int usage) {
+        gl.glBindBuffer(target, buffer.id);
+        gl.glBufferData(target, bytes, data, usage);
+        BUFFER_BYTES.addAndGet(bytes - buffer.bytes);
+        buffer.bytes = bytes;
+    }
+
+    /**
+     * Merkt ein Handle zum Löschen vor. Kann aus jedem Thread aufgerufen werden.
+     */
+    public static void delete(Handle handle) {
+        if (handle != null) PENDING_HANDLES.add(handle);
+    }
+
+    /**
+     * Merkt die GPU-Puffer eines Meshes (inkl. Detailstufen) zur Freigabe vor.
+     * Kann aus jedem Thread aufgerufen werden.
+     */
+    public static void release(Mesh mesh) {
+        PENDING_MESHES.add(mesh);
+    }
+
+    /**
+     * Führt alle vorgemerkten Freigaben aus. Wird vom Render-Thread zu Beginn eines Frames aufgerufen.
+     */
+    public static void processPending(GL2 gl) {
+        Mesh mesh;
+        while ((mesh = PENDING_MESHES.poll()) != null) {
+            mesh.disposeGpu();
+        }
+        Handle handle;
+        while ((handle = PENDING_HANDLES.poll()) != null) {
+            deleteNow(gl, handle);
+        }
+    }
+
+    /**
+     * Gibt alle noch lebenden Handles frei, z.B. wenn der GL-Kontext zerstört wird.
+     * Meshes laden ihre Daten beim nächsten Zeichnen automatisch erneut hoch.
+     */
+    public static void disposeAll(GL2 gl) {
+        processPending(gl);
+        for (Handle handle : LIVE) {
+            deleteNow(gl, handle);
+        }
+        generation++;
+    }
+
+    private static void deleteNow(GL2 gl, Handle handle) {
+        // Doppelte Freigaben (z.B. nach disposeAll) ignorieren
+        if (!LIVE.remove(handle)) return;
+        SCRATCH[0] = handle.id;
+        if (handle.buffer) {
+            gl.glDeleteBuffers(1, SCRATCH, 0);
+            BUFFER_BYTES.addAndGet(-handle.bytes);
+            BUFFER_COUNT.decrementAndGet();
+        } else {
+            gl.glDeleteVertexArrays(1, SCRATCH, 0);
+            VERTEX_ARRAY_COUNT.decrementAndGet();
+        }
+    }
+
+    /**
+     * Aktuelle Kontext-Generation. Handles aus einer älteren Generation sind bereits gelöscht.
+     */
+    public static int generation() {
+        return generation;
+    }
+
+    /**
+     * Belegter Pufferspeicher aller lebenden Puffer in Bytes.
+     */
+    public static long getBufferBytes() {
+        return BUFFER_BYTES.get();
+    }
+
+    public static int getBufferCount() {
+        return BUFFER_COUNT.get();
+    }
+
+    public static int getVertexArrayCount() {
+        return VERTEX_ARRAY_COUNT.get();
+    }
+
+    /**
+     * Anzahl der Freigaben, die auf den nächsten Frame warten.
+     */
+    public static int getPendingCount() {
+        return PENDING_HANDLES.size() + PENDING_MESHES.size();
+    }
+}
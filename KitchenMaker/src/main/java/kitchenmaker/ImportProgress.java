@@ -0,0 +1,94 @@
+package kitchenmaker;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fortschritt und Abbruchsignal eines laufenden OBJ-Imports.
+ * <p>
+ * Die Ladepfade melden verarbeitete Bytes über {@link #advance}; dort wird zugleich geprüft,
+ * ob der Import abgebrochen wurde. In diesem Fall bricht der Import mit einer
+ * {@link InterruptedIOException} ab. Der Fortschritt kann aus beliebigen Threads gelesen werden.
+ * <p>
+ * Eine Datei wird zweimal durchlaufen (Inhalts-Hash und Parsen), die Gesamtmenge entspricht
+ * daher der doppelten Dateigröße. Bei einem Treffer im {@link MeshCache} entfällt der zweite Durchlauf.
+ */
+public class ImportProgress {
+
+    /** Fortschrittsobjekt ohne Anzeige für synchrone Aufrufe. */
+    public static final ImportProgress NONE = new ImportProgress(0);
+
+    private final long totalBytes;
+    private final AtomicLong bytesConsumed = new AtomicLong();
+    private volatile boolean cancelled = false;
+
+    public ImportProgress(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * Meldet verarbeitete Bytes.
+     * @throws InterruptedIOException falls der Import abgebrochen oder der Thread unterbrochen wurde
+     */
+    public void advance(long bytes) throws InterruptedIOException {
+        checkCancelled();
+        bytesConsumed.addAndGet(bytes);
+    }
+
+    /**
+     * Prüft, ob der Import abgebrochen wurde.
+     * @throws InterruptedIOException falls der Import abgebrochen oder der Thread unterbrochen wurde
+     */
+    public void checkCancelled() throws InterruptedIOException {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Import abgebrochen");
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getBytesConsumed() {
+        return bytesConsumed.get();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Fortschritt im Bereich [0, 1].
+     */
+    public float getFraction() {
+        return totalBytes <= 0 ? 0f : Math.min(1f, (float) bytesConsumed.get() / totalBytes);
+    }
+
+    /**
+     * Umhüllt einen Datenstrom so, dass jeder Lesevorgang als Fortschritt gemeldet wird.
+     */
+    public InputStream track(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) advance(1);
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) advance(n);
+                return n;
+            }
+        };
+    }
+}
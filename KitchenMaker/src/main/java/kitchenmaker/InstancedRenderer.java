@@ -0,0 +1,177 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Zeichnet Objekte mit gleichem Mesh per Hardware-Instancing.
+ * <p>
+ * Die Objekte eines Frames werden nach ihrem (LOD-)Mesh gruppiert. Modellmatrix, Farbe und Selektion
+ * aller Instanzen landen in einem gemeinsamen Instanz-Puffer, der einmal pro Frame hochgeladen wird;
+ * anschließend wird jede Gruppe mit einem einzigen {@code glDrawElementsInstanced} gezeichnet.
+ * Die Zahl der Draw Calls hängt damit nur noch von der Zahl unterschiedlicher Möbeltypen ab.
+ * <p>
+ * Layout einer Instanz (29 Floats): Modellmatrix (16, Column-Major), Farbe (3), Selektion (1),
+ * Normalenmatrix (9, Column-Major, siehe {@link SceneSnapshot.Entry#getNormalMatrix}).
+ */
+public class InstancedRenderer {
+
+    /** Instancing verwenden (abschaltbar über -Dkitchenmaker.instancing=false). */
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.instancing"));
+
+    /** Attribut-Location der Modellmatrix (mat4, belegt die Locations 2 bis 5). */
+    public static final int MODEL_ATTRIBUTE = 2;
+
+    /** Attribut-Location von Farbe und Selektion. */
+    public static final int COLOR_ATTRIBUTE = 6;
+
+    /** Attribut-Location der Normalenmatrix (mat3, belegt die Locations 7 bis 9). */
+    public static final int NORMAL_MATRIX_ATTRIBUTE = 7;
+
+    private static final int FLOATS_PER_INSTANCE = 29;
+
+    /** Bytes pro Instanz im Instanz-Puffer. */
+    public static final int INSTANCE_STRIDE = FLOATS_PER_INSTANCE * 4;
+
+    // Objekte des aktuellen Frames, gruppiert nach dem zu zeichnenden Mesh; die Map dient nur dem Nachschlagen,
+    // durchlaufen werden die indizierten Listen der aktiven Meshes
+    private final Map<Mesh, List<SceneSnapshot.Entry>> batches = new IdentityHashMap<>();
+    private final List<Mesh> activeMeshes = new ArrayList<>();
+    private final List<List<SceneSnapshot.Entry>> activeBatches = new ArrayList<>();
+    // Geleerte Listen früherer Frames zur Wiederverwendung
+    private final List<List<SceneSnapshot.Entry>> spareBatches = new ArrayList<>();
+    private int instanceCount;
+
+    private GpuResourceManager.Handle instanceBuffer;
+    private FloatBuffer instanceData = allocate(256);
+    private int drawCalls;
+
+    /**
+     * Prüft, ob der GL-Kontext Instanced Drawing unterstützt (OpenGL 3.3 bzw. ARB_instanced_arrays).
+     */
+    public static boolean isSupported(GL2 gl) {
+        return ENABLED && gl.isFunctionAvailable("glDrawElementsInstanced") && gl.isFunctionAvailable("glVertexAttribDivisor");
+    }
+
+    /**
+     * Merkt ein Objekt für das Zeichnen mit dem angegebenen Mesh (bzw. dessen Detailstufe) vor.
+     */
+    public void add(Mesh mesh, SceneSnapshot.Entry entry) {
+        List<SceneSnapshot.Entry> batch = batches.get(mesh);
+        if (batch == null) {
+            int spare = spareBatches.size();
+            batch = spare > 0 ? spareBatches.remove(spare - 1) : new ArrayList<>();
+            batches.put(mesh, batch);
+            activeMeshes.add(mesh);
+            activeBatches.add(batch);
+        }
+        batch.add(entry);
+        instanceCount++;
+    }
+
+    /**
+     * Lädt die Instanzdaten aller vorgemerkten Objekte hoch und zeichnet jede Gruppe mit einem Draw Call.
+     *
+     * @param instancedLoc Uniform-Location des Schalters {@code uInstanced}
+     * @param profiler     zählt Draw Calls, Dreiecke und Uniform-Uploads
+     */
+    public void flush(GL2 gl, Mesh.FormatUniforms format, int instancedLoc, FrameProfiler profiler) {
+        drawCalls = 0;
+        if (instanceCount == 0) {
+            resetBatches();
+            return;
+        }
+
+        writeInstanceData();
+        if (instanceBuffer == null) {
+            instanceBuffer = GpuResourceManager.createBuffer(gl);
+        }
+        // Puffer bei jedem Frame neu anlegen (Orphaning), damit die GPU nicht auf den vorherigen Frame wartet
+        GpuResourceManager.bufferData(gl, instanceBuffer, GL2.GL_ARRAY_BUFFER, (long) instanceData.remaining() * 4,
+                instanceData, GL2.GL_STREAM_DRAW);
+
+        gl.glUniform1i(instancedLoc, 1);
+        long offset = 0;
+        for (int b = 0, batchCount = activeMeshes.size(); b < batchCount; b++) {
+            Mesh mesh = activeMeshes.get(b);
+            int count = activeBatches.get(b).size();
+            mesh.drawInstanced(gl, format, instanceBuffer.id(), offset, count);
+            offset += (long) count * INSTANCE_STRIDE;
+            drawCalls++;
+            profiler.countDrawCall(mesh.getTriangleCount() * count);
+            profiler.countUniformUploads(Mesh.FormatUniforms.COUNT);
+        }
+        gl.glUniform1i(instancedLoc, 0);
+        profiler.countUniformUploads(2);
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+
+        resetBatches();
+    }
+
+    /**
+     * CPU-Teil von {@link #flush}: schreibt die Instanzdaten aller Gruppen in der Reihenfolge der Draw Calls in
+     * den Instanz-Puffer. Auch von {@code RenderLoopBenchmark} verwendet.
+     *
+     * @return die geschriebenen Daten (Position 0, Limit = Anzahl der Floats)
+     */
+    FloatBuffer writeInstanceData() {
+        if (instanceData.capacity() < instanceCount * FLOATS_PER_INSTANCE) {
+            instanceData = allocate(Math.max(instanceCount, instanceData.capacity() / FLOATS_PER_INSTANCE * 2));
+        }
+        instanceData.clear();
+        for (int b = 0, batchCount = activeBatches.size(); b < batchCount; b++) {
+            List<SceneSnapshot.Entry> batch = activeBatches.get(b);
+            for (int i = 0, n = batch.size(); i < n; i++) {
+                SceneSnapshot.Entry entry = batch.get(i);
+                Vec3 color = entry.getColor();
+                instanceData.put(entry.getModelMatrix().toFloatArray());
+                instanceData.put(color.x).put(color.y).put(color.z);
+                instanceData.put(entry.isSelected() ? 1.0f : 0.0f);
+                instanceData.put(entry.getNormalMatrix());
+            }
+        }
+        return instanceData.flip();
+    }
+
+    /**
+     * Leert die Gruppen für den nächsten Frame. Die geleerten Listen wandern in einen Vorrat und werden
+     * im nächsten Frame wiederverwendet, damit im Dauerbetrieb nichts allokiert wird; die Meshes werden
+     * aus der Map entfernt, sodass keine Referenzen auf (evtl. freigegebene) Meshes erhalten bleiben.
+     */
+    void resetBatches() {
+        for (int b = 0, batchCount = activeMeshes.size(); b < batchCount; b++) {
+            batches.remove(activeMeshes.get(b));
+            List<SceneSnapshot.Entry> batch = activeBatches.get(b);
+            batch.clear();
+            spareBatches.add(batch);
+        }
+        activeMeshes.clear();
+        activeBatches.clear();
+        instanceCount = 0;
+    }
+
+    /**
+     * Anzahl der Draw Calls des letzten {@link #flush}.
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    public void dispose() {
+        resetBatches();
+        spareBatches.clear();
+        GpuResourceManager.delete(instanceBuffer);
+        instanceBuffer = null;
+    }
+
+    private static FloatBuffer allocate(int instances) {
+        return ByteBuffer.allocateDirect(instances * INSTANCE_STRIDE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+}
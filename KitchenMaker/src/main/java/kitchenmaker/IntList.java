@@ -0,0 +1,82 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+
+/**
+ * Wachsende Liste primitiver int-Werte.
+ * Gegenstück zu {@link FloatList} für Indizes.
+ */
+public class IntList {
+
+    private int[] data;
+    private int size;
+
+    public IntList(int initialCapacity) {
+        data = new int[Math.max(4, initialCapacity)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) grow(size + 1);
+        data[size++] = value;
+    }
+
+    /**
+     * Hängt zwei Werte auf einmal an (z.B. ein Index-Paar).
+     */
+    public void add(int a, int b) {
+        if (size + 2 > data.length) grow(size + 2);
+        data[size] = a;
+        data[size + 1] = b;
+        size += 2;
+    }
+
+    /**
+     * Hängt einen Ausschnitt eines Arrays an.
+     */
+    public void addAll(int[] values, int offset, int length) {
+        if (size + length > data.length) grow(size + length);
+        System.arraycopy(values, offset, data, size, length);
+        size += length;
+    }
+
+    public int get(int index) {
+        return data[index];
+    }
+
+    public void set(int index, int value) {
+        data[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Entfernt das letzte Element und gibt es zurück.
+     */
+    public int removeLast() {
+        return data[--size];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Liefert das interne Array (Länge kann größer als {@link #size()} sein).
+     */
+    public int[] array() {
+        return data;
+    }
+
+    /**
+     * Kopiert den belegten Bereich in ein passgenaues Array.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, Math.max(minCapacity, data.length * 2));
+    }
+}
@@ -3,8 +3,6 @@ package kitchenmaker;
 import com.formdev.flatlaf.FlatDarkLaf;
 import com.jogamp.opengl.GLCapabilities;
 import com.jogamp.opengl.GLProfile;
-import com.jogamp.opengl.awt.GLJPanel;
-import com.jogamp.opengl.util.FPSAnimator;
 import org.opencv.core.Mat;
 import org.opencv.videoio.VideoCapture;
 
@@ -14,8 +12,9 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Hauptklasse der KitchenMaker-Anwendung.
@@ -32,26 +31,49 @@ public class KitchenApp {
     /** Schwellenwert in Pixeln, ab dem eine Mausbewegung als Drag-Operation erkannt wird. */
     private static final int DRAG_THRESHOLD = 5;
 
+    /** Toleranz in Welteinheiten, um die Bounding Boxes beim Picking vergrößert werden. */
+    private static final float PICK_PADDING = 0.2f;
+
     /** Zeitintervall in Millisekunden, um wiederholte Formerkennungen zu begrenzen. */
     private static final long SHAPE_DETECTION_COOLDOWN = 3000;
 
+    /** Anzahl der Frames einer Frame-Zeit-Messung (F9). */
+    private static final int FRAME_MEASUREMENT_FRAMES = 300;
+
     /** Flag, das anzeigt, ob die OpenCV-Bibliothek erfolgreich geladen wurde. */
     private static boolean opencvAvailable = false;
 
+    /** Vorladen des Objektkatalogs beim Start (abschaltbar über -Dkitchenmaker.prewarm=false). */
+    private static final boolean PREWARM_CATALOG = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.prewarm"));
+
+    /** Laufendes bzw. abgeschlossenes Vorladen des Objektkatalogs (null, falls deaktiviert). */
+    private static CompletableFuture<List<Mesh>> catalogPrewarm;
+
     /**
-     * Thread-sichere Liste aller 3D-Objekte in der Szene.
-     * Synchronisation ist erforderlich, da der Render-Thread (OpenGL) und der Event-Dispatch-Thread (Swing)
-     * gleichzeitig auf diese Liste zugreifen können.
+     * Liste aller 3D-Objekte in der Szene. Wird ausschließlich im Event-Dispatch-Thread gelesen und verändert;
+     * der Render-Thread zeichnet den zuletzt veröffentlichten {@link SceneSnapshot} (siehe {@link #sceneChanged}).
      */
-    private final List<SceneData.Object3D> objects = Collections.synchronizedList(new ArrayList<>());
+    private final List<SceneData.Object3D> objects = new ArrayList<>();
 
     private final RenderEngine renderer;
-    private final GLJPanel gljPanel;
+    private final Viewport viewport;
+    private RenderScheduler renderScheduler;
+
+    /** Taktgeber für Erscheinungs-Animationen (einmalig, wird nach jedem Schritt neu gestartet). */
+    private final Timer animationTimer = new Timer(1000 / RenderScheduler.TARGET_FPS, e -> sceneChanged());
+
+    /** Hintergrund-Import von OBJ-Dateien. */
+    private final ObjImportService importService = new ObjImportService();
 
     private final DefaultListModel<SceneData.Object3D> listModel;
     private final JList<SceneData.Object3D> objectList;
 
     private final Vec3 dragOffsetVector = new Vec3();
+    private final Vec3 dragHitPoint = new Vec3();
+    private final Vec3 dragPosition = new Vec3();
+
+    // Mausstrahl für Picking und Verschieben (wiederverwendet, nur im EDT)
+    private final RayCaster rayCaster = new RayCaster();
 
     private final JLabel webcamLabel;
 
@@ -61,6 +83,7 @@ public class KitchenApp {
     private long lastShapeDetectionTime = 0;
 
     private volatile boolean dialogOpen = false;
+    private final AtomicBoolean measuringFrameTimes = new AtomicBoolean(false);
     private boolean webcamRunning = false;
 
     // Statusvariablen für die Mausinteraktion
@@ -73,10 +96,15 @@ public class KitchenApp {
 
     /**
      * Einstiegspunkt der Anwendung.
-     * Initialisiert das Look-and-Feel, lädt native Bibliotheken (OpenCV) und startet die GUI
+     * Startet das Vorladen des Objektkatalogs, initialisiert das Look-and-Feel, lädt native Bibliotheken (OpenCV) und startet die GUI
      * im Event-Dispatch-Thread (EDT). Die übergebenen Kommandozeilenargumente werden ignoriert.
      */
     public static void main(String[] args) {
+        // Katalog-Meshes parallel laden, während Look-and-Feel, OpenCV und Fenster initialisiert werden
+        if (PREWARM_CATALOG) {
+            catalogPrewarm = SceneData.prewarmCatalog();
+        }
+
         FlatDarkLaf.setup();
         // UI-Anpassungen für konsistentes Design
         UIManager.put("Button.arc", 8);
@@ -103,7 +131,12 @@ public class KitchenApp {
             shapeDetector = new ShapeDetector();
         }
 
-        renderer = new RenderEngine(objects);
+        animationTimer.setRepeats(false);
+
+        renderer = new RenderEngine();
+        if (catalogPrewarm != null) {
+            renderer.uploadWhenReady(catalogPrewarm);
+        }
 
         // Konfiguration des OpenGL-Profils
         GLProfile glProfile = GLProfile.getDefault();
@@ -111,8 +144,9 @@ public class KitchenApp {
         glCapabilities.setDoubleBuffered(true); // Double Buffering zur Vermeidung von Flimmern
         glCapabilities.setHardwareAccelerated(true);
 
-        gljPanel = new GLJPanel(glCapabilities);
-        gljPanel.addGLEventListener(renderer);
+        // GLJPanel (Swing, mit Framebuffer-Rücklesen) oder GLCanvas (schwergewichtig, ohne Rücklesen)
+        viewport = new Viewport(Viewport.defaultBackend(), glCapabilities);
+        viewport.addGLEventListener(renderer);
 
         listModel = new DefaultListModel<>();
         objectList = new JList<>(listModel);
@@ -126,14 +160,102 @@ public class KitchenApp {
         webcamLabel.setBorder(BorderFactory.createLineBorder(Theme.BORDER));
 
         // Erzeugung der Haupt-GUI
-        gui = new GUI(this, objects, renderer, gljPanel, listModel, objectList, webcamLabel);
+        gui = new GUI(this, objects, renderer, viewport.getComponent(), listModel, objectList, webcamLabel);
 
         setupInteraction();
 
         gui.setVisible(true);
 
-        // Start des Render-Loops mit angestrebten 60 FPS
-        new FPSAnimator(gljPanel, 60).start();
+        // Start des Render-Loops: dauerhaft mit 60 FPS oder nur bei Änderungen
+        renderScheduler = new RenderScheduler(viewport, RenderScheduler.defaultMode());
+        renderer.setScheduler(renderScheduler);
+    }
+
+    /**
+     * Fordert ein Neuzeichnen der 3D-Ansicht an (nach Änderungen an Szene, Auswahl oder Kamera).
+     */
+    public void requestRedraw() {
+        renderer.requestRedraw();
+    }
+
+    /**
+     * Veröffentlicht den aktuellen Zustand der Szene für den Render-Thread und fordert ein Neuzeichnen an.
+     * Nach jeder Änderung an Objekten, Transformationen, Farben oder der Auswahl aufrufen (nur im EDT).
+     * Laufende Animationen werden dabei um einen Schritt fortgeschrieben.
+     */
+    public void sceneChanged() {
+        long start = System.nanoTime();
+        boolean animating = false;
+        for (SceneData.Object3D obj : objects) {
+            animating |= obj.updateAnimation();
+        }
+        SceneSnapshot snapshot = SceneSnapshot.capture(objects, renderer.selectedObject,
+                isDraggingObject ? renderer.selectedObject : null, renderer.getSnapshot());
+        renderer.getProfiler().recordSceneUpdate(System.nanoTime() - start);
+        renderer.publish(snapshot);
+
+        // Nächsten Animationsschritt einplanen
+        if (animating) animationTimer.restart();
+    }
+
+    public RenderScheduler getRenderScheduler() {
+        return renderScheduler;
+    }
+
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Speichert die Messwerte der letzten Frames (CPU-Stufen, GPU-Zeit, Draw Calls) als CSV-Datei.
+     */
+    public void exportProfilerData() {
+        JFileChooser fc = new JFileChooser();
+        fc.setCurrentDirectory(new java.io.File("."));
+        fc.setSelectedFile(new java.io.File("frame-profile.csv"));
+        if (fc.showSaveDialog(gui) != JFileChooser.APPROVE_OPTION) return;
+
+        java.io.File file = fc.getSelectedFile();
+        try (java.io.Writer out = java.nio.file.Files.newBufferedWriter(file.toPath())) {
+            renderer.getProfiler().exportCsv(out);
+        } catch (java.io.IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(gui,
+                    "Die Datei \"" + file.getName() + "\" konnte nicht gespeichert werden:\n" + e.getMessage(),
+                    "Export fehlgeschlagen", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Vergleicht im Hintergrund die Frame-Zeiten beider Viewport-Backends mit derselben Szene und Größe:
+     * zuerst das aktive Backend, danach vorübergehend das jeweils andere. Beide Ergebnisse werden angezeigt.
+     */
+    public void measureFrameTimes() {
+        // Ende der Messung wird im Messthread gemeldet: compareAndSet statt Prüfen und Setzen
+        if (!measuringFrameTimes.compareAndSet(false, true)) return;
+
+        Thread thread = new Thread(() -> {
+            // Animator pausieren, damit nur die Frames der Messung gezeichnet werden
+            RenderScheduler.Mode previousMode = renderScheduler.getMode();
+            renderScheduler.setMode(RenderScheduler.Mode.ON_DEMAND);
+            try {
+                Viewport.Measurement active = new Viewport.Measurement(viewport.getBackend(), viewport.getSurfaceSize(),
+                        viewport.measureFrameTimes(FRAME_MEASUREMENT_FRAMES));
+                Viewport.Backend otherBackend = viewport.getBackend() == Viewport.Backend.GLJPANEL
+                        ? Viewport.Backend.GLCANVAS : Viewport.Backend.GLJPANEL;
+                Viewport.Measurement other = viewport.measureFrameTimes(otherBackend, FRAME_MEASUREMENT_FRAMES);
+                String result = active + "\n" + other + "\n"
+                        + String.format("Mittlere Frame-Zeit %s / %s: %.2f", active.backend(), other.backend(),
+                        active.stats().getAverageMillis() / other.stats().getAverageMillis());
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(gui, result,
+                        "Frame-Zeit-Messung", JOptionPane.INFORMATION_MESSAGE));
+            } finally {
+                renderScheduler.setMode(previousMode);
+                measuringFrameTimes.set(false);
+            }
+        }, "FrameTimeMeasurement");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -159,6 +281,7 @@ public class KitchenApp {
         listModel.addElement(obj);
         objectList.setSelectedValue(obj, true);
         renderer.selectedObject = obj;
+        sceneChanged();
     }
 
     /**
@@ -170,29 +293,57 @@ public class KitchenApp {
             int id = objects.indexOf(renderer.selectedObject);
             objects.remove(renderer.selectedObject);
             listModel.removeElement(renderer.selectedObject);
+            SceneData.Object3D removed = renderer.selectedObject;
 
             // Intelligente Neuselektion
             renderer.selectedObject = objects.isEmpty() ? null : objects.get(Math.max(0, id - 1));
             if (renderer.selectedObject != null) {
                 objectList.setSelectedValue(renderer.selectedObject, true);
             }
+            sceneChanged();
+
+            // Geteiltes Mesh erst nach dem Veröffentlichen freigeben, damit der Render-Thread
+            // die GPU-Puffer nicht mehr über einen älteren Snapshot verwendet
+            removed.release();
         }
     }
 
     /**
      * Öffnet einen Dateidialog zum Import von Wavefront OBJ-Dateien.
+     * Die gewählten Dateien werden im Hintergrund geladen; Fortschritt und Abbruch
+     * werden in der Seitenleiste angezeigt.
      */
     public void importObjFile() {
         JFileChooser fc = new JFileChooser();
         fc.setCurrentDirectory(new java.io.File("."));
+        fc.setMultiSelectionEnabled(true);
         if (fc.showOpenDialog(gui) == JFileChooser.APPROVE_OPTION) {
-            SceneData.Object3D obj = SceneData.loadObj(fc.getSelectedFile());
-            if (obj != null) {
-                addObject(obj);
+            for (java.io.File file : fc.getSelectedFiles()) {
+                startImport(file);
             }
         }
     }
 
+    /**
+     * Startet den Hintergrund-Import einer Datei und übergibt das Ergebnis an {@link #addObject}.
+     */
+    private void startImport(java.io.File file) {
+        ObjImportService.ImportJob[] job = new ObjImportService.ImportJob[1];
+        job[0] = importService.submit(file,
+                obj -> {
+                    gui.removeImportProgress(job[0]);
+                    addObject(obj);
+                },
+                error -> {
+                    gui.removeImportProgress(job[0]);
+                    error.printStackTrace();
+                    JOptionPane.showMessageDialog(gui,
+                            "Die Datei \"" + file.getName() + "\" konnte nicht importiert werden:\n" + error.getMessage(),
+                            "Import fehlgeschlagen", JOptionPane.ERROR_MESSAGE);
+                });
+        gui.addImportProgress(job[0]);
+    }
+
     public boolean isShapeDetection() {
         return shapeDetection;
     }
@@ -215,12 +366,22 @@ public class KitchenApp {
                 } else if (e.isControlDown() && e.getKeyCode() == KeyEvent.VK_O) { // Strg + O für Import
                     importObjFile();
                     return true;
+                } else if (e.getKeyCode() == KeyEvent.VK_F3 && e.isShiftDown()) { // Umschalt + F3 für Profiler-Export
+                    exportProfilerData();
+                    return true;
+                } else if (e.getKeyCode() == KeyEvent.VK_F3) { // F3 für Profiler-HUD
+                    renderer.setProfilerOverlayVisible(!renderer.isProfilerOverlayVisible());
+                    return true;
+                } else if (e.getKeyCode() == KeyEvent.VK_F9) { // F9 für Frame-Zeit-Messung
+                    measureFrameTimes();
+                    return true;
                 }
             }
             return false;
         });
 
-        gljPanel.addMouseListener(new MouseAdapter() {
+        Component viewportComponent = viewport.getComponent();
+        viewportComponent.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
                 pressedMouseX = lastMouseX = e.getX();
@@ -236,24 +397,28 @@ public class KitchenApp {
                         objectList.setSelectedValue(clicked, true);
 
                         // Berechnung des Offsets für präzises Verschieben
-                        dragPlaneY = clicked.worldPosition.y;
-                        Vec3 hitPoint = screenToGroundPlane(e.getX(), e.getY(), dragPlaneY);
-                        dragOffsetVector.set(hitPoint).subtract(clicked.worldPosition);
+                        Vec3 position = clicked.getPosition(dragPosition);
+                        dragPlaneY = position.y;
+                        screenToGroundPlane(e.getX(), e.getY(), dragPlaneY, dragOffsetVector).subtract(position);
                     } else {
                         renderer.selectedObject = null;
                         objectList.clearSelection();
                     }
+                    sceneChanged();
                 }
             }
 
             @Override
             public void mouseReleased(MouseEvent e) {
+                boolean wasDraggingObject = isDraggingObject;
                 isDragging = false;
                 isDraggingObject = false;
+                // Das verschobene Objekt gilt ab jetzt wieder als statisch
+                if (wasDraggingObject) sceneChanged();
             }
         });
 
-        gljPanel.addMouseMotionListener(new MouseMotionAdapter() {
+        viewportComponent.addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseDragged(MouseEvent e) {
                 int dx = e.getX() - lastMouseX;
@@ -271,13 +436,14 @@ public class KitchenApp {
                 if (isDragging) {
                     if (isDraggingObject && renderer.selectedObject != null) {
                         moveObjectOnGround(renderer.selectedObject, e.getX(), e.getY());
+                        sceneChanged();
                     } else {
                         // Kamerarotation (Orbit-Control)
                         renderer.cameraYaw -= dx * 0.5f;
                         // Begrenzung des Pitch-Winkels zur Vermeidung von Gimbal-Lock-ähnlichen Effekten
                         renderer.cameraPitch = Math.max(-85f, Math.min(85f, renderer.cameraPitch + dy * 0.5f));
+                        requestRedraw();
                     }
-                    gljPanel.repaint();
                 }
 
                 lastMouseX = e.getX();
@@ -286,57 +452,24 @@ public class KitchenApp {
         });
 
         // Zoom-Funktionalität via Mausrad
-        gljPanel.addMouseWheelListener(e ->
-                renderer.cameraDistance = Math.max(1f, Math.min(50f,
-                        renderer.cameraDistance + (float)e.getPreciseWheelRotation() * 0.5f))
-        );
+        viewportComponent.addMouseWheelListener(e -> {
+            renderer.cameraDistance = Math.max(1f, Math.min(50f,
+                    renderer.cameraDistance + (float)e.getPreciseWheelRotation() * 0.5f));
+            requestRedraw();
+        });
     }
 
-    /** Hilfs-Record zur Repräsentation eines Strahls im 3D-Raum. */
-    private record Ray(Vec3 rayOriginPoint, Vec3 rayDirectionVector) {}
-
     /**
-     * Transformiert 2D-Mauskoordinaten in einen 3D-Strahl (Raycasting).
+     * Berechnet den Strahl durch die Mausposition in {@link #rayCaster} (Raycasting).
      * <p>
      * Die Methode führt eine Rückprojektion (Unprojection) von Screen-Koordinaten über
      * Normalized Device Coordinates (NDC) in den Weltraum durch, unter Verwendung
-     * der aktuellen View- und Projection-Matrizen.
+     * der aktuellen View- und Projection-Matrizen. Es werden keine Objekte angelegt.
      * </p>
      */
-    private Ray createRayFromMouse(int mouseX, int mouseY) {
-        int w = Math.max(1, gljPanel.getWidth());
-        int h = Math.max(1, gljPanel.getHeight());
-        float aspect = (float) w / h;
-
-        // Transformation in Normalized Device Coordinates (NDC) [-1, 1]
-        float normalizedDeviceX = (2.0f * mouseX) / w - 1.0f;
-        float normalizedDeviceY = 1.0f - (2.0f * mouseY) / h;
-
-        // Berechnung der Kameraposition aus sphärischen Koordinaten
-        float pitchInRadians = (float) Math.toRadians(renderer.cameraPitch);
-        float yawInRadians = (float) Math.toRadians(renderer.cameraYaw);
-        float cameraX = renderer.cameraDistance * (float)(Math.cos(pitchInRadians) * Math.sin(yawInRadians));
-        float cameraY = renderer.cameraDistance * (float) Math.sin(pitchInRadians);
-        float cameraZ = renderer.cameraDistance * (float)(Math.cos(pitchInRadians) * Math.cos(yawInRadians));
-        Vec3 cameraPosition = new Vec3(cameraX, cameraY, cameraZ).add(renderer.cameraTarget);
-
-        // Aufbau der Projektions- und View-Matrizen
-        Mat4 projectionMatrix = new Mat4().setPerspective((float) Math.toRadians(renderer.fov), aspect, 0.1f, 100f);
-        Mat4 viewMatrix = new Mat4().setLookAt(cameraPosition, renderer.cameraTarget, new Vec3(0, 1, 0));
-
-        // Berechnung der Inversen View-Projection-Matrix für die Rücktransformation
-        Mat4 inverseViewProjectionMatrix = new Mat4(projectionMatrix).multiplyMatrix(viewMatrix).invertMatrix();
-
-        // Transformation der Near- und Far-Plane-Punkte von NDC in Weltkoordinaten
-        Vec4 rayNearPoint = new Vec4(normalizedDeviceX, normalizedDeviceY, -1f, 1f).multiply(inverseViewProjectionMatrix);
-        rayNearPoint.divideByW(); // Perspektivische Division
-        Vec4 rayFarPoint = new Vec4(normalizedDeviceX, normalizedDeviceY, 1f, 1f).multiply(inverseViewProjectionMatrix);
-        rayFarPoint.divideByW();
-
-        Vec3 rayOriginPoint = new Vec3(rayNearPoint.x, rayNearPoint.y, rayNearPoint.z);
-        Vec3 rayDirectionVector = new Vec3(rayFarPoint.x - rayNearPoint.x, rayFarPoint.y - rayNearPoint.y, rayFarPoint.z - rayNearPoint.z).normalize();
-
-        return new Ray(rayOriginPoint, rayDirectionVector);
+    private RayCaster createRayFromMouse(int mouseX, int mouseY) {
+        Component component = viewport.getComponent();
+        return rayCaster.set(renderer, mouseX, mouseY, component.getWidth(), component.getHeight());
     }
 
     /**
@@ -344,21 +477,22 @@ public class KitchenApp {
      * Gibt das getroffene Objekt zurück oder null, falls kein Schnittpunkt existiert.
      */
     private SceneData.Object3D pickObject(int mouseX, int mouseY) {
-        Ray ray = createRayFromMouse(mouseX, mouseY);
+        RayCaster ray = createRayFromMouse(mouseX, mouseY);
 
         SceneData.Object3D closest = null;
         float closestDist = Float.MAX_VALUE;
 
-        // Synchronisierter Zugriff auf die Objektliste zur Vermeidung von Race Conditions
-        synchronized (objects) {
-            for (SceneData.Object3D obj : objects) {
-                float t = intersectAABB(ray.rayOriginPoint, ray.rayDirectionVector, obj);
-
-                // Suche nach dem kleinsten positiven Schnittparameter t
-                if (t > 0 && t < closestDist) {
-                    closestDist = t;
-                    closest = obj;
-                }
+        // Getestet wird gegen den zuletzt veröffentlichten Snapshot, also genau das, was zu sehen ist
+        List<SceneSnapshot.Entry> entries = renderer.getSnapshot().getEntries();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            SceneSnapshot.Entry entry = entries.get(i);
+            // AABB in Weltkoordinaten (berücksichtigt auch die Rotation), mit Toleranz für bessere Klickbarkeit
+            float t = ray.intersectAABB(entry.getWorldBoundsMin(), entry.getWorldBoundsMax(), PICK_PADDING);
+
+            // Suche nach dem kleinsten positiven Schnittparameter t
+            if (t > 0 && t < closestDist) {
+                closestDist = t;
+                closest = entry.getSource();
             }
         }
 
@@ -366,59 +500,11 @@ public class KitchenApp {
     }
 
     /**
-     * Berechnet den Schnittpunkt eines Strahls mit der Axis-Aligned Bounding Box (AABB) eines Objekts.
-     * Implementiert den "Slab"-Algorithmus.
-     * Gibt den Abstand t zum Eintrittspunkt zurück oder -1, falls kein Schnittpunkt existiert.
-     */
-    private float intersectAABB(Vec3 rayOriginPoint, Vec3 rayDirectionVector, SceneData.Object3D obj) {
-        // Transformation der lokalen AABB in Weltkoordinaten
-        Vec3 aabbMinWorld = new Vec3(obj.boundingBoxMin).multiply(obj.scaleFactors).add(obj.worldPosition);
-        Vec3 aabbMaxWorld = new Vec3(obj.boundingBoxMax).multiply(obj.scaleFactors).add(obj.worldPosition);
-
-        // Hinzufügen einer Toleranz (Padding) zur Verbesserung der Klickbarkeit
-        float padding = 0.2f;
-        aabbMinWorld.subtract(padding, padding, padding);
-        aabbMaxWorld.add(padding, padding, padding);
-
-        // Berechnung der Schnittintervalle für die X-Achse
-        float tMinX = (aabbMinWorld.x - rayOriginPoint.x) / rayDirectionVector.x;
-        float tMaxX = (aabbMaxWorld.x - rayOriginPoint.x) / rayDirectionVector.x;
-        if (tMinX > tMaxX) { float tmp = tMinX; tMinX = tMaxX; tMaxX = tmp; }
-
-        // Berechnung der Schnittintervalle für die Y-Achse
-        float tMinY = (aabbMinWorld.y - rayOriginPoint.y) / rayDirectionVector.y;
-        float tMaxY = (aabbMaxWorld.y - rayOriginPoint.y) / rayDirectionVector.y;
-        if (tMinY > tMaxY) { float tmp = tMinY; tMinY = tMaxY; tMaxY = tmp; }
-
-        // Prüfung auf Disjunktion der Intervalle
-        if (tMinX > tMaxY || tMinY > tMaxX) return -1;
-
-        // Intervall-Schnittbildung (Clipping)
-        tMinX = Math.max(tMinX, tMinY);
-        tMaxX = Math.min(tMaxX, tMaxY);
-
-        // Berechnung der Schnittintervalle für die Z-Achse
-        float tMinZ = (aabbMinWorld.z - rayOriginPoint.z) / rayDirectionVector.z;
-        float tMaxZ = (aabbMaxWorld.z - rayOriginPoint.z) / rayDirectionVector.z;
-        if (tMinZ > tMaxZ) { float tmp = tMinZ; tMinZ = tMaxZ; tMaxZ = tmp; }
-
-        if (tMinX > tMaxZ || tMinZ > tMaxX) return -1;
-
-        // Finaler Eintrittspunkt
-        tMinX = Math.max(tMinX, tMinZ);
-
-        return tMinX;
-    }
-
-    /**
-     * Berechnet den Schnittpunkt des Mausstrahls mit einer horizontalen Ebene (y = const).
-     * Gibt den Schnittpunkt im 3D-Raum zurück.
+     * Berechnet den Schnittpunkt des Mausstrahls mit einer horizontalen Ebene (y = const)
+     * und schreibt ihn nach {@code dest}.
      */
-    private Vec3 screenToGroundPlane(int mouseX, int mouseY, float planeY) {
-        Ray ray = createRayFromMouse(mouseX, mouseY);
-        // Ebenengleichung: P_y = planeY => origin.y + t * dir.y = planeY
-        float t = (planeY - ray.rayOriginPoint.y) / ray.rayDirectionVector.y;
-        return new Vec3(ray.rayOriginPoint).add(new Vec3(ray.rayDirectionVector).multiply(t));
+    private Vec3 screenToGroundPlane(int mouseX, int mouseY, float planeY, Vec3 dest) {
+        return createRayFromMouse(mouseX, mouseY).intersectHorizontalPlane(planeY, dest);
     }
 
     /**
@@ -426,9 +512,8 @@ public class KitchenApp {
      * Berücksichtigt den anfänglichen Klick-Offset, um Sprünge zu vermeiden.
      */
     private void moveObjectOnGround(SceneData.Object3D obj, int mouseX, int mouseY) {
-        Vec3 hitPoint = screenToGroundPlane(mouseX, mouseY, dragPlaneY);
-        obj.worldPosition.x = hitPoint.x - dragOffsetVector.x;
-        obj.worldPosition.z = hitPoint.z - dragOffsetVector.z;
+        Vec3 hitPoint = screenToGroundPlane(mouseX, mouseY, dragPlaneY, dragHitPoint);
+        obj.setPosition(hitPoint.x - dragOffsetVector.x, obj.getPosition(dragPosition).y, hitPoint.z - dragOffsetVector.z);
     }
 
     /**
@@ -0,0 +1,83 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+
+/**
+ * Hash-Map von long-Schlüsseln auf int-Werte ohne Boxing (offene Adressierung, lineares Sondieren).
+ * Wird beim Mesh-Aufbau genutzt, um identische (Position, Normale)-Paare zu einem Vertex zusammenzuführen.
+ * <p>
+ * Der Schlüssel {@link Long#MIN_VALUE} ist intern als "leer" reserviert.
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        // Kapazität als Zweierpotenz mit Füllgrad <= 50 %
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Fügt den Wert ein, falls der Schlüssel noch nicht existiert.
+     * @return der bereits vorhandene Wert oder -1, falls neu eingefügt wurde
+     */
+    public int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) rehash();
+        return -1;
+    }
+
+    /**
+     * Liefert den Wert zum Schlüssel oder -1, falls er nicht enthalten ist.
+     */
+    public int get(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Durchmischung der Bits (Fibonacci-Hashing), damit aufeinanderfolgende Indizes streuen
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
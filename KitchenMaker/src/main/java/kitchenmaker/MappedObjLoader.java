@@ -0,0 +1,198 @@
+package kitchenmaker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Import-Pfad für sehr große OBJ-Dateien (z.B. Showroom-Scans mit mehreren hundert MB).
+ * <p>
+ * Die Datei wird per {@link FileChannel#map} in den Speicher eingeblendet und an Zeilengrenzen
+ * in Teilstücke zerlegt. Jedes Teilstück wird von einem eigenen {@link ObjParser} auf dem
+ * Fork-Join-Pool gelesen; anschließend werden die Teilergebnisse in Dateireihenfolge zusammengeführt
+ * (siehe {@link ObjParser#merge}). Auch der Mesh-Aufbau (Vertex Welding, Cache-Optimierung) läuft
+ * danach pro Teilstück parallel; nur an den Teilstückgrenzen können dadurch einzelne Vertices doppelt
+ * im Vertex-Buffer landen. Die Zeit bis zum fertigen Objekt skaliert so mit der Anzahl der CPU-Kerne.
+ */
+public class MappedObjLoader {
+
+    /** Ab dieser Dateigröße verwendet {@link SceneData#loadObj} automatisch diesen Import-Pfad. */
+    public static final long MIN_FILE_SIZE = 32L * 1024 * 1024;
+
+    // Grenzen für die Größe eines Teilstücks
+    private static final long MIN_CHUNK_SIZE = 1L * 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    private MappedObjLoader() {
+    }
+
+    /**
+     * Lädt eine OBJ-Datei parallel auf dem gemeinsamen Fork-Join-Pool.
+     */
+    public static Mesh load(File file) throws IOException {
+        return load(file, ForkJoinPool.commonPool(), ImportProgress.NONE);
+    }
+
+    /**
+     * Lädt eine OBJ-Datei parallel auf dem angegebenen Pool.
+     * Jedes fertig gelesene Teilstück wird als Fortschritt gemeldet; bei einem Abbruch
+     * werden die noch ausstehenden Teilstücke nicht mehr bearbeitet.
+     */
+    public static Mesh load(File file, ForkJoinPool pool, ImportProgress progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel, chooseChunkSize(channel.size(), pool.getParallelism()));
+            int partCount = bounds.length - 1;
+
+            // Phase 1: Teilstücke parallel einlesen
+            ObjParser[] parts = new ObjParser[partCount];
+            runParallel(pool, partCount, k -> {
+                progress.checkCancelled();
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, bounds[k], bounds[k + 1] - bounds[k]);
+                ObjParser parser = new ObjParser();
+                parser.read(mapped);
+                parts[k] = parser;
+                progress.advance(bounds[k + 1] - bounds[k]);
+            });
+
+            // Zusammenführen der Rohdaten; die Eckenbereiche der Teilstücke bleiben erhalten
+            int[] cornerOffsets = new int[partCount + 1];
+            for (int k = 0; k < partCount; k++) cornerOffsets[k + 1] = cornerOffsets[k] + parts[k].corners.size();
+            ObjParser merged = ObjParser.merge(parts);
+            int[] corners = merged.corners.array();
+
+            // Phase 2: Teil-Meshes parallel aufbauen
+            ObjParser.MeshPart[] meshes = new ObjParser.MeshPart[partCount];
+            runParallel(pool, partCount, k -> {
+                progress.checkCancelled();
+                meshes[k] = ObjParser.buildPart(merged.positions, merged.normals, corners, cornerOffsets[k], cornerOffsets[k + 1]);
+            });
+
+            return concatenate(meshes, merged.corners.size() / 2);
+        }
+    }
+
+    /**
+     * Hängt die Teil-Meshes aneinander und verschiebt deren Indizes um die jeweilige Vertex-Basis.
+     */
+    private static Mesh concatenate(ObjParser.MeshPart[] meshes, int sourceVertexCount) {
+        int vertexFloats = 0, indexCount = 0;
+        for (ObjParser.MeshPart mesh : meshes) {
+            vertexFloats += mesh.vertices().length;
+            indexCount += mesh.indices().length;
+        }
+
+        float[] vertices = new float[vertexFloats];
+        int[] indices = new int[indexCount];
+        int vertexOffset = 0, indexOffset = 0;
+        for (ObjParser.MeshPart mesh : meshes) {
+            System.arraycopy(mesh.vertices(), 0, vertices, vertexOffset, mesh.vertices().length);
+            int base = vertexOffset / 6;
+            int[] partIndices = mesh.indices();
+            for (int i = 0; i < partIndices.length; i++) indices[indexOffset + i] = partIndices[i] + base;
+            vertexOffset += mesh.vertices().length;
+            indexOffset += partIndices.length;
+        }
+        return new Mesh(vertices, indices, sourceVertexCount);
+    }
+
+    /**
+     * Arbeitsschritt pro Teilstück, der Ein-/Ausgabefehler werfen darf.
+     */
+    private interface ChunkAction {
+        void run(int chunk) throws IOException;
+    }
+
+    /**
+     * Führt die Aktion für alle Teilstücke auf dem Fork-Join-Pool aus und wartet auf das Ende.
+     */
+    private static void runParallel(ForkJoinPool pool, int count, ChunkAction action) throws IOException {
+        try {
+            pool.invoke(new ChunkTask(action, 0, count));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wählt die Teilstückgröße so, dass pro Thread mehrere Stücke anfallen (Lastverteilung).
+     */
+    private static long chooseChunkSize(long fileSize, int parallelism) {
+        long target = fileSize / (Math.max(1, parallelism) * 4L);
+        return Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, target));
+    }
+
+    /**
+     * Ermittelt Teilstückgrenzen, die jeweils direkt hinter einem Zeilenumbruch liegen.
+     * @return aufsteigende Offsets, beginnend mit 0 und endend mit der Dateigröße
+     */
+    private static long[] splitAtLines(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = chunkSize;
+        while (position < size) {
+            long boundary = findLineStart(channel, probe, position);
+            if (boundary >= size) break;
+            bounds.add(boundary);
+            position = boundary + chunkSize;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Sucht ab der gegebenen Position den Anfang der nächsten Zeile.
+     */
+    private static long findLineStart(FileChannel channel, ByteBuffer probe, long position) throws IOException {
+        long size = channel.size();
+        while (position < size) {
+            probe.clear();
+            int n = channel.read(probe, position);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') return position + i + 1;
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    /**
+     * Fork-Join-Aufgabe, die einen Bereich von Teilstücken rekursiv halbiert und
+     * die Aktion für jedes Blatt ausführt.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private final ChunkAction action;
+        private final int from, to;
+
+        ChunkTask(ChunkAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(action, from, mid), new ChunkTask(action, mid, to));
+            } else if (to > from) {
+                try {
+                    action.run(from);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -30,6 +30,15 @@ public class Mat4 {
         System.arraycopy(other.matrixElements, 0, this.matrixElements, 0, 16);
     }
 
+    /**
+     * Übernimmt die Elemente der angegebenen Matrix.
+     * @return diese Matrix für Methoden-Verkettung
+     */
+    public Mat4 set(Mat4 other) {
+        System.arraycopy(other.matrixElements, 0, this.matrixElements, 0, 16);
+        return this;
+    }
+
     /**
      * Setzt diese Matrix auf die Identitätsmatrix.
      * @return diese Matrix für Methoden-Verkettung
@@ -45,6 +54,23 @@ public class Mat4 {
         return this;
     }
 
+    /**
+     * Setzt diese Matrix auf eine reine Translationsmatrix (entspricht {@code setIdentity().translate(...)},
+     * ohne die allgemeine Translation über alle Spalten zu berechnen).
+     * @return diese Matrix für Methoden-Verkettung
+     */
+    public Mat4 setTranslation(float x, float y, float z) {
+        setIdentity();
+        matrixElements[12] = x;
+        matrixElements[13] = y;
+        matrixElements[14] = z;
+        return this;
+    }
+
+    public Mat4 setTranslation(Vec3 translation) {
+        return setTranslation(translation.x, translation.y, translation.z);
+    }
+
     /**
      * Wendet eine Translation (Verschiebung) auf diese Matrix an.
      * @return diese Matrix für Methoden-Verkettung
@@ -74,6 +100,7 @@ public class Mat4 {
      * @return diese Matrix für Methoden-Verkettung
      */
     public Mat4 rotateAroundX(float angleInRadians) {
+        if (angleInRadians == 0) return this; // häufigster Fall: Objekt nur um eine Achse gedreht
         float cosAngle = (float) Math.cos(angleInRadians);
         float sinAngle = (float) Math.sin(angleInRadians);
         float[] m = matrixElements;
@@ -100,6 +127,7 @@ public class Mat4 {
      * @return diese Matrix für Methoden-Verkettung
      */
     public Mat4 rotateAroundY(float angleInRadians) {
+        if (angleInRadians == 0) return this; // häufigster Fall: Objekt nur um eine Achse gedreht
         float cosAngle = (float) Math.cos(angleInRadians);
         float sinAngle = (float) Math.sin(angleInRadians);
         float[] m = matrixElements;
@@ -126,6 +154,7 @@ public class Mat4 {
      * @return diese Matrix für Methoden-Verkettung
      */
     public Mat4 rotateAroundZ(float angleInRadians) {
+        if (angleInRadians == 0) return this; // häufigster Fall: Objekt nur um eine Achse gedreht
         float cosAngle = (float) Math.cos(angleInRadians);
         float sinAngle = (float) Math.sin(angleInRadians);
         float[] m = matrixElements;
@@ -159,6 +188,7 @@ public class Mat4 {
      * @return diese Matrix für Methoden-Verkettung
      */
     public Mat4 scale(float scaleX, float scaleY, float scaleZ) {
+        if (scaleX == 1 && scaleY == 1 && scaleZ == 1) return this;
         float[] m = matrixElements;
         m[0] *= scaleX;
         m[1] *= scaleX;
@@ -221,26 +251,41 @@ public class Mat4 {
      * Punkt die Kamera gerichtet ist.
      */
     public Mat4 setLookAt(Vec3 cameraPosition, Vec3 targetPosition, Vec3 upDirection) {
-        // Berechne Richtungsvektoren
-        Vec3 forwardDirection = new Vec3(cameraPosition).subtract(targetPosition).normalize();
-        Vec3 rightDirection = new Vec3(upDirection).cross(forwardDirection).normalize();
-        Vec3 cameraUpDirection = new Vec3(forwardDirection).cross(rightDirection);
-
+        // Berechne Richtungsvektoren (ohne temporäre Vec3-Objekte, da pro Frame aufgerufen)
+        float fx = cameraPosition.x - targetPosition.x;
+        float fy = cameraPosition.y - targetPosition.y;
+        float fz = cameraPosition.z - targetPosition.z;
+        float fLength = (float) Math.sqrt(fx * fx + fy * fy + fz * fz);
+        if (fLength > 0) { fx /= fLength; fy /= fLength; fz /= fLength; }
+
+        // right = up x forward
+        float rx = upDirection.y * fz - upDirection.z * fy;
+        float ry = upDirection.z * fx - upDirection.x * fz;
+        float rz = upDirection.x * fy - upDirection.y * fx;
+        float rLength = (float) Math.sqrt(rx * rx + ry * ry + rz * rz);
+        if (rLength > 0) { rx /= rLength; ry /= rLength; rz /= rLength; }
+
+        // cameraUp = forward x right
+        float ux = fy * rz - fz * ry;
+        float uy = fz * rx - fx * rz;
+        float uz = fx * ry - fy * rx;
+
+        float px = cameraPosition.x, py = cameraPosition.y, pz = cameraPosition.z;
         float[] m = matrixElements;
-        m[0] = rightDirection.x;
-        m[4] = rightDirection.y;
-        m[8] = rightDirection.z;
-        m[12] = -rightDirection.dot(cameraPosition);
+        m[0] = rx;
+        m[4] = ry;
+        m[8] = rz;
+        m[12] = -(rx * px + ry * py + rz * pz);
 
-        m[1] = cameraUpDirection.x;
-        m[5] = cameraUpDirection.y;
-        m[9] = cameraUpDirection.z;
-        m[13] = -cameraUpDirection.dot(cameraPosition);
+        m[1] = ux;
+        m[5] = uy;
+        m[9] = uz;
+        m[13] = -(ux * px + uy * py + uz * pz);
 
-        m[2] = forwardDirection.x;
-        m[6] = forwardDirection.y;
-        m[10] = forwardDirection.z;
-        m[14] = -forwardDirection.dot(cameraPosition);
+        m[2] = fx;
+        m[6] = fy;
+        m[10] = fz;
+        m[14] = -(fx * px + fy * py + fz * pz);
 
         m[3] = 0;
         m[7] = 0;
@@ -255,100 +300,163 @@ public class Mat4 {
      * @return diese Matrix für Methoden-Verkettung
      */
     public Mat4 multiplyMatrix(Mat4 other) {
-        float[] result = new float[16];
-        float[] a = this.matrixElements;
-        float[] b = other.matrixElements;
-
-        for (int column = 0; column < 4; column++) {
-            for (int row = 0; row < 4; row++) {
-                int index = column * 4 + row;
-                result[index] =
-                    a[row] * b[column * 4] +
-                    a[row + 4] * b[column * 4 + 1] +
-                    a[row + 8] * b[column * 4 + 2] +
-                    a[row + 12] * b[column * 4 + 3];
-            }
+        return mul(this, other, this);
+    }
+
+    /**
+     * Berechnet {@code dest = a * b}. {@code dest} darf {@code a} oder {@code b} sein (auch beides);
+     * es wird kein Hilfs-Array angelegt.
+     * @return dest
+     */
+    public static Mat4 mul(Mat4 a, Mat4 b, Mat4 dest) {
+        float[] x = a.matrixElements, y = b.matrixElements, d = dest.matrixElements;
+        // Spalten von b zuerst in lokale Variablen, dann zeilenweise Berechnung: Zeile i des Ergebnisses
+        // hängt nur von Zeile i von a ab und kann daher direkt zurückgeschrieben werden
+        float b0 = y[0], b1 = y[1], b2 = y[2], b3 = y[3];
+        float b4 = y[4], b5 = y[5], b6 = y[6], b7 = y[7];
+        float b8 = y[8], b9 = y[9], b10 = y[10], b11 = y[11];
+        float b12 = y[12], b13 = y[13], b14 = y[14], b15 = y[15];
+        for (int row = 0; row < 4; row++) {
+            float a0 = x[row], a1 = x[row + 4], a2 = x[row + 8], a3 = x[row + 12];
+            d[row] = a0 * b0 + a1 * b1 + a2 * b2 + a3 * b3;
+            d[row + 4] = a0 * b4 + a1 * b5 + a2 * b6 + a3 * b7;
+            d[row + 8] = a0 * b8 + a1 * b9 + a2 * b10 + a3 * b11;
+            d[row + 12] = a0 * b12 + a1 * b13 + a2 * b14 + a3 * b15;
         }
+        return dest;
+    }
 
-        System.arraycopy(result, 0, matrixElements, 0, 16);
-        return this;
+    /**
+     * Berechnet {@code dest = a * b} für eine affine Transformation {@code b} (z.B. Projektion * View).
+     * Da die letzte Zeile von b (0, 0, 0, 1) ist, genügen 48 statt 64 Multiplikationen. {@code dest} darf {@code a} sein.
+     * @return dest
+     */
+    public static Mat4 mul(Mat4 a, Affine3 b, Mat4 dest) {
+        float[] x = a.matrixElements, y = b.elements, d = dest.matrixElements;
+        float b0 = y[0], b1 = y[1], b2 = y[2], b3 = y[3], b4 = y[4], b5 = y[5];
+        float b6 = y[6], b7 = y[7], b8 = y[8], b9 = y[9], b10 = y[10], b11 = y[11];
+        for (int row = 0; row < 4; row++) {
+            float a0 = x[row], a1 = x[row + 4], a2 = x[row + 8], a3 = x[row + 12];
+            d[row] = a0 * b0 + a1 * b1 + a2 * b2;
+            d[row + 4] = a0 * b3 + a1 * b4 + a2 * b5;
+            d[row + 8] = a0 * b6 + a1 * b7 + a2 * b8;
+            d[row + 12] = a0 * b9 + a1 * b10 + a2 * b11 + a3;
+        }
+        return dest;
     }
 
     /**
      * Invertiert diese Matrix (berechnet die inverse Matrix).
      * @return diese Matrix für Methoden-Verkettung
      *
-     * Diese Methode berechnet die Inverse der Matrix mittels Gauss-Jordan-Elimination.
      * Die inverse Matrix wird benötigt, um Transformationen rückgängig zu machen
      * oder um von homogenen Koordinaten zurück zu normalen Koordinaten zu konvertieren.
      */
     public Mat4 invertMatrix() {
+        return invert(this);
+    }
+
+    /**
+     * Schreibt die Inverse dieser Matrix nach {@code dest} (über die Adjunkte); diese Matrix bleibt
+     * unverändert, sofern {@code dest != this}. Ist die Matrix nicht invertierbar, wird {@code dest}
+     * auf die Identität gesetzt.
+     * @return dest
+     */
+    public Mat4 invert(Mat4 dest) {
         float[] m = matrixElements;
-        float[] inv = new float[16];
 
-        // Berechne die Inverse mittels Gauss-Jordan-Elimination
-        inv[0] = m[5] * m[10] * m[15] - m[5] * m[11] * m[14] - m[9] * m[6] * m[15] +
-                 m[9] * m[7] * m[14] + m[13] * m[6] * m[11] - m[13] * m[7] * m[10];
+        // Adjunkte (Kofaktoren) in lokalen Variablen, damit dest auch diese Matrix sein darf
+        float i0 = m[5] * m[10] * m[15] - m[5] * m[11] * m[14] - m[9] * m[6] * m[15] +
+                   m[9] * m[7] * m[14] + m[13] * m[6] * m[11] - m[13] * m[7] * m[10];
 
-        inv[4] = -m[4] * m[10] * m[15] + m[4] * m[11] * m[14] + m[8] * m[6] * m[15] -
-                  m[8] * m[7] * m[14] - m[12] * m[6] * m[11] + m[12] * m[7] * m[10];
+        float i4 = -m[4] * m[10] * m[15] + m[4] * m[11] * m[14] + m[8] * m[6] * m[15] -
+                    m[8] * m[7] * m[14] - m[12] * m[6] * m[11] + m[12] * m[7] * m[10];
 
-        inv[8] = m[4] * m[9] * m[15] - m[4] * m[11] * m[13] - m[8] * m[5] * m[15] +
-                 m[8] * m[7] * m[13] + m[12] * m[5] * m[11] - m[12] * m[7] * m[9];
+        float i8 = m[4] * m[9] * m[15] - m[4] * m[11] * m[13] - m[8] * m[5] * m[15] +
+                   m[8] * m[7] * m[13] + m[12] * m[5] * m[11] - m[12] * m[7] * m[9];
 
-        inv[12] = -m[4] * m[9] * m[14] + m[4] * m[10] * m[13] + m[8] * m[5] * m[14] -
-                   m[8] * m[6] * m[13] - m[12] * m[5] * m[10] + m[12] * m[6] * m[9];
+        float i12 = -m[4] * m[9] * m[14] + m[4] * m[10] * m[13] + m[8] * m[5] * m[14] -
+                     m[8] * m[6] * m[13] - m[12] * m[5] * m[10] + m[12] * m[6] * m[9];
 
-        inv[1] = -m[1] * m[10] * m[15] + m[1] * m[11] * m[14] + m[9] * m[2] * m[15] -
-                  m[9] * m[3] * m[14] - m[13] * m[2] * m[11] + m[13] * m[3] * m[10];
+        float i1 = -m[1] * m[10] * m[15] + m[1] * m[11] * m[14] + m[9] * m[2] * m[15] -
+                    m[9] * m[3] * m[14] - m[13] * m[2] * m[11] + m[13] * m[3] * m[10];
 
-        inv[5] = m[0] * m[10] * m[15] - m[0] * m[11] * m[14] - m[8] * m[2] * m[15] +
-                 m[8] * m[3] * m[14] + m[12] * m[2] * m[11] - m[12] * m[3] * m[10];
+        float i5 = m[0] * m[10] * m[15] - m[0] * m[11] * m[14] - m[8] * m[2] * m[15] +
+                   m[8] * m[3] * m[14] + m[12] * m[2] * m[11] - m[12] * m[3] * m[10];
 
-        inv[9] = -m[0] * m[9] * m[15] + m[0] * m[11] * m[13] + m[8] * m[1] * m[15] -
-                  m[8] * m[3] * m[13] - m[12] * m[1] * m[11] + m[12] * m[3] * m[9];
+        float i9 = -m[0] * m[9] * m[15] + m[0] * m[11] * m[13] + m[8] * m[1] * m[15] -
+                    m[8] * m[3] * m[13] - m[12] * m[1] * m[11] + m[12] * m[3] * m[9];
 
-        inv[13] = m[0] * m[9] * m[14] - m[0] * m[10] * m[13] - m[8] * m[1] * m[14] +
-                  m[8] * m[2] * m[13] + m[12] * m[1] * m[10] - m[12] * m[2] * m[9];
+        float i13 = m[0] * m[9] * m[14] - m[0] * m[10] * m[13] - m[8] * m[1] * m[14] +
+                    m[8] * m[2] * m[13] + m[12] * m[1] * m[10] - m[12] * m[2] * m[9];
 
-        inv[2] = m[1] * m[6] * m[15] - m[1] * m[7] * m[14] - m[5] * m[2] * m[15] +
-                 m[5] * m[3] * m[14] + m[13] * m[2] * m[7] - m[13] * m[3] * m[6];
+        float i2 = m[1] * m[6] * m[15] - m[1] * m[7] * m[14] - m[5] * m[2] * m[15] +
+                   m[5] * m[3] * m[14] + m[13] * m[2] * m[7] - m[13] * m[3] * m[6];
 
-        inv[6] = -m[0] * m[6] * m[15] + m[0] * m[7] * m[14] + m[4] * m[2] * m[15] -
-                  m[4] * m[3] * m[14] - m[12] * m[2] * m[7] + m[12] * m[3] * m[6];
+        float i6 = -m[0] * m[6] * m[15] + m[0] * m[7] * m[14] + m[4] * m[2] * m[15] -
+                    m[4] * m[3] * m[14] - m[12] * m[2] * m[7] + m[12] * m[3] * m[6];
 
-        inv[10] = m[0] * m[5] * m[15] - m[0] * m[7] * m[13] - m[4] * m[1] * m[15] +
-                  m[4] * m[3] * m[13] + m[12] * m[1] * m[7] - m[12] * m[3] * m[5];
+        float i10 = m[0] * m[5] * m[15] - m[0] * m[7] * m[13] - m[4] * m[1] * m[15] +
+                    m[4] * m[3] * m[13] + m[12] * m[1] * m[7] - m[12] * m[3] * m[5];
 
-        inv[14] = -m[0] * m[5] * m[14] + m[0] * m[6] * m[13] + m[4] * m[1] * m[14] -
-                   m[4] * m[2] * m[13] - m[12] * m[1] * m[6] + m[12] * m[2] * m[5];
+        float i14 = -m[0] * m[5] * m[14] + m[0] * m[6] * m[13] + m[4] * m[1] * m[14] -
+                     m[4] * m[2] * m[13] - m[12] * m[1] * m[6] + m[12] * m[2] * m[5];
 
-        inv[3] = -m[1] * m[6] * m[11] + m[1] * m[7] * m[10] + m[5] * m[2] * m[11] -
-                  m[5] * m[3] * m[10] - m[9] * m[2] * m[7] + m[9] * m[3] * m[6];
+        float i3 = -m[1] * m[6] * m[11] + m[1] * m[7] * m[10] + m[5] * m[2] * m[11] -
+                    m[5] * m[3] * m[10] - m[9] * m[2] * m[7] + m[9] * m[3] * m[6];
 
-        inv[7] = m[0] * m[6] * m[11] - m[0] * m[7] * m[10] - m[4] * m[2] * m[11] +
-                 m[4] * m[3] * m[10] + m[8] * m[2] * m[7] - m[8] * m[3] * m[6];
+        float i7 = m[0] * m[6] * m[11] - m[0] * m[7] * m[10] - m[4] * m[2] * m[11] +
+                   m[4] * m[3] * m[10] + m[8] * m[2] * m[7] - m[8] * m[3] * m[6];
 
-        inv[11] = -m[0] * m[5] * m[11] + m[0] * m[7] * m[9] + m[4] * m[1] * m[11] -
-                   m[4] * m[3] * m[9] - m[8] * m[1] * m[7] + m[8] * m[3] * m[5];
+        float i11 = -m[0] * m[5] * m[11] + m[0] * m[7] * m[9] + m[4] * m[1] * m[11] -
+                     m[4] * m[3] * m[9] - m[8] * m[1] * m[7] + m[8] * m[3] * m[5];
 
-        inv[15] = m[0] * m[5] * m[10] - m[0] * m[6] * m[9] - m[4] * m[1] * m[10] +
-                  m[4] * m[2] * m[9] + m[8] * m[1] * m[6] - m[8] * m[2] * m[5];
+        float i15 = m[0] * m[5] * m[10] - m[0] * m[6] * m[9] - m[4] * m[1] * m[10] +
+                    m[4] * m[2] * m[9] + m[8] * m[1] * m[6] - m[8] * m[2] * m[5];
 
-        float determinant = m[0] * inv[0] + m[1] * inv[4] + m[2] * inv[8] + m[3] * inv[12];
+        float determinant = m[0] * i0 + m[1] * i4 + m[2] * i8 + m[3] * i12;
 
         if (Math.abs(determinant) < 0.00001f) {
             // Matrix ist nicht invertierbar, setze auf Identität
-            setIdentity();
-            return this;
+            return dest.setIdentity();
         }
 
-        float inverseDeterminant = 1.0f / determinant;
-        for (int i = 0; i < 16; i++) {
-            matrixElements[i] = inv[i] * inverseDeterminant;
-        }
+        float s = 1.0f / determinant;
+        float[] d = dest.matrixElements;
+        d[0] = i0 * s; d[1] = i1 * s; d[2] = i2 * s; d[3] = i3 * s;
+        d[4] = i4 * s; d[5] = i5 * s; d[6] = i6 * s; d[7] = i7 * s;
+        d[8] = i8 * s; d[9] = i9 * s; d[10] = i10 * s; d[11] = i11 * s;
+        d[12] = i12 * s; d[13] = i13 * s; d[14] = i14 * s; d[15] = i15 * s;
+        return dest;
+    }
 
-        return this;
+    /**
+     * Transformiert einen homogenen Vektor ({@code dest = this * vec}). {@code dest} darf {@code vec} sein.
+     * @return dest
+     */
+    public Vec4 transform(Vec4 vec, Vec4 dest) {
+        float[] m = matrixElements;
+        float x = vec.x, y = vec.y, z = vec.z, w = vec.w;
+        return dest.set(
+                x * m[0] + y * m[4] + z * m[8] + w * m[12],
+                x * m[1] + y * m[5] + z * m[9] + w * m[13],
+                x * m[2] + y * m[6] + z * m[10] + w * m[14],
+                x * m[3] + y * m[7] + z * m[11] + w * m[15]);
+    }
+
+    /**
+     * Transformiert einen Punkt (w = 1) inklusive perspektivischer Division. {@code dest} darf {@code point} sein.
+     * @return dest
+     */
+    public Vec3 transformPosition(Vec3 point, Vec3 dest) {
+        float[] m = matrixElements;
+        float x = point.x, y = point.y, z = point.z;
+        float w = x * m[3] + y * m[7] + z * m[11] + m[15];
+        float inverseW = Math.abs(w) > 0.00001f ? 1.0f / w : 1.0f;
+        return dest.set(
+                (x * m[0] + y * m[4] + z * m[8] + m[12]) * inverseW,
+                (x * m[1] + y * m[5] + z * m[9] + m[13]) * inverseW,
+                (x * m[2] + y * m[6] + z * m[10] + m[14]) * inverseW);
     }
 
     /**
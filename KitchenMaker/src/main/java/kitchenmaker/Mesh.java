@@ -0,0 +1,321 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Geometrie eines 3D-Modells inklusive der zugehörigen OpenGL-Puffer.
+ * <p>
+ * Ein Mesh wird von beliebig vielen {@link SceneData.Object3D}-Instanzen gemeinsam verwendet
+ * (Flyweight): 40 Theken teilen sich dieselben Vertex-/Index-Arrays und denselben VAO/VBO/EBO.
+ * Über die {@link MeshRegistry} geteilte Meshes werden per Referenzzählung verwaltet und erst
+ * freigegeben, wenn kein Objekt sie mehr verwendet.
+ */
+public class Mesh {
+
+    /** Kompaktes Vertex-Format verwenden (abschaltbar über -Dkitchenmaker.compactVertices=false). */
+    static final boolean COMPACT_VERTICES = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.compactVertices"));
+
+    /**
+     * Uniform-Locations, über die der Shader das Vertex-Format des Meshes dekodiert.
+     */
+    public record FormatUniforms(int positionOffset, int positionScale, int octNormals) {
+        /** Anzahl der Uniform-Uploads je Draw Call (für die Frame-Statistik). */
+        static final int COUNT = 3;
+    }
+
+    /**
+     * Vereinfachte Detailstufe mit der Gitterauflösung, mit der sie erzeugt wurde (siehe {@link MeshSimplifier}).
+     */
+    public record LodLevel(Mesh mesh, int gridResolution) {
+    }
+
+    // Maximal zulässige Größe einer LOD-Gitterzelle auf dem Bildschirm in Pixeln
+    private static final float LOD_PIXEL_ERROR = 3.0f;
+
+    // Geometriedaten (Interleaved: x,y,z, nx,ny,nz)
+    public final float[] vertices;
+    public final int[] indices;
+
+    // Axis-Aligned Bounding Box (AABB) im Modellraum
+    public final Vec3 boundingBoxMin = new Vec3();
+    public final Vec3 boundingBoxMax = new Vec3();
+
+    // Anzahl der Vertices vor dem Zusammenführen identischer Vertices (eine pro Dreiecksecke)
+    private final int sourceVertexCount;
+
+    // Verwaltung durch die MeshRegistry (Zugriff nur innerhalb von ConcurrentHashMap.compute)
+    String registryKey;
+    int referenceCount;
+
+    // OpenGL-Handles (verwaltet vom GpuResourceManager) und Kontext-Generation beim Upload
+    private GpuResourceManager.Handle vao, vbo, ebo;
+    private int gpuGeneration = -1;
+
+    // Vereinfachte Detailstufen von fein nach grob (werden im Hintergrund nachgereicht)
+    private volatile LodLevel[] lodLevels = new LodLevel[0];
+
+    // Format der GPU-Puffer (siehe VertexQuantizer)
+    private boolean compact;
+    private int indexType = GL2.GL_UNSIGNED_INT;
+
+    /**
+     * Konstruktor: Übernimmt die Geometriedaten und berechnet sofort die Bounding Box.
+     */
+    public Mesh(float[] vertices, int[] indices) {
+        this(vertices, indices, vertices.length / 6);
+    }
+
+    /**
+     * Konstruktor für bereits indizierte Meshes.
+     * @param sourceVertexCount Vertex-Anzahl des Ausgangsmaterials vor dem Vertex Welding
+     */
+    public Mesh(float[] vertices, int[] indices, int sourceVertexCount) {
+        this.vertices = vertices;
+        this.indices = indices;
+        this.sourceVertexCount = sourceVertexCount;
+        calculateBounds();
+    }
+
+    /**
+     * Konstruktor für Meshes mit bereits bekannter Bounding Box (z.B. aus dem {@link MeshCache}).
+     */
+    public Mesh(float[] vertices, int[] indices, int sourceVertexCount, Vec3 boundsMin, Vec3 boundsMax) {
+        this.vertices = vertices;
+        this.indices = indices;
+        this.sourceVertexCount = sourceVertexCount;
+        this.boundingBoxMin.set(boundsMin);
+        this.boundingBoxMax.set(boundsMax);
+    }
+
+    /**
+     * Anzahl der Vertices im Vertex-Buffer (nach dem Vertex Welding).
+     */
+    public int getVertexCount() {
+        return vertices.length / 6;
+    }
+
+    /**
+     * Anzahl der Dreiecke beim Zeichnen mit {@code GL_TRIANGLES}.
+     */
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Anzahl der Vertices vor dem Vertex Welding (entspricht der Zahl der Dreiecksecken beim OBJ-Import).
+     */
+    public int getSourceVertexCount() {
+        return sourceVertexCount;
+    }
+
+    public LodLevel[] getLodLevels() {
+        return lodLevels;
+    }
+
+    void setLodLevels(LodLevel[] levels) {
+        this.lodLevels = levels;
+    }
+
+    /**
+     * Wählt die gröbste Detailstufe, deren Gitterzellen auf dem Bildschirm höchstens
+     * {@value #LOD_PIXEL_ERROR} Pixel groß sind.
+     *
+     * @param projectedSize Durchmesser des Objekts auf dem Bildschirm in Pixeln
+     */
+    public Mesh selectLod(float projectedSize) {
+        Mesh selected = this;
+        for (LodLevel level : lodLevels) {
+            if (projectedSize > level.gridResolution() * LOD_PIXEL_ERROR) break;
+            selected = level.mesh();
+        }
+        return selected;
+    }
+
+    /**
+     * Radius der umschließenden Kugel um den Mittelpunkt der Bounding Box.
+     */
+    public float getBoundingRadius() {
+        float dx = boundingBoxMax.x - boundingBoxMin.x;
+        float dy = boundingBoxMax.y - boundingBoxMin.y;
+        float dz = boundingBoxMax.z - boundingBoxMin.z;
+        return 0.5f * (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Berechnet die minimalen und maximalen Koordinaten (AABB) des Meshes.
+     * Wird für Raycasting benötigt.
+     */
+    private void calculateBounds() {
+        // Stride 6: x,y,z, nx,ny,nz
+        BatchMath.bounds(vertices, BatchMath.VERTEX_STRIDE, vertices.length / BatchMath.VERTEX_STRIDE, boundingBoxMin, boundingBoxMax);
+    }
+
+    /**
+     * Zeichnet das Mesh mit den aktuell gesetzten Uniforms.
+     * Die GPU-Puffer werden beim ersten Aufruf angelegt.
+     */
+    public void draw(GL2 gl, int drawMode, FormatUniforms format) {
+        upload(gl);
+        applyFormat(gl, format);
+
+        gl.glBindVertexArray(vao.id());
+        gl.glDrawElements(drawMode, indices.length, indexType, 0);
+        gl.glBindVertexArray(0);
+    }
+
+    /**
+     * Zeichnet das Mesh mehrfach mit einem einzigen Draw Call. Modellmatrix, Farbe, Selektion und
+     * Normalenmatrix stammen pro Instanz aus dem Instanz-Puffer (Layout siehe {@link InstancedRenderer}).
+     *
+     * @param instanceBuffer VBO mit den Instanzdaten
+     * @param byteOffset     Position der ersten Instanz dieses Meshes im Puffer
+     */
+    void drawInstanced(GL2 gl, FormatUniforms format, int instanceBuffer, long byteOffset, int instanceCount) {
+        upload(gl);
+        applyFormat(gl, format);
+
+        gl.glBindVertexArray(vao.id());
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, instanceBuffer);
+
+        // Modellmatrix als vier Spaltenvektoren, Farbe (rgb) + Selektion (a), Normalenmatrix als drei Spaltenvektoren
+        for (int column = 0; column < 4; column++) {
+            int attribute = InstancedRenderer.MODEL_ATTRIBUTE + column;
+            gl.glEnableVertexAttribArray(attribute);
+            gl.glVertexAttribPointer(attribute, 4, GL2.GL_FLOAT, false, InstancedRenderer.INSTANCE_STRIDE, byteOffset + column * 16L);
+            gl.glVertexAttribDivisor(attribute, 1);
+        }
+        gl.glEnableVertexAttribArray(InstancedRenderer.COLOR_ATTRIBUTE);
+        gl.glVertexAttribPointer(InstancedRenderer.COLOR_ATTRIBUTE, 4, GL2.GL_FLOAT, false, InstancedRenderer.INSTANCE_STRIDE, byteOffset + 64);
+        gl.glVertexAttribDivisor(InstancedRenderer.COLOR_ATTRIBUTE, 1);
+        for (int column = 0; column < 3; column++) {
+            int attribute = InstancedRenderer.NORMAL_MATRIX_ATTRIBUTE + column;
+            gl.glEnableVertexAttribArray(attribute);
+            gl.glVertexAttribPointer(attribute, 3, GL2.GL_FLOAT, false, InstancedRenderer.INSTANCE_STRIDE, byteOffset + 80 + column * 12L);
+            gl.glVertexAttribDivisor(attribute, 1);
+        }
+
+        gl.glDrawElementsInstanced(GL2.GL_TRIANGLES, indices.length, indexType, 0L, instanceCount);
+
+        // Instanz-Attribute wieder abschalten, damit der VAO auch ohne Instanzpuffer gültig bleibt
+        for (int attribute = InstancedRenderer.MODEL_ATTRIBUTE; attribute <= InstancedRenderer.NORMAL_MATRIX_ATTRIBUTE + 2; attribute++) {
+            gl.glVertexAttribDivisor(attribute, 0);
+            gl.glDisableVertexAttribArray(attribute);
+        }
+        gl.glBindVertexArray(0);
+    }
+
+    /**
+     * Übergibt dem Shader, wie die Vertex-Daten dieses Meshes zu dekodieren sind.
+     */
+    private void applyFormat(GL2 gl, FormatUniforms format) {
+        // Dequantisierung der Positionen: pos = offset + aPos * scale
+        if (compact) {
+            gl.glUniform3f(format.positionOffset(), boundingBoxMin.x, boundingBoxMin.y, boundingBoxMin.z);
+            gl.glUniform3f(format.positionScale(), boundingBoxMax.x - boundingBoxMin.x,
+                    boundingBoxMax.y - boundingBoxMin.y, boundingBoxMax.z - boundingBoxMin.z);
+            gl.glUniform1i(format.octNormals(), 1);
+        } else {
+            gl.glUniform3f(format.positionOffset(), 0, 0, 0);
+            gl.glUniform3f(format.positionScale(), 1, 1, 1);
+            gl.glUniform1i(format.octNormals(), 0);
+        }
+    }
+
+    /**
+     * Initialisiert Vertex Array Object (VAO) und Buffer Objects (VBO, EBO).
+     * Lädt die Geometriedaten in den Grafikspeicher (nur beim ersten Aufruf).
+     */
+    void upload(GL2 gl) {
+        if (isUploaded()) return;
+        vao = GpuResourceManager.createVertexArray(gl);
+        vbo = GpuResourceManager.createBuffer(gl);
+        ebo = GpuResourceManager.createBuffer(gl);
+        gpuGeneration = GpuResourceManager.generation();
+
+        gl.glBindVertexArray(vao.id());
+        compact = COMPACT_VERTICES;
+
+        if (compact) {
+            // Kompaktes Format: 8 Bytes pro Vertex (quantisierte Position + oktaedrische Normale)
+            ByteBuffer data = VertexQuantizer.encodeVertices(vertices, boundingBoxMin, boundingBoxMax);
+            GpuResourceManager.bufferData(gl, vbo, GL2.GL_ARRAY_BUFFER, data.remaining(), data, GL2.GL_STATIC_DRAW);
+
+            // Attribut 0: Position (3 unsigned shorts, normiert auf [0, 1])
+            gl.glEnableVertexAttribArray(0);
+            gl.glVertexAttribPointer(0, 3, GL2.GL_UNSIGNED_SHORT, true, VertexQuantizer.COMPACT_STRIDE, 0);
+
+            // Attribut 1: Normale (2 signed bytes, Dekodierung im Shader)
+            gl.glEnableVertexAttribArray(1);
+            gl.glVertexAttribPointer(1, 2, GL2.GL_BYTE, false, VertexQuantizer.COMPACT_STRIDE, VertexQuantizer.NORMAL_OFFSET);
+        } else {
+            // Vertex Buffer: Enthält Positionen und Normalen
+            GpuResourceManager.bufferData(gl, vbo, GL2.GL_ARRAY_BUFFER, (long) vertices.length * 4,
+                    FloatBuffer.wrap(vertices), GL2.GL_STATIC_DRAW);
+
+            // Attribut 0: Position (3 Floats)
+            gl.glEnableVertexAttribArray(0);
+            gl.glVertexAttribPointer(0, 3, GL2.GL_FLOAT, false, 6 * 4, 0);
+
+            // Attribut 1: Normale (3 Floats), Offset 12 Bytes (3*4)
+            gl.glEnableVertexAttribArray(1);
+            gl.glVertexAttribPointer(1, 3, GL2.GL_FLOAT, false, 6 * 4, 3 * 4);
+        }
+
+        // Element Buffer: Enthält die Indizes für DrawElements (16 Bit, falls möglich)
+        // (Bindung bei gebundenem VAO, damit sie Teil des VAO-Zustands wird)
+        if (compact && VertexQuantizer.fitsShortIndices(getVertexCount())) {
+            indexType = GL2.GL_UNSIGNED_SHORT;
+            ShortBuffer data = VertexQuantizer.encodeShortIndices(indices);
+            GpuResourceManager.bufferData(gl, ebo, GL2.GL_ELEMENT_ARRAY_BUFFER, (long) indices.length * 2, data, GL2.GL_STATIC_DRAW);
+        } else {
+            indexType = GL2.GL_UNSIGNED_INT;
+            GpuResourceManager.bufferData(gl, ebo, GL2.GL_ELEMENT_ARRAY_BUFFER, (long) indices.length * 4,
+                    IntBuffer.wrap(indices), GL2.GL_STATIC_DRAW);
+        }
+
+        gl.glBindVertexArray(0);
+    }
+
+    /**
+     * Prüft, ob die GPU-Puffer im aktuellen GL-Kontext vorhanden sind.
+     */
+    private boolean isUploaded() {
+        return vao != null && gpuGeneration == GpuResourceManager.generation();
+    }
+
+    /**
+     * Belegter Grafikspeicher dieses Meshes inklusive Detailstufen in Bytes.
+     */
+    public long getGpuMemoryBytes() {
+        long bytes = 0;
+        GpuResourceManager.Handle vertexBuffer = vbo, indexBuffer = ebo;
+        if (isUploaded() && vertexBuffer != null && indexBuffer != null) {
+            bytes += vertexBuffer.bytes() + indexBuffer.bytes();
+        }
+        for (LodLevel level : lodLevels) {
+            bytes += level.mesh().getGpuMemoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Merkt die GPU-Puffer (inkl. Detailstufen) beim {@link GpuResourceManager} zum Löschen vor.
+     * Wird von {@link GpuResourceManager#processPending} im Render-Thread aufgerufen, damit kein
+     * gleichzeitiger Upload im selben Frame neue Handles anlegt.
+     */
+    void disposeGpu() {
+        for (LodLevel level : lodLevels) {
+            level.mesh().disposeGpu();
+        }
+        if (vao == null) return;
+        GpuResourceManager.delete(vao);
+        GpuResourceManager.delete(vbo);
+        GpuResourceManager.delete(ebo);
+        vao = vbo = ebo = null;
+    }
+}
@@ -0,0 +1,255 @@
+package kitchenmaker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Festplatten-Cache für bereits aufbereitete Meshes im kompakten Binärformat (.kmesh).
+ * <p>
+ * Schlüssel ist ein SHA-256-Hash über den Inhalt der OBJ-Quelle. Bei einem Treffer wird die
+ * .kmesh-Datei per {@link FileChannel#map} direkt als Direct-Buffer eingeblendet und per Bulk-Kopie
+ * übernommen – es findet kein Text-Parsing, kein Vertex Welding und keine Bounding-Box-Berechnung statt.
+ * Die Gesamtgröße des Caches ist begrenzt; bei Überschreitung werden die am längsten nicht
+ * verwendeten Dateien gelöscht (LRU über den Änderungszeitstempel, der bei jedem Treffer erneuert wird).
+ * <p>
+ * Dateiformat (Little Endian):
+ * <pre>
+ * int   magic ('KMSH'), int version
+ * int   vertexCount, int indexCount, int sourceVertexCount
+ * float minX, minY, minZ, maxX, maxY, maxZ
+ * float vertices[vertexCount * 6]   (Interleaved: x,y,z, nx,ny,nz)
+ * int   indices[indexCount]
+ * </pre>
+ * Konfiguration über System-Properties: {@code kitchenmaker.meshcache} (true/false),
+ * {@code kitchenmaker.meshcache.dir} und {@code kitchenmaker.meshcache.maxMB}.
+ */
+public class MeshCache {
+
+    private static final int MAGIC = 0x48534D4B; // "KMSH" als Little-Endian-int
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 5 * 4 + 6 * 4;
+    private static final String EXTENSION = ".kmesh";
+
+    // Größe der Teilbereiche beim Hashen und Schreiben
+    private static final int HASH_SEGMENT = 16 * 1024 * 1024;
+    private static final int WRITE_BUFFER = 1024 * 1024;
+
+    private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.meshcache"));
+    private static final Path DIRECTORY = Paths.get(System.getProperty("kitchenmaker.meshcache.dir",
+            Paths.get(System.getProperty("user.home"), ".kitchenmaker", "meshcache").toString()));
+    private static final long MAX_BYTES = Long.getLong("kitchenmaker.meshcache.maxMB", 512) * 1024 * 1024;
+
+    private MeshCache() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Berechnet den Cache-Schlüssel für eine OBJ-Datei (Hash über den eingeblendeten Dateiinhalt).
+     * Der Hash dient auch als Schlüssel in der {@link MeshRegistry}.
+     */
+    public static String keyOf(File file) throws IOException {
+        return keyOf(file, ImportProgress.NONE);
+    }
+
+    /**
+     * Wie {@link #keyOf(File)}, meldet dabei aber die gehashten Bytes als Fortschritt.
+     */
+    public static String keyOf(File file, ImportProgress progress) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += HASH_SEGMENT) {
+                long length = Math.min(HASH_SEGMENT, size - position);
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+                progress.advance(length);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Berechnet den Cache-Schlüssel für bereits im Speicher liegende OBJ-Daten (z.B. Ressourcen).
+     */
+    public static String keyOf(byte[] content) {
+        MessageDigest digest = newDigest();
+        digest.update(content);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Formatversion fließt in den Schlüssel ein, damit alte Einträge nach Änderungen nicht mehr passen
+            digest.update((byte) FORMAT_VERSION);
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Lädt ein Mesh aus dem Cache.
+     * @return das Mesh oder null bei Cache-Miss, deaktiviertem Cache oder beschädigtem Eintrag
+     */
+    public static Mesh load(String key) {
+        if (!ENABLED || key == null) return null;
+        Path path = DIRECTORY.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(path)) return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapped.remaining() < HEADER_BYTES || mapped.getInt() != MAGIC || mapped.getInt() != FORMAT_VERSION) {
+                throw new IOException("Ungültiger Cache-Eintrag: " + path);
+            }
+            int vertexCount = mapped.getInt();
+            int indexCount = mapped.getInt();
+            int sourceVertexCount = mapped.getInt();
+            Vec3 boundsMin = new Vec3(mapped.getFloat(), mapped.getFloat(), mapped.getFloat());
+            Vec3 boundsMax = new Vec3(mapped.getFloat(), mapped.getFloat(), mapped.getFloat());
+
+            long expected = HEADER_BYTES + (long) vertexCount * 6 * 4 + (long) indexCount * 4;
+            if (vertexCount < 0 || indexCount < 0 || expected != channel.size()) {
+                throw new IOException("Unvollständiger Cache-Eintrag: " + path);
+            }
+
+            float[] vertices = new float[vertexCount * 6];
+            mapped.asFloatBuffer().get(vertices);
+            mapped.position(mapped.position() + vertices.length * 4);
+            int[] indices = new int[indexCount];
+            mapped.asIntBuffer().get(indices);
+
+            // Zugriffszeit für die LRU-Verdrängung erneuern
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+
+            return new Mesh(vertices, indices, sourceVertexCount, boundsMin, boundsMax);
+        } catch (IOException e) {
+            System.err.println("Warnung: Mesh-Cache-Eintrag konnte nicht gelesen werden: " + e.getMessage());
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Datei evtl. noch eingeblendet (Windows) – wird beim nächsten Schreiben überschrieben
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Legt ein Mesh im Cache ab und verdrängt danach bei Bedarf alte Einträge.
+     * Fehler werden nur protokolliert – der Cache ist rein optional.
+     */
+    public static synchronized void store(String key, Mesh mesh) {
+        if (!ENABLED || key == null || mesh == null) return;
+        try {
+            Files.createDirectories(DIRECTORY);
+            Path target = DIRECTORY.resolve(key + EXTENSION);
+            Path temp = Files.createTempFile(DIRECTORY, key, ".tmp");
+
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    write(channel, mesh);
+                }
+                // Erst nach vollständigem Schreiben sichtbar machen
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            evict();
+        } catch (IOException e) {
+            System.err.println("Warnung: Mesh konnte nicht im Cache gespeichert werden: " + e.getMessage());
+        }
+    }
+
+    private static void write(FileChannel channel, Mesh mesh) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION);
+        buffer.putInt(mesh.vertices.length / 6).putInt(mesh.indices.length).putInt(mesh.getSourceVertexCount());
+        buffer.putFloat(mesh.boundingBoxMin.x).putFloat(mesh.boundingBoxMin.y).putFloat(mesh.boundingBoxMin.z);
+        buffer.putFloat(mesh.boundingBoxMax.x).putFloat(mesh.boundingBoxMax.y).putFloat(mesh.boundingBoxMax.z);
+
+        // Vertex- und Indexdaten blockweise über den Puffer auf die Platte schreiben
+        for (int i = 0; i < mesh.vertices.length; ) {
+            FloatBuffer floats = buffer.asFloatBuffer();
+            int n = Math.min(floats.remaining(), mesh.vertices.length - i);
+            floats.put(mesh.vertices, i, n);
+            buffer.position(buffer.position() + n * 4);
+            i += n;
+            if (!buffer.hasRemaining() || i == mesh.vertices.length) flush(channel, buffer);
+        }
+        for (int i = 0; i < mesh.indices.length; ) {
+            IntBuffer ints = buffer.asIntBuffer();
+            int n = Math.min(ints.remaining(), mesh.indices.length - i);
+            ints.put(mesh.indices, i, n);
+            buffer.position(buffer.position() + n * 4);
+            i += n;
+            if (!buffer.hasRemaining() || i == mesh.indices.length) flush(channel, buffer);
+        }
+        flush(channel, buffer);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Löscht die am längsten nicht verwendeten Einträge, bis die Maximalgröße eingehalten wird.
+     */
+    private static void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            files.filter(p -> p.getFileName().toString().endsWith(EXTENSION)).forEach(entries::add);
+        }
+
+        long total = 0;
+        List<FileTime> times = new ArrayList<>();
+        List<Long> sizes = new ArrayList<>();
+        for (Path entry : entries) {
+            times.add(Files.getLastModifiedTime(entry));
+            long size = Files.size(entry);
+            sizes.add(size);
+            total += size;
+        }
+        if (total <= MAX_BYTES) return;
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) order.add(i);
+        order.sort(Comparator.comparing(times::get));
+
+        for (int i : order) {
+            if (total <= MAX_BYTES) break;
+            try {
+                Files.deleteIfExists(entries.get(i));
+                total -= sizes.get(i);
+            } catch (IOException e) {
+                // Eintrag wird gerade verwendet – beim nächsten Mal erneut versuchen
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+
+/**
+ * Nachbearbeitung indizierter Meshes für effizienteres GPU-Rendering.
+ * <p>
+ * {@link #optimizeVertexCache} sortiert die Dreiecke so um, dass aufeinanderfolgende Dreiecke möglichst
+ * dieselben Vertices verwenden (Post-Transform-Vertex-Cache der GPU). Verwendet wird der
+ * Greedy-Algorithmus nach Tom Forsyth ("Linear-Speed Vertex Cache Optimisation").
+ * {@link #optimizeVertexFetch} ordnet anschließend die Vertices in der Reihenfolge ihrer ersten
+ * Verwendung an, damit auch die Speicherzugriffe auf den Vertex-Buffer sequentiell erfolgen.
+ */
+public class MeshOptimizer {
+
+    // Parameter des Forsyth-Algorithmus (Werte aus der Originalveröffentlichung)
+    private static final int CACHE_SIZE = 32;
+    private static final float CACHE_DECAY_POWER = 1.5f;
+    private static final float LAST_TRIANGLE_SCORE = 0.75f;
+    private static final float VALENCE_BOOST_SCALE = 2.0f;
+    private static final float VALENCE_BOOST_POWER = 0.5f;
+
+    // Vorberechnete Bewertungen, damit in der inneren Schleife kein Math.pow anfällt
+    private static final int VALENCE_TABLE_SIZE = 64;
+    private static final float[] CACHE_POSITION_SCORE = new float[CACHE_SIZE];
+    private static final float[] VALENCE_SCORE = new float[VALENCE_TABLE_SIZE];
+
+    static {
+        float scaler = 1.0f / (CACHE_SIZE - 3);
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            // Vertices des zuletzt ausgegebenen Dreiecks bewusst etwas abwerten
+            CACHE_POSITION_SCORE[i] = i < 3 ? LAST_TRIANGLE_SCORE
+                    : (float) Math.pow(1.0f - (i - 3) * scaler, CACHE_DECAY_POWER);
+        }
+        for (int i = 1; i < VALENCE_TABLE_SIZE; i++) {
+            VALENCE_SCORE[i] = VALENCE_BOOST_SCALE * (float) Math.pow(i, -VALENCE_BOOST_POWER);
+        }
+    }
+
+    private MeshOptimizer() {
+    }
+
+    /**
+     * Sortiert die Dreiecke im Index-Array für bessere Vertex-Cache-Lokalität um (in-place).
+     */
+    public static void optimizeVertexCache(int[] indices, int vertexCount) {
+        int triangleCount = indices.length / 3;
+        if (triangleCount < 2) return;
+
+        // Adjazenz Vertex -> Dreiecke im CSR-Format (Offsets + flache Liste)
+        int[] remaining = new int[vertexCount];
+        for (int index : indices) remaining[index]++;
+
+        int[] offsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) offsets[v + 1] = offsets[v] + remaining[v];
+
+        int[] adjacency = new int[indices.length];
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        for (int i = 0; i < indices.length; i++) adjacency[fill[indices[i]]++] = i / 3;
+
+        int[] cachePosition = new int[vertexCount];
+        Arrays.fill(cachePosition, -1);
+        float[] vertexScore = new float[vertexCount];
+        for (int v = 0; v < vertexCount; v++) vertexScore[v] = vertexScore(-1, remaining[v]);
+
+        int best = 0;
+        float bestScore = -Float.MAX_VALUE;
+        for (int t = 0; t < triangleCount; t++) {
+            float score = vertexScore[indices[3 * t]] + vertexScore[indices[3 * t + 1]] + vertexScore[indices[3 * t + 2]];
+            if (score > bestScore) {
+                bestScore = score;
+                best = t;
+            }
+        }
+
+        boolean[] emitted = new boolean[triangleCount];
+        int[] cache = new int[CACHE_SIZE + 3];
+        int[] newCache = new int[CACHE_SIZE + 3];
+        int cacheSize = 0;
+        int[] output = new int[indices.length];
+        int outputTriangles = 0;
+        int scanCursor = 0;
+
+        while (best >= 0) {
+            emitted[best] = true;
+            int a = indices[3 * best], b = indices[3 * best + 1], c = indices[3 * best + 2];
+            output[3 * outputTriangles] = a;
+            output[3 * outputTriangles + 1] = b;
+            output[3 * outputTriangles + 2] = c;
+            outputTriangles++;
+            remaining[a]--;
+            remaining[b]--;
+            remaining[c]--;
+
+            // Neuer Cache-Inhalt: Vertices des Dreiecks vorne, danach der alte Inhalt ohne diese
+            int newSize = 0;
+            newCache[newSize++] = a;
+            newCache[newSize++] = b;
+            newCache[newSize++] = c;
+            for (int i = 0; i < cacheSize; i++) {
+                int v = cache[i];
+                if (v != a && v != b && v != c) newCache[newSize++] = v;
+            }
+
+            for (int i = 0; i < newSize; i++) {
+                int v = newCache[i];
+                cachePosition[v] = i < CACHE_SIZE ? i : -1;
+                vertexScore[v] = vertexScore(cachePosition[v], remaining[v]);
+            }
+
+            // Nur Dreiecke an Cache-Vertices ändern ihre Bewertung – dort den Nachfolger suchen
+            best = -1;
+            bestScore = -1;
+            for (int i = 0; i < newSize; i++) {
+                int v = newCache[i];
+                for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                    int t = adjacency[k];
+                    if (emitted[t]) continue;
+                    float score = vertexScore[indices[3 * t]] + vertexScore[indices[3 * t + 1]] + vertexScore[indices[3 * t + 2]];
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = t;
+                    }
+                }
+            }
+
+            int[] swap = cache;
+            cache = newCache;
+            newCache = swap;
+            cacheSize = Math.min(newSize, CACHE_SIZE);
+
+            // Kein Nachbar mehr verfügbar: mit dem nächsten offenen Dreieck weitermachen
+            if (best < 0) {
+                while (scanCursor < triangleCount && emitted[scanCursor]) scanCursor++;
+                best = scanCursor < triangleCount ? scanCursor : -1;
+            }
+        }
+
+        System.arraycopy(output, 0, indices, 0, indices.length);
+    }
+
+    /**
+     * Bewertung eines Vertex: hoch, wenn er gerade im Cache liegt und nur noch wenige offene Dreiecke hat.
+     */
+    private static float vertexScore(int cachePosition, int remainingTriangles) {
+        if (remainingTriangles == 0) return -1.0f;
+
+        float score = cachePosition >= 0 ? CACHE_POSITION_SCORE[cachePosition] : 0.0f;
+        // Vertices mit wenigen verbleibenden Dreiecken bevorzugen, damit keine Inseln übrig bleiben
+        score += remainingTriangles < VALENCE_TABLE_SIZE ? VALENCE_SCORE[remainingTriangles]
+                : VALENCE_BOOST_SCALE * (float) Math.pow(remainingTriangles, -VALENCE_BOOST_POWER);
+        return score;
+    }
+
+    /**
+     * Ordnet die Vertices in der Reihenfolge ihrer ersten Verwendung im Index-Array neu an.
+     * Das Index-Array wird dabei angepasst, das neu sortierte Vertex-Array zurückgegeben.
+     *
+     * @param stride Anzahl Floats pro Vertex
+     */
+    public static float[] optimizeVertexFetch(float[] vertices, int[] indices, int stride) {
+        int vertexCount = vertices.length / stride;
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+
+        float[] result = new float[vertices.length];
+        int next = 0;
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            if (remap[v] < 0) {
+                remap[v] = next;
+                System.arraycopy(vertices, v * stride, result, next * stride, stride);
+                next++;
+            }
+            indices[i] = remap[v];
+        }
+        // Unreferenzierte Vertices entfallen
+        return next == vertexCount ? result : Arrays.copyOf(result, next * stride);
+    }
+}
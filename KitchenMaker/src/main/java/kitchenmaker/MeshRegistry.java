@@ -0,0 +1,94 @@
+package kitchenmaker;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zentrale Verwaltung gemeinsam genutzter {@link Mesh}-Instanzen.
+ * <p>
+ * Jedes Modell wird unter einem Schlüssel (Typname bei mitgelieferten Möbeln, Inhalts-Hash bei
+ * importierten Dateien) genau einmal geladen. Weitere Anforderungen erhöhen nur den Referenzzähler.
+ * Fällt der Zähler durch {@link #release} auf 0, wird das Mesh entfernt und seine GPU-Puffer beim
+ * nächsten Frame im Render-Thread gelöscht (siehe {@link GpuResourceManager#processPending}).
+ */
+public class MeshRegistry {
+
+    /**
+     * Lädt ein Mesh, falls es noch nicht in der Registry vorhanden ist.
+     */
+    public interface Loader {
+        Mesh load() throws IOException;
+    }
+
+    private static final ConcurrentHashMap<String, Mesh> MESHES = new ConcurrentHashMap<>();
+
+    private MeshRegistry() {
+    }
+
+    /**
+     * Liefert das Mesh zum Schlüssel und erhöht dessen Referenzzähler.
+     * Ist es noch nicht vorhanden, wird es über den Loader geladen. Das Laden findet außerhalb der Map
+     * statt, damit lange Importe andere Zugriffe nicht blockieren; laden zwei Threads gleichzeitig
+     * dasselbe Mesh, wird nur das zuerst eingetragene übernommen.
+     */
+    public static Mesh acquire(String key, Loader loader) throws IOException {
+        Mesh shared = retain(key, null);
+        if (shared != null) return shared;
+
+        Mesh loaded = loader.load();
+        if (loaded == null) throw new IOException("Mesh konnte nicht geladen werden: " + key);
+        return retain(key, loaded);
+    }
+
+    /**
+     * Erhöht den Referenzzähler des eingetragenen Meshes bzw. trägt den Kandidaten ein.
+     * @return das eingetragene Mesh oder null, falls keines vorhanden ist und kein Kandidat übergeben wurde
+     */
+    private static Mesh retain(String key, Mesh candidate) {
+        return MESHES.compute(key, (k, mesh) -> {
+            if (mesh == null) {
+                if (candidate == null) return null;
+                mesh = candidate;
+                mesh.registryKey = k;
+                // Detailstufen einmal pro eindeutigem Mesh im Hintergrund erzeugen
+                MeshSimplifier.schedule(mesh);
+            }
+            mesh.referenceCount++;
+            return mesh;
+        });
+    }
+
+    /**
+     * Gibt eine Referenz auf das Mesh zurück. Nicht registrierte Meshes (z.B. das Bodengitter)
+     * werden sofort zur Freigabe vorgemerkt.
+     */
+    public static void release(Mesh mesh) {
+        if (mesh.registryKey == null) {
+            GpuResourceManager.release(mesh);
+            return;
+        }
+        MESHES.computeIfPresent(mesh.registryKey, (k, current) -> {
+            if (current != mesh || --current.referenceCount > 0) return current;
+            GpuResourceManager.release(current);
+            return null;
+        });
+    }
+
+    /**
+     * Belegter Grafikspeicher je geladenem Mesh (Schlüssel wie bei {@link #acquire}), z.B. für Monitoring.
+     */
+    public static Map<String, Long> getGpuMemoryByKey() {
+        Map<String, Long> usage = new TreeMap<>();
+        MESHES.forEach((key, mesh) -> usage.put(key, mesh.getGpuMemoryBytes()));
+        return usage;
+    }
+
+    /**
+     * Anzahl der aktuell geladenen, gemeinsam genutzten Meshes.
+     */
+    public static int size() {
+        return MESHES.size();
+    }
+}
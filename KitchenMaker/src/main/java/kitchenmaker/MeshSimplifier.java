@@ -0,0 +1,237 @@
+package kitchenmaker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Erzeugt vereinfachte Detailstufen (LOD) für Meshes.
+ * <p>
+ * Verfahren: Vertex Clustering mit Quadriken (nach Lindstrom, "Out-of-Core Simplification of Large
+ * Polygonal Models", 2000). Die Bounding Box wird in ein gleichmäßiges Gitter zerlegt; alle Vertices
+ * einer Zelle verschmelzen zu einem Repräsentanten, dessen Position die Summe der Ebenen-Quadriken der
+ * angrenzenden Dreiecke minimiert. Kanten und Ecken bleiben dadurch erhalten, obwohl die Zelle sie nur
+ * grob auflöst. Innerhalb einer Zelle werden Vertices zusätzlich nach der dominanten Achse ihrer Normale
+ * getrennt, damit harte Kanten (z.B. an Gehäusen) nicht weichgezeichnet werden. Dreiecke, deren Ecken in
+ * weniger als drei verschiedenen Zellen liegen, entfallen.
+ * <p>
+ * Die Stufen werden einmal pro Mesh im Hintergrund berechnet ({@link #schedule}); die Auswahl zur
+ * Laufzeit erfolgt über {@link Mesh#selectLod}.
+ */
+public class MeshSimplifier {
+
+    /** LOD-Erzeugung aktivieren (abschaltbar über -Dkitchenmaker.lod=false). */
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.lod"));
+
+    // Gitterauflösungen (Zellen entlang der längsten Achse), von fein nach grob
+    private static final int[] GRID_RESOLUTIONS = {64, 24, 10};
+
+    // Meshes mit weniger Dreiecken lohnen keine Vereinfachung
+    private static final int MIN_TRIANGLES = 2000;
+
+    // Eine Stufe wird nur übernommen, wenn sie höchstens diesen Anteil der Dreiecke der vorherigen hat
+    private static final float MAX_TRIANGLE_RATIO = 0.6f;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lod-builder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private MeshSimplifier() {
+    }
+
+    /**
+     * Berechnet die Detailstufen des Meshes im Hintergrund und hinterlegt sie anschließend am Mesh.
+     */
+    public static void schedule(Mesh mesh) {
+        if (!ENABLED || mesh.indices.length / 3 < MIN_TRIANGLES) return;
+        EXECUTOR.execute(() -> mesh.setLodLevels(buildLevels(mesh)));
+    }
+
+    /**
+     * Berechnet alle lohnenden Detailstufen, sortiert von fein nach grob.
+     */
+    public static Mesh.LodLevel[] buildLevels(Mesh mesh) {
+        List<Mesh.LodLevel> levels = new ArrayList<>();
+        int previousTriangles = mesh.indices.length / 3;
+        for (int resolution : GRID_RESOLUTIONS) {
+            Mesh simplified = simplify(mesh, resolution);
+            if (simplified == null) break;
+            int triangles = simplified.indices.length / 3;
+            if (triangles > previousTriangles * MAX_TRIANGLE_RATIO) continue;
+            levels.add(new Mesh.LodLevel(simplified, resolution));
+            previousTriangles = triangles;
+        }
+        return levels.toArray(new Mesh.LodLevel[0]);
+    }
+
+    /**
+     * Vereinfacht ein Mesh auf ein Gitter mit der angegebenen Anzahl Zellen entlang der längsten Achse.
+     * @return das vereinfachte Mesh oder null, falls keine Dreiecke übrig bleiben
+     */
+    public static Mesh simplify(Mesh mesh, int resolution) {
+        float[] v = mesh.vertices;
+        int[] indices = mesh.indices;
+        int vertexCount = mesh.getVertexCount();
+
+        Vec3 min = mesh.boundingBoxMin, max = mesh.boundingBoxMax;
+        float extent = Math.max(max.x - min.x, Math.max(max.y - min.y, max.z - min.z));
+        if (extent <= 0) return null;
+        float cellSize = extent / resolution;
+        float inverseCell = 1.0f / cellSize;
+
+        // Zuordnung Vertex -> Zelle (fortlaufend nummeriert)
+        LongIntHashMap cellLookup = new LongIntHashMap(Math.max(16, vertexCount / 4));
+        int[] cellOf = new int[vertexCount];
+        int cellCount = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            long ix = Math.min(resolution, (long) ((v[i * 6] - min.x) * inverseCell));
+            long iy = Math.min(resolution, (long) ((v[i * 6 + 1] - min.y) * inverseCell));
+            long iz = Math.min(resolution, (long) ((v[i * 6 + 2] - min.z) * inverseCell));
+            long key = (ix << 42) | (iy << 21) | iz;
+            int cell = cellLookup.putIfAbsent(key, cellCount);
+            cellOf[i] = cell < 0 ? cellCount++ : cell;
+        }
+
+        // Quadriken pro Zelle: a11 a12 a13 a22 a23 a33 b1 b2 b3 (Q(x) = xᵀAx + 2bᵀx + c)
+        double[] quadrics = new double[cellCount * 9];
+        double[] sums = new double[cellCount * 3];
+        int[] counts = new int[cellCount];
+        for (int i = 0; i < vertexCount; i++) {
+            int c = cellOf[i];
+            sums[c * 3] += v[i * 6];
+            sums[c * 3 + 1] += v[i * 6 + 1];
+            sums[c * 3 + 2] += v[i * 6 + 2];
+            counts[c]++;
+        }
+        for (int t = 0; t < indices.length; t += 3) {
+            int a = indices[t] * 6, b = indices[t + 1] * 6, c = indices[t + 2] * 6;
+            double ux = v[b] - v[a], uy = v[b + 1] - v[a + 1], uz = v[b + 2] - v[a + 2];
+            double wx = v[c] - v[a], wy = v[c + 1] - v[a + 1], wz = v[c + 2] - v[a + 2];
+            double nx = uy * wz - uz * wy, ny = uz * wx - ux * wz, nz = ux * wy - uy * wx;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0) continue;
+            // Gewichtung mit der Dreiecksfläche (|n| / 2), Ebene mit Einheitsnormale
+            double area = length * 0.5;
+            nx /= length;
+            ny /= length;
+            nz /= length;
+            double d = -(nx * v[a] + ny * v[a + 1] + nz * v[a + 2]);
+            for (int k = 0; k < 3; k++) {
+                int q = cellOf[indices[t + k]] * 9;
+                quadrics[q] += area * nx * nx;
+                quadrics[q + 1] += area * nx * ny;
+                quadrics[q + 2] += area * nx * nz;
+                quadrics[q + 3] += area * ny * ny;
+                quadrics[q + 4] += area * ny * nz;
+                quadrics[q + 5] += area * nz * nz;
+                quadrics[q + 6] += area * d * nx;
+                quadrics[q + 7] += area * d * ny;
+                quadrics[q + 8] += area * d * nz;
+            }
+        }
+
+        float[] representatives = new float[cellCount * 3];
+        for (int c = 0; c < cellCount; c++) {
+            solveRepresentative(quadrics, sums, counts[c], c, cellSize, representatives);
+        }
+
+        // Ausgabe-Vertices: (Zelle, Normalenrichtung) -> neuer Index
+        LongIntHashMap vertexLookup = new LongIntHashMap(Math.max(16, cellCount * 2));
+        int[] remap = new int[vertexCount];
+        FloatList output = new FloatList(cellCount * 6 * 2);
+        int outputCount = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            long key = ((long) cellOf[i] << 3) | normalBucket(v[i * 6 + 3], v[i * 6 + 4], v[i * 6 + 5]);
+            int index = vertexLookup.putIfAbsent(key, outputCount);
+            if (index < 0) {
+                index = outputCount++;
+                int c = cellOf[i];
+                output.add(representatives[c * 3], representatives[c * 3 + 1], representatives[c * 3 + 2]);
+                output.add(0f, 0f, 0f);
+            }
+            // Normalen der verschmolzenen Vertices aufsummieren
+            float[] out = output.array();
+            out[index * 6 + 3] += v[i * 6 + 3];
+            out[index * 6 + 4] += v[i * 6 + 4];
+            out[index * 6 + 5] += v[i * 6 + 5];
+            remap[i] = index;
+        }
+
+        float[] vertices = output.toArray();
+        for (int i = 0; i < outputCount; i++) {
+            float nx = vertices[i * 6 + 3], ny = vertices[i * 6 + 4], nz = vertices[i * 6 + 5];
+            float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length > 0) {
+                vertices[i * 6 + 3] = nx / length;
+                vertices[i * 6 + 4] = ny / length;
+                vertices[i * 6 + 5] = nz / length;
+            } else {
+                // Default Up-Vektor als Fallback
+                vertices[i * 6 + 4] = 1f;
+            }
+        }
+
+        // Dreiecke übernehmen, deren Ecken in drei verschiedenen Zellen liegen
+        IntList triangles = new IntList(indices.length / 2);
+        for (int t = 0; t < indices.length; t += 3) {
+            int a = indices[t], b = indices[t + 1], c = indices[t + 2];
+            if (cellOf[a] == cellOf[b] || cellOf[b] == cellOf[c] || cellOf[a] == cellOf[c]) continue;
+            triangles.add(remap[a]);
+            triangles.add(remap[b]);
+            triangles.add(remap[c]);
+        }
+        if (triangles.size() == 0) return null;
+
+        int[] newIndices = triangles.toArray();
+        MeshOptimizer.optimizeVertexCache(newIndices, outputCount);
+        float[] newVertices = MeshOptimizer.optimizeVertexFetch(vertices, newIndices, 6);
+        return new Mesh(newVertices, newIndices);
+    }
+
+    /**
+     * Bestimmt den Punkt mit minimalem Quadrikenfehler (A x = -b). Ist das System schlecht
+     * konditioniert (z.B. nur eine Ebene in der Zelle) oder liegt die Lösung außerhalb der Umgebung
+     * der Zelle, wird der Schwerpunkt der Zellvertices verwendet.
+     */
+    private static void solveRepresentative(double[] q, double[] sums, int count, int cell, float cellSize, float[] out) {
+        int o = cell * 9;
+        double a11 = q[o], a12 = q[o + 1], a13 = q[o + 2], a22 = q[o + 3], a23 = q[o + 4], a33 = q[o + 5];
+        double b1 = -q[o + 6], b2 = -q[o + 7], b3 = -q[o + 8];
+
+        double mx = sums[cell * 3] / count, my = sums[cell * 3 + 1] / count, mz = sums[cell * 3 + 2] / count;
+        double x = mx, y = my, z = mz;
+
+        double c11 = a22 * a33 - a23 * a23, c12 = a13 * a23 - a12 * a33, c13 = a12 * a23 - a13 * a22;
+        double det = a11 * c11 + a12 * c12 + a13 * c13;
+        double trace = a11 + a22 + a33;
+        if (trace > 0 && Math.abs(det) > 1e-3 * trace * trace * trace / 27.0) {
+            double c22 = a11 * a33 - a13 * a13, c23 = a12 * a13 - a11 * a23, c33 = a11 * a22 - a12 * a12;
+            double sx = (c11 * b1 + c12 * b2 + c13 * b3) / det;
+            double sy = (c12 * b1 + c22 * b2 + c23 * b3) / det;
+            double sz = (c13 * b1 + c23 * b2 + c33 * b3) / det;
+            double limit = cellSize;
+            if (Math.abs(sx - mx) <= limit && Math.abs(sy - my) <= limit && Math.abs(sz - mz) <= limit) {
+                x = sx;
+                y = sy;
+                z = sz;
+            }
+        }
+        out[cell * 3] = (float) x;
+        out[cell * 3 + 1] = (float) y;
+        out[cell * 3 + 2] = (float) z;
+    }
+
+    /**
+     * Ordnet eine Normale einer von sechs Richtungen zu (dominante Achse mit Vorzeichen).
+     */
+    private static int normalBucket(float nx, float ny, float nz) {
+        float ax = Math.abs(nx), ay = Math.abs(ny), az = Math.abs(nz);
+        if (ax >= ay && ax >= az) return nx >= 0 ? 0 : 1;
+        if (ay >= az) return ny >= 0 ? 2 : 3;
+        return nz >= 0 ? 4 : 5;
+    }
+}
@@ -0,0 +1,85 @@
+package kitchenmaker;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Führt OBJ-Importe im Hintergrund aus, damit UI und Render-Loop während des Parsens flüssig bleiben.
+ * <p>
+ * Jeder Import läuft auf einem eigenen Daemon-Thread (mehrere Importe gleichzeitig sind möglich).
+ * Parsen, Vertex Welding, Mesh-Optimierung und Bounding Box entstehen komplett im Hintergrund; nur
+ * das fertige Mesh wird per {@link SwingUtilities#invokeLater} an den Event-Dispatch-Thread übergeben, der
+ * daraus das {@link SceneData.Object3D} erzeugt.
+ */
+public class ObjImportService {
+
+    /**
+     * Laufender Import: Fortschritt abfragen und abbrechen.
+     */
+    public static class ImportJob {
+        private final File file;
+        private final ImportProgress progress;
+        private Future<?> future;
+
+        ImportJob(File file) {
+            this.file = file;
+            // Hash- und Parse-Durchlauf (siehe ImportProgress)
+            this.progress = new ImportProgress(2 * file.length());
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public ImportProgress getProgress() {
+            return progress;
+        }
+
+        /**
+         * Bricht den Import ab. Das Ergebnis wird verworfen, der Fehler-Callback nicht aufgerufen.
+         */
+        public void cancel() {
+            progress.cancel();
+            if (future != null) future.cancel(true);
+        }
+    }
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "obj-import-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Startet den Import einer Datei. Beide Callbacks werden im Event-Dispatch-Thread aufgerufen;
+     * bei einem Abbruch wird keiner von beiden aufgerufen.
+     */
+    public ImportJob submit(File file, Consumer<SceneData.Object3D> onSuccess, Consumer<Exception> onFailure) {
+        ImportJob job = new ImportJob(file);
+        job.future = executor.submit(() -> {
+            try {
+                Mesh mesh = SceneData.loadObjMesh(file, job.progress);
+                SwingUtilities.invokeLater(() -> {
+                    if (job.progress.isCancelled()) {
+                        MeshRegistry.release(mesh); // Abbruch nach Fertigstellung: Mesh-Referenz zurückgeben
+                    } else {
+                        // Objekte (und ihre Slots im TransformStore) entstehen nur im EDT
+                        onSuccess.accept(new SceneData.Object3D(file.getName(), mesh));
+                    }
+                });
+            } catch (InterruptedIOException e) {
+                // Abgebrochen – nichts zu tun
+            } catch (Exception e) {
+                if (!job.progress.isCancelled()) SwingUtilities.invokeLater(() -> onFailure.accept(e));
+            }
+        });
+        return job;
+    }
+}
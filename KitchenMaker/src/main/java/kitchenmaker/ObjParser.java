@@ -0,0 +1,400 @@
+package kitchenmaker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming-Parser für Wavefront-OBJ-Dateien.
+ * <p>
+ * Die Datei wird blockweise in einen wiederverwendeten Byte-Puffer gelesen und direkt auf
+ * Byte-Ebene zerlegt. Zahlen werden ohne Umweg über {@code String} eingelesen und in primitiven,
+ * wachsenden Puffern ({@link FloatList}, {@link IntList}) abgelegt. Pro Zeile entstehen dadurch
+ * keine Objekte – der Garbage Collector bleibt auch bei sehr großen Dateien ruhig.
+ * <p>
+ * Unterstützt werden Vertices (v), Vertex-Normalen (vn) und Faces (f) inklusive negativer
+ * (relativer) Indizes. Polygone mit mehr als drei Ecken werden als Triangle Fan trianguliert.
+ * Alle anderen Tags (vt, o, g, s, usemtl, ...) werden übersprungen.
+ */
+public class ObjParser {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    // Exakt darstellbare Zehnerpotenzen für die Gleitkomma-Konvertierung
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Rohdaten aus der Datei (x,y,z bzw. nx,ny,nz)
+    final FloatList positions = new FloatList(3 * 4096);
+    final FloatList normals = new FloatList(3 * 4096);
+
+    // Dreiecksecken als Paare (Positionsindex, Normalenindex), 0-basiert; -1 = keine Normale
+    final IntList corners = new IntList(2 * 3 * 4096);
+
+    // Stellen in corners, die aus negativen (relativen) Indizes stammen. Beim Zusammenführen
+    // parallel gelesener Teilstücke muss dort der Versatz der vorherigen Teilstücke addiert werden.
+    final IntList relativePositionRefs = new IntList(16);
+    final IntList relativeNormalRefs = new IntList(16);
+
+    /**
+     * Datenquelle für das blockweise Lesen (InputStream oder gemappter Speicherbereich).
+     */
+    private interface ByteSource {
+        int read(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    // Leseposition innerhalb der aktuellen Zeile
+    private int cursor;
+
+    /**
+     * Liest einen kompletten OBJ-Datenstrom und erzeugt daraus ein indiziertes Mesh.
+     */
+    public static Mesh parse(InputStream in) throws IOException {
+        ObjParser parser = new ObjParser();
+        parser.read(in);
+        return parser.build();
+    }
+
+    /**
+     * Liest den Datenstrom blockweise und verarbeitet jeweils alle vollständigen Zeilen.
+     * Eine angebrochene Zeile am Blockende wird an den Pufferanfang verschoben.
+     */
+    void read(InputStream in) throws IOException {
+        read((ByteSource) in::read);
+    }
+
+    /**
+     * Liest alle verbleibenden Bytes eines (z.B. per {@code FileChannel.map} eingeblendeten) Puffers.
+     */
+    void read(ByteBuffer source) throws IOException {
+        read((buffer, offset, length) -> {
+            if (!source.hasRemaining()) return -1;
+            int n = Math.min(length, source.remaining());
+            source.get(buffer, offset, n);
+            return n;
+        });
+    }
+
+    private void read(ByteSource in) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        int filled = 0;
+
+        while (true) {
+            int n = in.read(buffer, filled, buffer.length - filled);
+            if (n < 0) {
+                // Letzte Zeile ohne abschließenden Zeilenumbruch
+                if (filled > 0) parseLines(buffer, 0, filled);
+                return;
+            }
+            filled += n;
+
+            int lastNewline = filled - 1;
+            while (lastNewline >= 0 && buffer[lastNewline] != '\n') lastNewline--;
+
+            if (lastNewline < 0) {
+                // Zeile länger als der Puffer: Puffer vergrößern
+                if (filled == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+
+            parseLines(buffer, 0, lastNewline + 1);
+            int remaining = filled - lastNewline - 1;
+            System.arraycopy(buffer, lastNewline + 1, buffer, 0, remaining);
+            filled = remaining;
+        }
+    }
+
+    /**
+     * Verarbeitet alle Zeilen im Bereich [start, end) des Puffers.
+     */
+    void parseLines(byte[] b, int start, int end) throws IOException {
+        int i = start;
+        while (i < end) {
+            int lineEnd = i;
+            while (lineEnd < end && b[lineEnd] != '\n') lineEnd++;
+            parseLine(b, i, lineEnd);
+            i = lineEnd + 1;
+        }
+    }
+
+    private void parseLine(byte[] b, int start, int end) throws IOException {
+        int i = skipSpaces(b, start, end);
+        if (i + 1 >= end) return;
+
+        byte c0 = b[i], c1 = b[i + 1];
+        if (c0 == 'v') {
+            if (isSpace(c1)) {
+                // Vertex-Position
+                cursor = i + 2;
+                float x = readFloat(b, end), y = readFloat(b, end), z = readFloat(b, end);
+                positions.add(x, y, z);
+            } else if (c1 == 'n' && i + 2 < end && isSpace(b[i + 2])) {
+                // Vertex-Normale
+                cursor = i + 3;
+                float x = readFloat(b, end), y = readFloat(b, end), z = readFloat(b, end);
+                normals.add(x, y, z);
+            }
+        } else if (c0 == 'f' && isSpace(c1)) {
+            parseFace(b, i + 2, end);
+        }
+    }
+
+    /**
+     * Zerlegt eine Face-Zeile (v, v/vt, v//vn oder v/vt/vn) und trianguliert sie direkt als Fan,
+     * ohne die Eckpunkte zwischenzuspeichern.
+     */
+    private void parseFace(byte[] b, int start, int end) throws IOException {
+        int count = 0;
+        int firstV = 0, firstN = 0, prevV = 0, prevN = 0;
+        int firstRelative = 0, prevRelative = 0;
+        int i = start;
+
+        while (true) {
+            i = skipSpaces(b, i, end);
+            if (i >= end || b[i] == '#') break;
+
+            cursor = i;
+            int v = readIndex(b, end);
+            if (v == 0) throw new IOException("Ungültiger Face-Eintrag in OBJ-Datei");
+
+            int n = 0;
+            if (cursor < end && b[cursor] == '/') {
+                cursor++;
+                readIndex(b, end); // Texturkoordinate wird ignoriert
+                if (cursor < end && b[cursor] == '/') {
+                    cursor++;
+                    n = readIndex(b, end);
+                }
+            }
+
+            // Rest des Tokens überspringen
+            i = cursor;
+            while (i < end && !isSpace(b[i])) i++;
+
+            // OBJ ist 1-basiert, negative Indizes zählen vom Ende der bisher gelesenen Daten
+            int vi = v > 0 ? v - 1 : positions.size() / 3 + v;
+            int ni = n == 0 ? -1 : (n > 0 ? n - 1 : normals.size() / 3 + n);
+            int relative = (v < 0 ? 1 : 0) | (n < 0 ? 2 : 0);
+
+            if (count == 0) {
+                firstV = vi;
+                firstN = ni;
+                firstRelative = relative;
+            } else if (count >= 2) {
+                addCorner(firstV, firstN, firstRelative);
+                addCorner(prevV, prevN, prevRelative);
+                addCorner(vi, ni, relative);
+            }
+            prevV = vi;
+            prevN = ni;
+            prevRelative = relative;
+            count++;
+        }
+    }
+
+    private void addCorner(int vi, int ni, int relative) {
+        if ((relative & 1) != 0) relativePositionRefs.add(corners.size());
+        if ((relative & 2) != 0) relativeNormalRefs.add(corners.size() + 1);
+        corners.add(vi, ni);
+    }
+
+    /**
+     * Führt die Ergebnisse mehrerer, in Dateireihenfolge vorliegender Teilstücke zusammen.
+     * Absolute OBJ-Indizes sind bereits global gültig; relative Indizes wurden nur gegen die
+     * Daten des eigenen Teilstücks aufgelöst und werden hier um dessen globalen Versatz korrigiert.
+     */
+    static ObjParser merge(ObjParser[] parts) {
+        ObjParser merged = new ObjParser();
+        int positionBase = 0, normalBase = 0;
+
+        for (ObjParser part : parts) {
+            int cornerBase = merged.corners.size();
+            merged.positions.addAll(part.positions.array(), 0, part.positions.size());
+            merged.normals.addAll(part.normals.array(), 0, part.normals.size());
+            merged.corners.addAll(part.corners.array(), 0, part.corners.size());
+
+            int[] c = merged.corners.array();
+            for (int k = 0; k < part.relativePositionRefs.size(); k++) {
+                c[cornerBase + part.relativePositionRefs.get(k)] += positionBase;
+            }
+            for (int k = 0; k < part.relativeNormalRefs.size(); k++) {
+                c[cornerBase + part.relativeNormalRefs.get(k)] += normalBase;
+            }
+
+            positionBase += part.positions.size() / 3;
+            normalBase += part.normals.size() / 3;
+        }
+        return merged;
+    }
+
+    /**
+     * Liest eine ganze Zahl ab der aktuellen Cursor-Position.
+     * Gibt 0 zurück, falls an dieser Stelle keine Ziffer steht (0 ist in OBJ kein gültiger Index).
+     */
+    private int readIndex(byte[] b, int end) {
+        int i = cursor;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        int value = 0;
+        while (i < end && b[i] >= '0' && b[i] <= '9') {
+            value = value * 10 + (b[i] - '0');
+            i++;
+        }
+        cursor = i;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Liest eine Gleitkommazahl (mit optionalem Vorzeichen, Nachkommastellen und Exponent)
+     * ab der aktuellen Cursor-Position. Die Mantisse wird als long akkumuliert und anschließend
+     * mit einer exakten Zehnerpotenz skaliert.
+     */
+    private float readFloat(byte[] b, int end) throws IOException {
+        int i = skipSpaces(b, cursor, end);
+
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int significantDigits = 0;
+        boolean anyDigit = false;
+
+        // Vorkommastellen (über 18 Stellen hinaus nur noch Größenordnung mitzählen)
+        while (i < end && b[i] >= '0' && b[i] <= '9') {
+            anyDigit = true;
+            if (significantDigits < 18) {
+                mantissa = mantissa * 10 + (b[i] - '0');
+                if (mantissa != 0) significantDigits++;
+            } else {
+                exponent++;
+            }
+            i++;
+        }
+
+        // Nachkommastellen
+        if (i < end && b[i] == '.') {
+            i++;
+            while (i < end && b[i] >= '0' && b[i] <= '9') {
+                anyDigit = true;
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (b[i] - '0');
+                    if (mantissa != 0) significantDigits++;
+                    exponent--;
+                }
+                i++;
+            }
+        }
+
+        if (!anyDigit) throw new IOException("Ungültiger Zahlenwert in OBJ-Datei");
+
+        // Exponent (z.B. 1.5e-3)
+        if (i < end && (b[i] == 'e' || b[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (b[i] == '-' || b[i] == '+')) {
+                negativeExponent = b[i] == '-';
+                i++;
+            }
+            int e = 0;
+            while (i < end && b[i] >= '0' && b[i] <= '9') {
+                if (e < 1000) e = e * 10 + (b[i] - '0');
+                i++;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+        cursor = i;
+
+        double value = mantissa;
+        if (exponent < 0) {
+            value = -exponent < POWERS_OF_TEN.length ? value / POWERS_OF_TEN[-exponent] : value / Math.pow(10, -exponent);
+        } else if (exponent > 0) {
+            value = exponent < POWERS_OF_TEN.length ? value * POWERS_OF_TEN[exponent] : value * Math.pow(10, exponent);
+        }
+        return (float) (negative ? -value : value);
+    }
+
+    private static int skipSpaces(byte[] b, int i, int end) {
+        while (i < end && isSpace(b[i])) i++;
+        return i;
+    }
+
+    private static boolean isSpace(byte c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    /**
+     * Baut aus den gelesenen Rohdaten ein indiziertes Mesh.
+     */
+    Mesh build() throws IOException {
+        MeshPart mesh = buildPart(positions, normals, corners.array(), 0, corners.size());
+        return new Mesh(mesh.vertices(), mesh.indices(), corners.size() / 2);
+    }
+
+    /**
+     * Indiziertes Teil-Mesh (Interleaved: x,y,z, nx,ny,nz).
+     */
+    record MeshPart(float[] vertices, int[] indices) {
+    }
+
+    /**
+     * Baut aus einem Bereich der Dreiecksecken ein indiziertes Mesh (Interleaved: x,y,z, nx,ny,nz).
+     * <p>
+     * Identische (v, vn)-Paare werden über eine primitive Hash-Map zu einem gemeinsamen Vertex
+     * zusammengeführt (Vertex Welding). Anschließend werden Dreiecke und Vertices für den
+     * Vertex-Cache der GPU umsortiert (siehe {@link MeshOptimizer}). Verschiedene Bereiche können
+     * unabhängig voneinander (auch parallel) verarbeitet werden.
+     *
+     * @param from erster Eintrag in {@code corners} (gerade Zahl)
+     * @param to   Ende des Bereichs (exklusiv)
+     */
+    static MeshPart buildPart(FloatList positions, FloatList normals, int[] corners, int from, int to) throws IOException {
+        int positionCount = positions.size() / 3;
+        int normalCount = normals.size() / 3;
+        int cornerCount = (to - from) / 2;
+
+        float[] p = positions.array();
+        float[] n = normals.array();
+
+        LongIntHashMap vertexLookup = new LongIntHashMap(Math.max(16, cornerCount / 2));
+        FloatList vertexBuffer = new FloatList(Math.max(16, cornerCount) * 3);
+        int[] indices = new int[cornerCount];
+        int vertexCount = 0;
+
+        for (int k = 0; k < cornerCount; k++) {
+            int vi = corners[from + 2 * k], ni = corners[from + 2 * k + 1];
+            if (vi < 0 || vi >= positionCount) {
+                throw new IOException("Face verweist auf nicht vorhandenen Vertex " + (vi + 1));
+            }
+            if (ni < 0 || ni >= normalCount) ni = -1;
+
+            // Schlüssel: Positionsindex in den oberen, Normalenindex in den unteren 32 Bit
+            long key = ((long) vi << 32) | (ni & 0xFFFFFFFFL);
+            int index = vertexLookup.putIfAbsent(key, vertexCount);
+            if (index < 0) {
+                index = vertexCount++;
+                vertexBuffer.add(p[vi * 3], p[vi * 3 + 1], p[vi * 3 + 2]);
+                if (ni >= 0) {
+                    vertexBuffer.add(n[ni * 3], n[ni * 3 + 1], n[ni * 3 + 2]);
+                } else {
+                    // Default Up-Vektor als Fallback
+                    vertexBuffer.add(0f, 1f, 0f);
+                }
+            }
+            indices[k] = index;
+        }
+
+        MeshOptimizer.optimizeVertexCache(indices, vertexCount);
+        float[] vertices = MeshOptimizer.optimizeVertexFetch(vertexBuffer.toArray(), indices, 6);
+        return new MeshPart(vertices, indices);
+    }
+}
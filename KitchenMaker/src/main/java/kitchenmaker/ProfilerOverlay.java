@@ -0,0 +1,134 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+import com.jogamp.opengl.util.awt.TextRenderer;
+
+import java.awt.*;
+
+/**
+ * Zeichnet die Messwerte des {@link FrameProfiler} als Overlay (HUD) in die 3D-Ansicht.
+ * <p>
+ * Das Overlay wird mit OpenGL gezeichnet (Text über {@link TextRenderer}, Balken im Immediate Mode)
+ * und funktioniert daher mit beiden Viewport-Backends. Angezeigt werden CPU- und GPU-Zeit, die Zeiten
+ * der einzelnen Render-Stufen, Draw Calls, Dreiecke, Uniform-Uploads, Culling und Grafikspeicher
+ * sowie ein Histogramm der CPU-Frame-Zeiten der letzten {@value FrameProfiler#HISTORY_FRAMES} Frames.
+ */
+public class ProfilerOverlay {
+
+    // Histogramm: 0,5 ms je Klasse bis 20 ms, die letzte Klasse sammelt alle längeren Frames
+    private static final double BUCKET_MILLIS = 0.5;
+    private static final int BUCKETS = 40;
+    private static final int BAR_WIDTH = 6;
+    private static final int HISTOGRAM_HEIGHT = 60;
+
+    private static final int MARGIN = 10;
+    private static final int PADDING = 8;
+    private static final int LINE_HEIGHT = 15;
+    private static final int PANEL_WIDTH = 420;
+
+    private TextRenderer textRenderer;
+    private final int[] histogram = new int[BUCKETS];
+    private final FrameProfiler.Sample sample = new FrameProfiler.Sample();
+    private final String[] lines = new String[7];
+
+    /**
+     * Zeichnet das Overlay über das aktuelle Bild. Erwartet, dass kein Shader-Programm aktiv ist.
+     */
+    public void render(GL2 gl, int width, int height, FrameProfiler profiler) {
+        if (textRenderer == null) {
+            textRenderer = new TextRenderer(new Font(Font.MONOSPACED, Font.PLAIN, 12), true, false);
+        }
+        profiler.getLastSample(sample);
+        FrameStats cpu = profiler.getCpuStats();
+        FrameStats gpu = profiler.getGpuStats();
+
+        lines[0] = String.format("Frame %d   CPU %.2f ms (p95 %.2f)   GPU %s",
+                sample.getFrame(), cpu.getAverageMillis(), cpu.getPercentileMillis(95),
+                !profiler.isGpuTimerSupported() ? "n/v"
+                        : gpu.getCount() == 0 ? "…" : String.format("%.2f ms (p95 %.2f)", gpu.getAverageMillis(), gpu.getPercentileMillis(95)));
+        StringBuilder stages = new StringBuilder();
+        for (FrameProfiler.Stage stage : FrameProfiler.Stage.values()) {
+            if (stages.length() > 0) stages.append("  ");
+            stages.append(String.format("%s %.2f", stage, sample.getStageNanos(stage) / 1_000_000.0));
+        }
+        lines[1] = stages.toString();
+        lines[2] = String.format("Szenen-Update (UI-Thread) %.2f ms", profiler.getSceneUpdateNanos() / 1_000_000.0);
+        lines[3] = String.format("Draw Calls %d   Dreiecke %,d   Uniforms %d",
+                sample.getDrawCalls(), sample.getTriangles(), sample.getUniformUploads());
+        lines[4] = String.format("Objekte %d gezeichnet / %d verworfen / %d aus Szenen-Cache",
+                sample.getDrawnObjects(), sample.getCulledObjects(), sample.getCachedObjects());
+        lines[5] = String.format("GPU-Puffer %.1f MB (%d Puffer, %d VAOs)", GpuResourceManager.getBufferBytes() / (1024.0 * 1024.0),
+                GpuResourceManager.getBufferCount(), GpuResourceManager.getVertexArrayCount());
+        long prewarmMillis = SceneData.getCatalogPrewarmMillis();
+        lines[6] = prewarmMillis >= 0 ? String.format("Katalog vorgeladen in %d ms", prewarmMillis) : "Katalog vorgeladen: –";
+
+        int panelHeight = 2 * PADDING + lines.length * LINE_HEIGHT + PADDING + HISTOGRAM_HEIGHT;
+        int left = MARGIN;
+        int top = height - MARGIN;
+        int bottom = top - panelHeight;
+
+        // Hintergrund und Histogramm in Pixelkoordinaten (Ursprung unten links)
+        gl.glDisable(GL2.GL_DEPTH_TEST);
+        gl.glEnable(GL2.GL_BLEND);
+        gl.glBlendFunc(GL2.GL_SRC_ALPHA, GL2.GL_ONE_MINUS_SRC_ALPHA);
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glPushMatrix();
+        gl.glLoadIdentity();
+        gl.glOrtho(0, width, 0, height, -1, 1);
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+        gl.glPushMatrix();
+        gl.glLoadIdentity();
+
+        gl.glColor4f(0.0f, 0.0f, 0.0f, 0.6f);
+        fillRect(gl, left, bottom, PANEL_WIDTH, panelHeight);
+
+        int max = Math.max(1, cpu.histogram(BUCKET_MILLIS, histogram));
+        int histogramLeft = left + PADDING;
+        int histogramBottom = bottom + PADDING;
+        gl.glColor4f(0.3f, 0.8f, 0.4f, 0.9f);
+        for (int i = 0; i < BUCKETS; i++) {
+            int barHeight = histogram[i] * HISTOGRAM_HEIGHT / max;
+            if (barHeight > 0) fillRect(gl, histogramLeft + i * (BAR_WIDTH + 1), histogramBottom, BAR_WIDTH, barHeight);
+        }
+
+        gl.glMatrixMode(GL2.GL_PROJECTION);
+        gl.glPopMatrix();
+        gl.glMatrixMode(GL2.GL_MODELVIEW);
+        gl.glPopMatrix();
+        gl.glDisable(GL2.GL_BLEND);
+
+        // Text
+        textRenderer.beginRendering(width, height);
+        textRenderer.setColor(0.9f, 0.9f, 0.9f, 1.0f);
+        int y = top - PADDING - LINE_HEIGHT + 3;
+        for (String line : lines) {
+            textRenderer.draw(line, left + PADDING, y);
+            y -= LINE_HEIGHT;
+        }
+        textRenderer.setColor(0.6f, 0.6f, 0.6f, 1.0f);
+        textRenderer.draw(String.format("0 … %.0f ms", BUCKET_MILLIS * BUCKETS),
+                histogramLeft + BUCKETS * (BAR_WIDTH + 1) + PADDING, histogramBottom);
+        textRenderer.endRendering();
+
+        gl.glEnable(GL2.GL_DEPTH_TEST);
+    }
+
+    private static void fillRect(GL2 gl, int x, int y, int w, int h) {
+        gl.glBegin(GL2.GL_QUADS);
+        gl.glVertex2i(x, y);
+        gl.glVertex2i(x + w, y);
+        gl.glVertex2i(x + w, y + h);
+        gl.glVertex2i(x, y + h);
+        gl.glEnd();
+    }
+
+    /**
+     * Gibt die Textur des TextRenderers frei (beim Zerstören des GL-Kontexts).
+     */
+    public void dispose() {
+        if (textRenderer != null) {
+            textRenderer.dispose();
+            textRenderer = null;
+        }
+    }
+}
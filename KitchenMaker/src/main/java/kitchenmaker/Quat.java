@@ -0,0 +1,203 @@
+package kitchenmaker;
+
+/**
+ * Einheitsquaternion zur Darstellung von Rotationen.
+ * <p>
+ * Gegenüber drei Euler-Winkeln hat ein Quaternion keinen Gimbal Lock, lässt sich mit 16 Multiplikationen
+ * verknüpfen und per {@link #slerp} gleichmäßig interpolieren. In eine Matrix wird es direkt über
+ * {@link Affine3#setTransform} umgerechnet, ohne Sinus/Cosinus und ohne Matrixmultiplikation.
+ * <p>
+ * Euler-Winkel (Radiant) folgen derselben Reihenfolge wie {@link Mat4#rotateAroundX} usw. in der bisherigen
+ * Modellmatrix: R = Rx * Ry * Rz, d.h. zuerst um Z, dann um Y, dann um X gedreht.
+ * <p>
+ * Alle Methoden arbeiten ohne Hilfsobjekte; Varianten mit {@code dest} dürfen diese Instanz als Ziel erhalten.
+ */
+public class Quat {
+
+    public float x, y, z, w;
+
+    /**
+     * Erstellt die identische Rotation (0, 0, 0, 1).
+     */
+    public Quat() {
+        this(0, 0, 0, 1);
+    }
+
+    public Quat(float x, float y, float z, float w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    /**
+     * Copy-Konstruktor.
+     */
+    public Quat(Quat other) {
+        this(other.x, other.y, other.z, other.w);
+    }
+
+    public Quat set(float x, float y, float z, float w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    public Quat set(Quat other) {
+        return set(other.x, other.y, other.z, other.w);
+    }
+
+    public Quat setIdentity() {
+        return set(0, 0, 0, 1);
+    }
+
+    /**
+     * Setzt die Rotation um eine Achse.
+     * @param axisX          Achse (muss normiert sein)
+     * @param angleInRadians Rotationswinkel in Radiant
+     * @return dieses Quaternion für Methoden-Verkettung
+     */
+    public Quat setFromAxisAngle(float axisX, float axisY, float axisZ, float angleInRadians) {
+        float halfAngle = angleInRadians * 0.5f;
+        float sin = (float) Math.sin(halfAngle);
+        return set(axisX * sin, axisY * sin, axisZ * sin, (float) Math.cos(halfAngle));
+    }
+
+    public Quat setFromAxisAngle(Vec3 axis, float angleInRadians) {
+        return setFromAxisAngle(axis.x, axis.y, axis.z, angleInRadians);
+    }
+
+    /**
+     * Setzt die Rotation aus Euler-Winkeln (Radiant), entsprechend Rx(angleX) * Ry(angleY) * Rz(angleZ).
+     * @return dieses Quaternion für Methoden-Verkettung
+     */
+    public Quat setFromEuler(float angleX, float angleY, float angleZ) {
+        float sx = (float) Math.sin(angleX * 0.5f), cx = (float) Math.cos(angleX * 0.5f);
+        float sy = (float) Math.sin(angleY * 0.5f), cy = (float) Math.cos(angleY * 0.5f);
+        float sz = (float) Math.sin(angleZ * 0.5f), cz = (float) Math.cos(angleZ * 0.5f);
+        return set(
+                sx * cy * cz + cx * sy * sz,
+                cx * sy * cz - sx * cy * sz,
+                cx * cy * sz + sx * sy * cz,
+                cx * cy * cz - sx * sy * sz);
+    }
+
+    /**
+     * Schreibt die Euler-Winkel (Radiant, Reihenfolge wie {@link #setFromEuler}) nach {@code dest}.
+     * Der Y-Winkel liegt in [-π/2, π/2]; im Gimbal Lock (Y = ±π/2) wird der Z-Winkel auf 0 gesetzt.
+     * @return dest
+     */
+    public Vec3 getEuler(Vec3 dest) {
+        // Benötigte Elemente der Rotationsmatrix (siehe Affine3.setTransform)
+        float r02 = 2 * (x * z + w * y);
+        if (r02 > 0.99999f || r02 < -0.99999f) {
+            float r21 = 2 * (y * z + w * x);
+            float r11 = 1 - 2 * (x * x + z * z);
+            return dest.set((float) Math.atan2(r21, r11), Math.copySign((float) (Math.PI / 2), r02), 0);
+        }
+        float r12 = 2 * (y * z - w * x);
+        float r22 = 1 - 2 * (x * x + y * y);
+        float r01 = 2 * (x * y - w * z);
+        float r00 = 1 - 2 * (y * y + z * z);
+        return dest.set((float) Math.atan2(-r12, r22), (float) Math.asin(r02), (float) Math.atan2(-r01, r00));
+    }
+
+    /**
+     * Verknüpft zwei Rotationen: {@code dest = a * b} (erst b, dann a). {@code dest} darf {@code a} oder
+     * {@code b} sein.
+     * @return dest
+     */
+    public static Quat mul(Quat a, Quat b, Quat dest) {
+        float ax = a.x, ay = a.y, az = a.z, aw = a.w;
+        float bx = b.x, by = b.y, bz = b.z, bw = b.w;
+        return dest.set(
+                aw * bx + ax * bw + ay * bz - az * by,
+                aw * by - ax * bz + ay * bw + az * bx,
+                aw * bz + ax * by - ay * bx + az * bw,
+                aw * bw - ax * bx - ay * by - az * bz);
+    }
+
+    /**
+     * Hängt eine Rotation an (this = this * other).
+     * @return dieses Quaternion für Methoden-Verkettung
+     */
+    public Quat mul(Quat other) {
+        return mul(this, other, this);
+    }
+
+    public float dot(Quat other) {
+        return x * other.x + y * other.y + z * other.z + w * other.w;
+    }
+
+    /**
+     * Normiert das Quaternion auf Länge 1 (gegen Rundungsfehler nach vielen Verknüpfungen).
+     * @return dieses Quaternion für Methoden-Verkettung
+     */
+    public Quat normalize() {
+        float length = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        if (length == 0) return setIdentity();
+        float inv = 1.0f / length;
+        return set(x * inv, y * inv, z * inv, w * inv);
+    }
+
+    /**
+     * Kehrt die Rotation um (für Einheitsquaternionen die Inverse).
+     * @return dieses Quaternion für Methoden-Verkettung
+     */
+    public Quat conjugate() {
+        return set(-x, -y, -z, w);
+    }
+
+    /**
+     * Sphärische lineare Interpolation auf dem kürzeren Weg zwischen {@code a} (t = 0) und {@code b} (t = 1).
+     * Liegen beide Rotationen fast gleich, wird linear interpoliert und normiert. {@code dest} darf
+     * {@code a} oder {@code b} sein.
+     * @return dest
+     */
+    public static Quat slerp(Quat a, Quat b, float t, Quat dest) {
+        float bx = b.x, by = b.y, bz = b.z, bw = b.w;
+        float cos = a.dot(b);
+        // q und -q beschreiben dieselbe Rotation: den kürzeren Bogen wählen
+        if (cos < 0) {
+            cos = -cos;
+            bx = -bx; by = -by; bz = -bz; bw = -bw;
+        }
+
+        float weightA, weightB;
+        if (cos > 0.9995f) {
+            weightA = 1 - t;
+            weightB = t;
+        } else {
+            float angle = (float) Math.acos(cos);
+            float invSin = 1.0f / (float) Math.sin(angle);
+            weightA = (float) Math.sin((1 - t) * angle) * invSin;
+            weightB = (float) Math.sin(t * angle) * invSin;
+        }
+        dest.set(weightA * a.x + weightB * bx, weightA * a.y + weightB * by,
+                weightA * a.z + weightB * bz, weightA * a.w + weightB * bw);
+        return cos > 0.9995f ? dest.normalize() : dest;
+    }
+
+    /**
+     * Dreht einen Vektor. {@code dest} darf {@code vector} sein.
+     * @return dest
+     */
+    public Vec3 transform(Vec3 vector, Vec3 dest) {
+        // v' = v + 2w (q × v) + 2 q × (q × v)
+        float vx = vector.x, vy = vector.y, vz = vector.z;
+        float tx = 2 * (y * vz - z * vy);
+        float ty = 2 * (z * vx - x * vz);
+        float tz = 2 * (x * vy - y * vx);
+        return dest.set(
+                vx + w * tx + y * tz - z * ty,
+                vy + w * ty + z * tx - x * tz,
+                vz + w * tz + x * ty - y * tx);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Quat(%.3f, %.3f, %.3f, %.3f)", x, y, z, w);
+    }
+}
@@ -0,0 +1,116 @@
+package kitchenmaker;
+
+/**
+ * Erzeugt Strahlen aus Mauskoordinaten und schneidet sie mit Bounding Boxes und Ebenen (Picking, Verschieben).
+ * <p>
+ * Die Rückprojektion nutzt die Struktur der Kameramatrizen statt einer allgemeinen 4x4-Inversen: Die
+ * Perspektive wird geschlossen invertiert (Bildpunkt -> Richtung im Kameraraum), die View-Transformation
+ * ist eine Rotation mit Verschiebung und wird über {@link Affine3#invertOrthogonal} umgekehrt. Alle
+ * Zwischenergebnisse liegen in wiederverwendeten Feldern, sodass ein Strahl samt Schnitttests ohne
+ * Heap-Allokation auskommt – wichtig, da beim Ziehen pro Mausereignis gerechnet wird.
+ * Eine Instanz ist nicht threadsicher und wird nur im Event-Dispatch-Thread verwendet.
+ */
+public class RayCaster {
+
+    private static final Vec3 UP = new Vec3(0, 1, 0);
+
+    // Wiederverwendete Zwischenergebnisse
+    private final Vec3 cameraPosition = new Vec3();
+    private final Affine3 view = new Affine3();
+    private final Affine3 inverseView = new Affine3();
+
+    // Aktueller Strahl
+    private final Vec3 origin = new Vec3();
+    private final Vec3 direction = new Vec3();
+
+    /**
+     * Berechnet den Strahl durch den Bildpunkt ({@code mouseX}, {@code mouseY}) für die aktuelle Kamera.
+     *
+     * @param width  Breite der Ansicht in Pixeln (dieselben Einheiten wie die Mauskoordinaten)
+     * @param height Höhe der Ansicht in Pixeln
+     * @return diese Instanz; Ursprung und Richtung über {@link #getOrigin()} und {@link #getDirection()}
+     */
+    public RayCaster set(RenderEngine camera, int mouseX, int mouseY, int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        float aspect = (float) width / height;
+
+        // Transformation in Normalized Device Coordinates (NDC) [-1, 1]
+        float normalizedDeviceX = (2.0f * mouseX) / width - 1.0f;
+        float normalizedDeviceY = 1.0f - (2.0f * mouseY) / height;
+
+        // Inverse Perspektive: Punkt auf der Ebene z = -1 im Kameraraum
+        float tanHalfFov = (float) Math.tan(Math.toRadians(camera.fov) / 2.0);
+        float viewX = normalizedDeviceX * tanHalfFov * aspect;
+        float viewY = normalizedDeviceY * tanHalfFov;
+
+        // Inverse View-Transformation (Kameraraum -> Weltraum)
+        camera.calculateCameraPosition(cameraPosition);
+        view.setLookAt(cameraPosition, camera.cameraTarget, UP).invertOrthogonal(inverseView);
+
+        // Ursprung auf der Near-Plane, Richtung von der Kamera durch den Bildpunkt
+        float near = RenderEngine.NEAR_PLANE;
+        inverseView.transformPosition(origin.set(viewX * near, viewY * near, -near), origin);
+        inverseView.transformDirection(direction.set(viewX, viewY, -1), direction).normalize();
+        return this;
+    }
+
+    /**
+     * Ursprung des Strahls (auf der Near-Plane). Nur lesen; wird beim nächsten {@link #set} überschrieben.
+     */
+    public Vec3 getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Normierte Richtung des Strahls. Nur lesen; wird beim nächsten {@link #set} überschrieben.
+     */
+    public Vec3 getDirection() {
+        return direction;
+    }
+
+    /**
+     * Schneidet den Strahl mit einer achsenparallelen Bounding Box ("Slab"-Algorithmus).
+     *
+     * @param padding Toleranz, um die die Box in alle Richtungen vergrößert wird
+     * @return Abstand t zum Eintrittspunkt oder -1, falls kein Schnittpunkt existiert
+     */
+    public float intersectAABB(Vec3 min, Vec3 max, float padding) {
+        // Berechnung der Schnittintervalle für die X-Achse
+        float tMinX = (min.x - padding - origin.x) / direction.x;
+        float tMaxX = (max.x + padding - origin.x) / direction.x;
+        if (tMinX > tMaxX) { float tmp = tMinX; tMinX = tMaxX; tMaxX = tmp; }
+
+        // Berechnung der Schnittintervalle für die Y-Achse
+        float tMinY = (min.y - padding - origin.y) / direction.y;
+        float tMaxY = (max.y + padding - origin.y) / direction.y;
+        if (tMinY > tMaxY) { float tmp = tMinY; tMinY = tMaxY; tMaxY = tmp; }
+
+        // Prüfung auf Disjunktion der Intervalle
+        if (tMinX > tMaxY || tMinY > tMaxX) return -1;
+
+        // Intervall-Schnittbildung (Clipping)
+        tMinX = Math.max(tMinX, tMinY);
+        tMaxX = Math.min(tMaxX, tMaxY);
+
+        // Berechnung der Schnittintervalle für die Z-Achse
+        float tMinZ = (min.z - padding - origin.z) / direction.z;
+        float tMaxZ = (max.z + padding - origin.z) / direction.z;
+        if (tMinZ > tMaxZ) { float tmp = tMinZ; tMinZ = tMaxZ; tMaxZ = tmp; }
+
+        if (tMinX > tMaxZ || tMinZ > tMaxX) return -1;
+
+        // Finaler Eintrittspunkt
+        return Math.max(tMinX, tMinZ);
+    }
+
+    /**
+     * Schneidet den Strahl mit einer horizontalen Ebene (y = {@code planeY}) und schreibt den Schnittpunkt nach {@code dest}.
+     * @return dest
+     */
+    public Vec3 intersectHorizontalPlane(float planeY, Vec3 dest) {
+        // Ebenengleichung: P_y = planeY => origin.y + t * dir.y = planeY
+        float t = (planeY - origin.y) / direction.y;
+        return dest.set(origin.x + direction.x * t, origin.y + direction.y * t, origin.z + direction.z * t);
+    }
+}
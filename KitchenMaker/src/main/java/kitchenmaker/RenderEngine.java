@@ -3,6 +3,8 @@ package kitchenmaker;
 import com.jogamp.opengl.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Kernkomponente für das 3D-Rendering.
@@ -16,15 +18,40 @@ public class RenderEngine implements GLEventListener {
     // Definition des Vertex-Shaders (GLSL Version 1.20).
     // Führt die Transformation der Vertices vom Modellraum in den Clip-Space durch (Model-View-Projection).
     // Berechnet zusätzlich die fragmentbasierten Positionen und Normalen für die Beleuchtungsberechnung.
+    // Beim Instancing (uInstanced = 1) stammen Modellmatrix, Farbe und Selektion aus Instanz-Attributen.
     private static final String VERTEX_SHADER = """
                 #version 120
                 attribute vec3 aPos; attribute vec3 aNormal;
-                uniform mat4 projection; uniform mat4 view; uniform mat4 model;
+                attribute mat4 aInstanceModel; attribute vec4 aInstanceColor; attribute mat3 aInstanceNormalMatrix;
+                uniform mat4 projection; uniform mat4 view; uniform mat4 model; uniform mat3 normalMatrix;
+                uniform vec3 uPosOffset; uniform vec3 uPosScale; uniform int uOctNormals;
+                uniform vec3 uColor; uniform int isSelected; uniform int uInstanced;
                 varying vec3 Normal; varying vec3 FragPos;
+                varying vec3 Color; varying float Selected;
+            
+                // Dekodierung oktaedrisch kodierter Normalen (2 Komponenten im Bereich [-127, 127])
+                vec3 decodeNormal(vec3 n) {
+                    if (uOctNormals == 0) return n;
+                    vec2 e = clamp(n.xy / 127.0, -1.0, 1.0);
+                    vec3 v = vec3(e, 1.0 - abs(e.x) - abs(e.y));
+                    if (v.z < 0.0) {
+                        vec2 s = vec2(v.x >= 0.0 ? 1.0 : -1.0, v.y >= 0.0 ? 1.0 : -1.0);
+                        v.xy = (1.0 - abs(v.yx)) * s;
+                    }
+                    return normalize(v);
+                }
+            
                 void main() {
-                    gl_Position = projection * view * model * vec4(aPos, 1.0);
-                    FragPos = vec3(model * vec4(aPos, 1.0));
-                    Normal = mat3(model) * aNormal;
+                    // Dequantisierung: bei Float-Meshes ist offset = 0 und scale = 1
+                    vec3 pos = uPosOffset + aPos * uPosScale;
+                    mat4 m = (uInstanced == 1) ? aInstanceModel : model;
+                    gl_Position = projection * view * m * vec4(pos, 1.0);
+                    FragPos = vec3(m * vec4(pos, 1.0));
+                    // Inverse Transponierte, damit Normalen auch bei ungleichmäßiger Skalierung senkrecht bleiben
+                    mat3 n = (uInstanced == 1) ? aInstanceNormalMatrix : normalMatrix;
+                    Normal = n * decodeNormal(aNormal);
+                    Color = (uInstanced == 1) ? aInstanceColor.rgb : uColor;
+                    Selected = (uInstanced == 1) ? aInstanceColor.a : float(isSelected);
                 }
             """;
 
@@ -34,8 +61,8 @@ public class RenderEngine implements GLEventListener {
     private static final String FRAGMENT_SHADER = """
                 #version 120
                 varying vec3 Normal; varying vec3 FragPos;
-                uniform vec3 uColor; uniform vec3 lightPos; uniform vec3 viewPos;
-                uniform int isSelected;
+                varying vec3 Color; varying float Selected;
+                uniform vec3 lightPos; uniform vec3 viewPos;
                 void main() {
                     vec3 norm = normalize(Normal);
                     vec3 lightDir = normalize(lightPos - FragPos);
@@ -51,10 +78,10 @@ public class RenderEngine implements GLEventListener {
                     vec3 halfDir = normalize(lightDir + viewDir);
                     float spec = pow(max(dot(norm, halfDir), 0.0), 32.0);
             
-                    vec3 result = (ambient + diff * 0.7 + spec * 0.3) * uColor;
+                    vec3 result = (ambient + diff * 0.7 + spec * 0.3) * Color;
             
                     // Visuelles Feedback für Selektion: Helligkeit um 30% erhöhen
-                    if(isSelected == 1) {
+                    if(Selected > 0.5) {
                         result *= 1.3;
                     }
             
@@ -63,11 +90,59 @@ public class RenderEngine implements GLEventListener {
             """;
 
     private int programId;
-    private final List<SceneData.Object3D> objects;
+
+    // Zuletzt veröffentlichter Zustand der Szene (vom UI-Thread ersetzt, vom Render-Thread nur gelesen)
+    private final AtomicReference<SceneSnapshot> snapshot = new AtomicReference<>(SceneSnapshot.EMPTY);
 
     // Cache für Uniform-Locations zur Leistungsoptimierung im Render-Loop
-    private int locProjection, locView, locModel;
-    private int locLightPos, locViewPos, locColor, locIsSelected;
+    private int locProjection, locView, locModel, locNormalMatrix;
+    private int locLightPos, locViewPos, locColor, locIsSelected, locInstanced;
+    private Mesh.FormatUniforms formatUniforms;
+
+    // Instanced Rendering (null, falls der Kontext es nicht unterstützt)
+    private InstancedRenderer instancedRenderer;
+
+    // Static Batching lange unveränderter Objekte (null, falls abgeschaltet)
+    private final StaticBatcher staticBatcher = StaticBatcher.ENABLED ? new StaticBatcher(this::requestRedraw) : null;
+
+    // Zwischenspeicher für Raster und statische Objekte, solange etwas gezogen oder animiert wird
+    // (null, falls abgeschaltet oder nicht unterstützt)
+    private StaticSceneCache sceneCache;
+
+    /**
+     * Teilmenge der Szenenobjekte, die ein Durchgang von {@link #drawScene} zeichnet.
+     */
+    enum Pass {
+        ALL,
+        STATIC,
+        DYNAMIC;
+
+        boolean includes(SceneSnapshot.Entry entry) {
+            return this == ALL || entry.isDynamic() == (this == DYNAMIC);
+        }
+    }
+
+    // Frame-Statistik (CPU-Stufen, GPU-Zeit, Draw Calls) und deren Anzeige als HUD
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final ProfilerOverlay profilerOverlay = new ProfilerOverlay();
+    private volatile boolean profilerOverlayVisible = false;
+
+    // Frustum Culling (Objekte außerhalb des Sichtbereichs werden nicht gezeichnet)
+    private final Frustum frustum = new Frustum();
+    private volatile int drawnObjectCount, culledObjectCount;
+    private int drawnThisFrame, culledThisFrame;
+
+    /** Abstand der nahen und fernen Clipping-Ebene (auch für die Rückprojektion beim Picking). */
+    public static final float NEAR_PLANE = 0.1f, FAR_PLANE = 100f;
+
+    // Pro Frame wiederverwendete Kameradaten (der Render-Loop allokiert im Dauerbetrieb nichts)
+    private static final Vec3 UP = new Vec3(0, 1, 0);
+    private final Vec3 cameraPosition = new Vec3();
+    private final Mat4 projectionMatrix = new Mat4();
+    private final Affine3 viewTransform = new Affine3();
+    private final Mat4 viewMatrix = new Mat4();
+    private final Mat4 viewProjectionMatrix = new Mat4();
+    private float pixelsPerUnitAtDistanceOne;
 
     // Parameter für die Orbit-Kamera-Steuerung
     public float cameraYaw = 45.0f;
@@ -76,18 +151,24 @@ public class RenderEngine implements GLEventListener {
     public Vec3 cameraTarget = new Vec3(0, 0, 0);
     public float fov = 60.0f;
 
+    /** Aktuelle Auswahl (UI-Zustand); der Render-Thread verwendet die im Snapshot erfasste Auswahl. */
     public SceneData.Object3D selectedObject = null;
     private SceneData.Object3D grid;
 
-    public RenderEngine(List<SceneData.Object3D> objects) {
-        this.objects = objects;
+    // Vorgeladene Katalog-Meshes, die nach Abschluss des Ladens in den Grafikspeicher übertragen werden
+    private volatile CompletableFuture<List<Mesh>> pendingUploads;
+
+    // Entscheidet, wann neu gezeichnet wird (null = kein Scheduler)
+    private volatile RenderScheduler scheduler;
+
+    public RenderEngine() {
         this.grid = SceneData.createGrid(20, 1.0f);
     }
 
     /**
      * Konvertiert die sphärischen Kamerakoordinaten (Yaw, Pitch, Radius) in kartesische Weltkoordinaten.
      */
-    private Vec3 calculateCameraPosition() {
+    public Vec3 calculateCameraPosition(Vec3 dest) {
         float pitchInRadians = (float) Math.toRadians(cameraPitch);
         float yawInRadians = (float) Math.toRadians(cameraYaw);
 
@@ -95,7 +176,7 @@ public class RenderEngine implements GLEventListener {
         float y = cameraDistance * (float) Math.sin(pitchInRadians);
         float z = cameraDistance * (float) (Math.cos(pitchInRadians) * Math.cos(yawInRadians));
 
-        return new Vec3(x, y, z).add(cameraTarget);
+        return dest.set(x, y, z).add(cameraTarget);
     }
 
     /**
@@ -118,15 +199,101 @@ public class RenderEngine implements GLEventListener {
         locProjection = gl.glGetUniformLocation(programId, "projection");
         locView = gl.glGetUniformLocation(programId, "view");
         locModel = gl.glGetUniformLocation(programId, "model");
+        locNormalMatrix = gl.glGetUniformLocation(programId, "normalMatrix");
         locLightPos = gl.glGetUniformLocation(programId, "lightPos");
         locViewPos = gl.glGetUniformLocation(programId, "viewPos");
         locColor = gl.glGetUniformLocation(programId, "uColor");
         locIsSelected = gl.glGetUniformLocation(programId, "isSelected");
+        locInstanced = gl.glGetUniformLocation(programId, "uInstanced");
+        formatUniforms = new Mesh.FormatUniforms(
+                gl.glGetUniformLocation(programId, "uPosOffset"),
+                gl.glGetUniformLocation(programId, "uPosScale"),
+                gl.glGetUniformLocation(programId, "uOctNormals"));
+
+        // Fallback auf einzelne Draw Calls, falls Instancing nicht verfügbar ist
+        instancedRenderer = InstancedRenderer.isSupported(gl) ? new InstancedRenderer() : null;
+        profiler.init(gl);
+
+        if (StaticSceneCache.ENABLED && StaticSceneCache.isSupported(gl)) {
+            sceneCache = new StaticSceneCache(gl,
+                    createProgram(gl, StaticSceneCache.VERTEX_SHADER, StaticSceneCache.FRAGMENT_SHADER));
+        }
+
+        uploadPrewarmedMeshes(gl);
+    }
+
+    /**
+     * Merkt vorgeladene Meshes für den Upload in den Grafikspeicher vor. Der Upload erfolgt in
+     * {@link #init} bzw. im ersten Frame, nachdem das Laden abgeschlossen ist.
+     */
+    public void uploadWhenReady(CompletableFuture<List<Mesh>> meshes) {
+        this.pendingUploads = meshes;
+        // Upload im nächsten Frame auch dann, wenn die Ansicht gerade ruht
+        meshes.thenRun(this::requestRedraw);
+    }
+
+    public void setScheduler(RenderScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Fordert einen neuen Frame an (siehe {@link RenderScheduler#requestRedraw}).
+     */
+    public void requestRedraw() {
+        RenderScheduler current = scheduler;
+        if (current != null) current.requestRedraw();
+    }
+
+    /**
+     * Veröffentlicht einen neuen Zustand der Szene und fordert einen Frame an.
+     * Blockiert nicht; der Render-Thread übernimmt den Snapshot zu Beginn des nächsten Frames.
+     */
+    public void publish(SceneSnapshot scene) {
+        snapshot.set(scene);
+        requestRedraw();
+    }
+
+    /**
+     * Zuletzt veröffentlichter Zustand der Szene.
+     */
+    public SceneSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    public boolean isProfilerOverlayVisible() {
+        return profilerOverlayVisible;
+    }
+
+    /**
+     * Blendet das Profiler-HUD ein oder aus und zeichnet die Ansicht neu.
+     */
+    public void setProfilerOverlayVisible(boolean visible) {
+        profilerOverlayVisible = visible;
+        requestRedraw();
+    }
+
+    private void uploadPrewarmedMeshes(GL2 gl) {
+        CompletableFuture<List<Mesh>> uploads = pendingUploads;
+        if (uploads == null || !uploads.isDone()) return;
+        pendingUploads = null;
+        for (Mesh mesh : uploads.getNow(List.of())) {
+            mesh.upload(gl);
+        }
     }
 
     @Override
     public void display(GLAutoDrawable drawable) {
         GL2 gl = drawable.getGL().getGL2();
+        profiler.beginFrame(gl);
+
+        // GPU-Puffer nicht mehr verwendeter Meshes freigeben, vorgeladene hochladen
+        GpuResourceManager.processPending(gl);
+        uploadPrewarmedMeshes(gl);
+        profiler.endStage(FrameProfiler.Stage.PREPARE);
 
         // Löschen des Farb- und Tiefenpuffers vor jedem Frame
         gl.glClear(GL2.GL_COLOR_BUFFER_BIT | GL2.GL_DEPTH_BUFFER_BIT);
@@ -134,35 +301,185 @@ public class RenderEngine implements GLEventListener {
 
         int w = drawable.getSurfaceWidth();
         int h = drawable.getSurfaceHeight();
-        float aspect = (float) w / h;
 
-        // Berechnung der View- und Projection-Matrizen
-        Vec3 cameraPosition = calculateCameraPosition();
-        Mat4 projectionMatrix = new Mat4().setPerspective((float) Math.toRadians(fov), aspect, 0.1f, 100f);
-        Mat4 viewMatrix = new Mat4().setLookAt(cameraPosition, cameraTarget, new Vec3(0, 1, 0));
+        // Rendering der Szenenobjekte aus dem unveränderlichen Snapshot (keine Sperre nötig,
+        // der UI-Thread veröffentlicht Änderungen als neuen Snapshot)
+        SceneSnapshot scene = snapshot.get();
+        prepareFrame(scene, w, h);
 
         // Übertragung der globalen Uniforms an den Shader
         gl.glUniformMatrix4fv(locProjection, 1, false, projectionMatrix.toFloatArray(), 0);
         gl.glUniformMatrix4fv(locView, 1, false, viewMatrix.toFloatArray(), 0);
         gl.glUniform3f(locLightPos, 5, 8, 5); // Fixe Lichtposition
         gl.glUniform3f(locViewPos, cameraPosition.x, cameraPosition.y, cameraPosition.z);
+        profiler.countUniformUploads(4);
+
+        if (sceneCache != null && StaticSceneCache.hasDynamicEntries(scene)) {
+            // Raster und statische Objekte nur neu zeichnen, wenn sich Kamera oder statische Objekte geändert haben
+            if (!sceneCache.isValid(scene, viewProjectionMatrix, w, h)) {
+                sceneCache.begin(gl, w, h);
+                drawGrid(gl);
+                drawScene(gl, scene, Pass.STATIC);
+                sceneCache.end(gl, scene, viewProjectionMatrix, drawnThisFrame);
+                drawnThisFrame = culledThisFrame = 0;
+            }
+            sceneCache.composite(gl);
+            gl.glUseProgram(programId);
+            profiler.countDrawCall(2);
+            profiler.countCachedObjects(sceneCache.getCachedDrawnObjects());
+            profiler.endStage(FrameProfiler.Stage.SETUP);
+            drawScene(gl, scene, Pass.DYNAMIC);
+        } else {
+            drawGrid(gl);
+            drawScene(gl, scene, Pass.ALL);
+        }
+        int drawn = drawnThisFrame, culled = culledThisFrame;
+        drawnObjectCount = drawn;
+        culledObjectCount = culled;
+
+        if (profilerOverlayVisible) {
+            gl.glUseProgram(0);
+            profilerOverlay.render(gl, w, h, profiler);
+        }
+        profiler.endStage(FrameProfiler.Stage.OVERLAY);
+        profiler.endFrame(gl, drawn, culled);
+    }
+
+    /**
+     * CPU-Teil des Frame-Beginns ohne GL-Aufrufe: Kamera, Sichtpyramide und LOD-Maßstab berechnen und den
+     * Static Batcher mit dem Snapshot abgleichen. Auch von {@code RenderLoopBenchmark} verwendet.
+     */
+    void prepareFrame(SceneSnapshot scene, int width, int height) {
+        // Berechnung der View- und Projection-Matrizen
+        calculateCameraPosition(cameraPosition);
+        projectionMatrix.setPerspective((float) Math.toRadians(fov), (float) width / height, NEAR_PLANE, FAR_PLANE);
+        viewTransform.setLookAt(cameraPosition, cameraTarget, UP).toMat4(viewMatrix);
+
+        // Sichtpyramide für das Culling (im Weltraum)
+        frustum.set(Mat4.mul(projectionMatrix, viewTransform, viewProjectionMatrix));
+
+        // Umrechnung Weltgröße -> Pixel in Abhängigkeit von der Entfernung (für die LOD-Auswahl)
+        pixelsPerUnitAtDistanceOne = height / (2.0f * (float) Math.tan(Math.toRadians(fov) / 2.0));
 
-        // Rendering des Bodenrasters (nicht selektierbar)
+        if (staticBatcher != null) staticBatcher.update(scene);
+        drawnThisFrame = culledThisFrame = 0;
+    }
+
+    /**
+     * {@code projection * view} des letzten {@link #prepareFrame} (Schlüssel des Szenen-Caches).
+     */
+    Mat4 getViewProjectionMatrix() {
+        return viewProjectionMatrix;
+    }
+
+    /**
+     * Zeichnet das Bodenraster (nicht selektierbar).
+     */
+    private void drawGrid(GL2 gl) {
         gl.glUniform1i(locIsSelected, 0);
-        grid.renderLines(gl, locModel, locColor);
-
-        // Rendering der Szenenobjekte
-        // Synchronisation ist notwendig, da die Objektliste aus dem UI-Thread modifiziert werden kann
-        synchronized (objects) {
-            for (SceneData.Object3D obj : objects) {
-                // Berechnung des nächsten Animationsschritts
-                obj.updateAnimation();
-
-                // Markierung des aktuell ausgewählten Objekts für den Shader
-                gl.glUniform1i(locIsSelected, (obj == selectedObject) ? 1 : 0);
-                obj.render(gl, locModel, locColor);
+        grid.renderLines(gl, locModel, locNormalMatrix, locColor, formatUniforms);
+        profiler.countUniformUploads(4 + Mesh.FormatUniforms.COUNT);
+        profiler.countDrawCall(0);
+        profiler.endStage(FrameProfiler.Stage.SETUP);
+    }
+
+    /**
+     * Zeichnet die Objekte des Snapshots, die zum Durchgang gehören (mit Culling, LOD-Auswahl und Instancing),
+     * und zählt gezeichnete und verworfene Objekte in {@link #drawnThisFrame} bzw. {@link #culledThisFrame}.
+     */
+    private void drawScene(GL2 gl, SceneSnapshot scene, Pass pass) {
+        if (staticBatcher != null && pass != Pass.DYNAMIC) {
+            // Eingefrorene Objekte werden gesammelt pro Farbe gezeichnet
+            drawnThisFrame += staticBatcher.draw(gl, frustum, locModel, locNormalMatrix, locColor, locIsSelected,
+                    formatUniforms, profiler);
+        }
+        if (instancedRenderer != null) {
+            // Gruppierung nach Mesh, gezeichnet wird gesammelt in flush()
+            collectInstances(scene, pass, instancedRenderer);
+            profiler.endStage(FrameProfiler.Stage.SCENE);
+            instancedRenderer.flush(gl, formatUniforms, locInstanced, profiler);
+        } else {
+            List<SceneSnapshot.Entry> entries = scene.getEntries();
+            for (int i = 0, n = entries.size(); i < n; i++) {
+                SceneSnapshot.Entry entry = entries.get(i);
+                Mesh lod = selectVisible(entry, pass);
+                if (lod == null) continue;
+
+                // Markierung des ausgewählten Objekts für den Shader
+                gl.glUniform1i(locIsSelected, entry.isSelected() ? 1 : 0);
+                gl.glUniformMatrix4fv(locModel, 1, false, entry.getModelMatrix().toFloatArray(), 0);
+                gl.glUniformMatrix3fv(locNormalMatrix, 1, false, entry.getNormalMatrix(), 0);
+                gl.glUniform3f(locColor, entry.getColor().x, entry.getColor().y, entry.getColor().z);
+                lod.draw(gl, GL2.GL_TRIANGLES, formatUniforms);
+                profiler.countUniformUploads(4 + Mesh.FormatUniforms.COUNT);
+                profiler.countDrawCall(lod.getTriangleCount());
             }
+            profiler.endStage(FrameProfiler.Stage.SCENE);
         }
+        profiler.endStage(FrameProfiler.Stage.SUBMIT);
+    }
+
+    /**
+     * CPU-Teil von {@link #drawScene} mit Instancing: merkt alle sichtbaren, nicht gebündelten Objekte des
+     * Durchgangs in ihrer Detailstufe vor. Auch von {@code RenderLoopBenchmark} verwendet.
+     */
+    void collectInstances(SceneSnapshot scene, Pass pass, InstancedRenderer target) {
+        List<SceneSnapshot.Entry> entries = scene.getEntries();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            SceneSnapshot.Entry entry = entries.get(i);
+            Mesh lod = selectVisible(entry, pass);
+            if (lod != null) target.add(lod, entry);
+        }
+    }
+
+    /**
+     * Wählt die Detailstufe für ein einzeln (bzw. instanziert) zu zeichnendes Objekt; {@code null}, wenn es nicht
+     * zum Durchgang gehört, über eine Gruppe des Static Batchers gezeichnet wird oder außerhalb des
+     * Sichtbereichs liegt. Zählt gezeichnete und verworfene Objekte.
+     */
+    private Mesh selectVisible(SceneSnapshot.Entry entry, Pass pass) {
+        if (!pass.includes(entry)) return null;
+        if (staticBatcher != null && staticBatcher.isBatched(entry)) return null;
+
+        // Objekte außerhalb des Sichtbereichs überspringen
+        if (!frustum.intersects(entry.getWorldBoundsMin(), entry.getWorldBoundsMax())) {
+            culledThisFrame++;
+            return null;
+        }
+        drawnThisFrame++;
+        return entry.getMesh().selectLod(projectedSize(entry, cameraPosition, pixelsPerUnitAtDistanceOne));
+    }
+
+    /**
+     * Anzahl der im letzten Frame gezeichneten Szenenobjekte.
+     */
+    public int getDrawnObjectCount() {
+        return drawnObjectCount;
+    }
+
+    /**
+     * Anzahl der im letzten Frame durch Frustum Culling verworfenen Szenenobjekte.
+     */
+    public int getCulledObjectCount() {
+        return culledObjectCount;
+    }
+
+    /**
+     * Schätzt den Durchmesser des Objekts auf dem Bildschirm in Pixeln über seine umschließende Kugel.
+     */
+    private float projectedSize(SceneSnapshot.Entry entry, Vec3 cameraPosition, float pixelsPerUnitAtDistanceOne) {
+        float radius = entry.getMesh().getBoundingRadius() * entry.getMaxScale();
+
+        // Mittelpunkt der Welt-AABB (entspricht dem transformierten Mittelpunkt der Mesh-Bounding-Box)
+        Vec3 min = entry.getWorldBoundsMin(), max = entry.getWorldBoundsMax();
+        float cx = 0.5f * (min.x + max.x) - cameraPosition.x;
+        float cy = 0.5f * (min.y + max.y) - cameraPosition.y;
+        float cz = 0.5f * (min.z + max.z) - cameraPosition.z;
+        float distance = (float) Math.sqrt(cx * cx + cy * cy + cz * cz);
+
+        // Kamera innerhalb der Kugel: volle Detailstufe
+        if (distance <= radius) return Float.MAX_VALUE;
+        return 2.0f * radius / distance * pixelsPerUnitAtDistanceOne;
     }
 
     // Anpassung des OpenGL-Viewports an die Fenstergröße
@@ -175,6 +492,19 @@ public class RenderEngine implements GLEventListener {
     @Override
     public void dispose(GLAutoDrawable drawable) {
         GL2 gl = drawable.getGL().getGL2();
+        if (instancedRenderer != null) {
+            instancedRenderer.dispose();
+            instancedRenderer = null;
+        }
+        if (staticBatcher != null) staticBatcher.dispose();
+        if (sceneCache != null) {
+            sceneCache.dispose(gl);
+            sceneCache = null;
+        }
+        profilerOverlay.dispose();
+        profiler.dispose(gl);
+        // Kontext wird zerstört: alle Puffer freigeben, Meshes laden bei Bedarf im neuen Kontext erneut hoch
+        GpuResourceManager.disposeAll(gl);
         if (programId != 0) {
             gl.glDeleteProgram(programId);
             programId = 0;
@@ -221,6 +551,9 @@ public class RenderEngine implements GLEventListener {
         // Explizite Bindung der Vertex-Attribute an Indizes
         gl.glBindAttribLocation(program, 0, "aPos");
         gl.glBindAttribLocation(program, 1, "aNormal");
+        gl.glBindAttribLocation(program, InstancedRenderer.MODEL_ATTRIBUTE, "aInstanceModel");
+        gl.glBindAttribLocation(program, InstancedRenderer.COLOR_ATTRIBUTE, "aInstanceColor");
+        gl.glBindAttribLocation(program, InstancedRenderer.NORMAL_MATRIX_ATTRIBUTE, "aInstanceNormalMatrix");
         gl.glLinkProgram(program);
 
         int[] linked = new int[1];
@@ -0,0 +1,70 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.util.FPSAnimator;
+
+/**
+ * Steuert, wann die 3D-Ansicht neu gezeichnet wird.
+ * <p>
+ * Im Modus {@link Mode#ON_DEMAND} wird nur gezeichnet, wenn etwas die Ansicht ungültig macht
+ * (Kamera, Bearbeitung, Selektion, neues Objekt) und {@link #requestRedraw} aufgerufen wurde.
+ * Laufende Erscheinungs-Animationen veröffentlichen mit {@value #TARGET_FPS} FPS neue Szenen-Snapshots
+ * (siehe {@link KitchenApp}) und fordern so die nötigen Frames an; danach ruht die Ansicht wieder.
+ * {@link Mode#CONTINUOUS} zeichnet wie bisher dauerhaft mit {@value #TARGET_FPS} FPS.
+ */
+public class RenderScheduler {
+
+    /**
+     * Render-Modus (Voreinstellung über -Dkitchenmaker.renderMode=continuous bzw. on_demand).
+     */
+    public enum Mode {
+        CONTINUOUS,
+        ON_DEMAND
+    }
+
+    /** Bildrate im Dauerbetrieb und während Animationen. */
+    public static final int TARGET_FPS = 60;
+
+    private final Viewport viewport;
+    private final FPSAnimator animator;
+
+    private volatile Mode mode;
+
+    public RenderScheduler(Viewport viewport, Mode mode) {
+        this.viewport = viewport;
+        this.animator = new FPSAnimator(viewport.getDrawable(), TARGET_FPS);
+        setMode(mode);
+    }
+
+    /**
+     * Voreingestellter Modus aus der System-Property {@code kitchenmaker.renderMode} (Standard: ON_DEMAND).
+     */
+    public static Mode defaultMode() {
+        String value = System.getProperty("kitchenmaker.renderMode", "on_demand");
+        return "continuous".equalsIgnoreCase(value) ? Mode.CONTINUOUS : Mode.ON_DEMAND;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Wechselt den Render-Modus. Darf nicht aus dem Render-Thread aufgerufen werden.
+     */
+    public synchronized void setMode(Mode mode) {
+        this.mode = mode;
+        if (mode == Mode.CONTINUOUS) {
+            if (!animator.isStarted()) animator.start();
+        } else {
+            if (animator.isStarted()) animator.stop();
+            requestRedraw();
+        }
+    }
+
+    /**
+     * Fordert einen neuen Frame an. Kann aus jedem Thread aufgerufen werden; mehrere Anforderungen
+     * vor dem nächsten Frame werden von Swing zu einem Neuzeichnen zusammengefasst.
+     */
+    public void requestRedraw() {
+        if (mode == Mode.ON_DEMAND) viewport.repaint();
+    }
+}
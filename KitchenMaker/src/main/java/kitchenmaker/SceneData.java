@@ -3,8 +3,9 @@ package kitchenmaker;
 import com.jogamp.opengl.GL2;
 
 import java.io.*;
-import java.nio.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Zentrale Datenstruktur und Utility-Klasse für die Szene.
@@ -25,7 +26,8 @@ public class SceneData {
         NONE("Aus"),
         FALL_DOWN("Von oben fallen"),
         RISE_UP("Von unten steigen"),
-        GROW("Wachsen");
+        GROW("Wachsen"),
+        SPIN("Eindrehen");
 
         private final String displayName;
 
@@ -41,20 +43,31 @@ public class SceneData {
 
     /**
      * Repräsentiert ein einzelnes 3D-Objekt in der Szene.
-     * Kapselt Geometriedaten (Vertices, Indizes), Transformationszustand und OpenGL-Puffer-IDs.
+     * Transformation und Farbe liegen in einem {@link TransformStore} (Structure of Arrays); das Objekt selbst
+     * hält nur Name, Mesh, Slot und Animationszustand. Die Geometrie samt OpenGL-Puffern liegt in einem
+     * (ggf. mit anderen Objekten geteilten) {@link Mesh}.
+     * <p>
+     * Lesende Methoden schreiben in ein übergebenes Zielobjekt, damit keine Hilfsobjekte entstehen.
      */
     public static class Object3D {
         public String name;
 
-        // Geometriedaten (Interleaved: x,y,z, nx,ny,nz)
-        public float[] vertices;
-        public int[] indices;
+        // Gemeinsam genutzte Geometrie (Flyweight)
+        public final Mesh mesh;
+        private boolean released = false;
 
-        // Transformationsvektoren
-        public Vec3 worldPosition = new Vec3(0, 0, 0);
-        public Vec3 rotationAngles = new Vec3(0, 0, 0);
-        public Vec3 scaleFactors = new Vec3(1, 1, 1);
-        public Vec3 color = new Vec3(0.8f, 0.8f, 0.8f);
+        // Transformation, Farbe und abgeleitete Daten (Modellmatrix, Welt-AABB)
+        private TransformStore store;
+        private int slot;
+
+        // Wird bei jeder Änderung von Transformation oder Farbe erhöht (SceneSnapshot übernimmt unveränderte Einträge)
+        private int version;
+
+        // Nur für direktes Zeichnen (Bodengitter), bei Bedarf angelegt
+        private Mat4 drawMatrix;
+        private Affine3 drawTransform;
+        private float[] drawNormalMatrix;
+        private Vec3 drawColor;
 
         // Animationsstatus
         public boolean isAnimating = false;
@@ -67,23 +80,44 @@ public class SceneData {
         public Vec3 animationTargetScale = new Vec3(1, 1, 1);
         public Vec3 animationStartPosition = new Vec3();
         public Vec3 animationStartScale = new Vec3(1, 1, 1);
+        public Vec3 animationTargetRotation = new Vec3();
+        public Quat animationTargetOrientation = new Quat();
+        public Quat animationStartOrientation = new Quat();
+        private final Quat animationOrientation = new Quat();
 
-        // OpenGL-Handle-IDs
-        private int vao, vbo, ebo;
-        private boolean initialized = false;
+        /**
+         * Legt das Objekt im gemeinsamen {@link TransformStore#SHARED} an (bzw. in einem eigenen Store,
+         * falls mit {@code -Dkitchenmaker.transformStore=false} abgeschaltet).
+         */
+        public Object3D(String name, Mesh mesh) {
+            this(name, mesh, TransformStore.ENABLED ? TransformStore.SHARED : new TransformStore(1));
+        }
 
-        // Axis-Aligned Bounding Box (AABB) für Kollisionserkennung
-        public Vec3 boundingBoxMin = new Vec3();
-        public Vec3 boundingBoxMax = new Vec3();
+        public Object3D(String name, Mesh mesh, TransformStore store) {
+            this.name = name;
+            this.mesh = mesh;
+            this.store = store;
+            this.slot = store.allocate(mesh);
+        }
 
         /**
-         * Konstruktor: Initialisiert das Objekt mit Geometriedaten und berechnet sofort die Bounding Box.
+         * Gibt die Referenz auf das Mesh zurück (beim Entfernen aus der Szene aufrufen).
+         * Der Slot im gemeinsamen Store wird freigegeben; das Objekt behält seine Daten in einem eigenen
+         * Store, sodass verbliebene Referenzen (z.B. ein offener Dialog) keinen fremden Slot verändern.
+         * Mehrfache Aufrufe sind wirkungslos.
          */
-        public Object3D(String name, float[] vertices, int[] indices) {
-            this.name = name;
-            this.vertices = vertices;
-            this.indices = indices;
-            calculateBounds();
+        public void release() {
+            if (released) return;
+            released = true;
+            if (store == TransformStore.SHARED) {
+                TransformStore detached = new TransformStore(1);
+                int detachedSlot = detached.allocate(mesh);
+                store.copyTo(slot, detached, detachedSlot);
+                store.free(slot);
+                store = detached;
+                slot = detachedSlot;
+            }
+            MeshRegistry.release(mesh);
         }
 
         /**
@@ -102,28 +136,36 @@ public class SceneData {
             this.isAnimating = true;
 
             // Speichern des Endzustands (Ziel)
-            this.animationTargetPosition.set(this.worldPosition);
-            this.animationTargetScale.set(this.scaleFactors);
+            getPosition(this.animationTargetPosition);
+            getScale(this.animationTargetScale);
+            getRotation(this.animationTargetRotation);
+            getOrientation(this.animationTargetOrientation);
 
             // Definition des Startzustands je nach Animationsmodus
+            Vec3 target = this.animationTargetPosition;
+            this.animationStartPosition.set(target);
+            this.animationStartScale.set(this.animationTargetScale);
             switch (mode) {
                 case FALL_DOWN -> {
                     // Startet 5 Einheiten oberhalb der Zielposition
-                    this.animationStartPosition.set(this.worldPosition.x, this.worldPosition.y + 5.0f, this.worldPosition.z);
-                    this.animationStartScale.set(this.scaleFactors);
-                    this.worldPosition.set(this.animationStartPosition);
+                    this.animationStartPosition.set(target.x, target.y + 5.0f, target.z);
+                    setPosition(this.animationStartPosition);
                 }
                 case RISE_UP -> {
                     // Startet 5 Einheiten unterhalb der Zielposition
-                    this.animationStartPosition.set(this.worldPosition.x, this.worldPosition.y - 5.0f, this.worldPosition.z);
-                    this.animationStartScale.set(this.scaleFactors);
-                    this.worldPosition.set(this.animationStartPosition);
+                    this.animationStartPosition.set(target.x, target.y - 5.0f, target.z);
+                    setPosition(this.animationStartPosition);
                 }
                 case GROW -> {
                     // Startet fast unsichtbar klein (Skalierung nahe 0)
-                    this.animationStartPosition.set(this.worldPosition);
                     this.animationStartScale.set(0.01f, 0.01f, 0.01f);
-                    this.scaleFactors.set(this.animationStartScale);
+                    setScale(this.animationStartScale);
+                }
+                case SPIN -> {
+                    // Startet um eine Vierteldrehung um die Hochachse verdreht
+                    this.animationStartOrientation.setFromAxisAngle(0, 1, 0, (float) (-Math.PI / 2));
+                    Quat.mul(this.animationStartOrientation, this.animationTargetOrientation, this.animationStartOrientation);
+                    setOrientation(this.animationStartOrientation);
                 }
                 default -> isAnimating = false;
             }
@@ -145,24 +187,28 @@ public class SceneData {
             float eased = 1.0f - (1.0f - progress) * (1.0f - progress);
 
             switch (animationMode) {
-                case FALL_DOWN, RISE_UP -> {
-                    worldPosition.x = lerp(animationStartPosition.x, animationTargetPosition.x, eased);
-                    worldPosition.y = lerp(animationStartPosition.y, animationTargetPosition.y, eased);
-                    worldPosition.z = lerp(animationStartPosition.z, animationTargetPosition.z, eased);
-                }
-                case GROW -> {
-                    scaleFactors.x = lerp(animationStartScale.x, animationTargetScale.x, eased);
-                    scaleFactors.y = lerp(animationStartScale.y, animationTargetScale.y, eased);
-                    scaleFactors.z = lerp(animationStartScale.z, animationTargetScale.z, eased);
-                }
+                case FALL_DOWN, RISE_UP -> setPosition(
+                        lerp(animationStartPosition.x, animationTargetPosition.x, eased),
+                        lerp(animationStartPosition.y, animationTargetPosition.y, eased),
+                        lerp(animationStartPosition.z, animationTargetPosition.z, eased));
+                case GROW -> setScale(
+                        lerp(animationStartScale.x, animationTargetScale.x, eased),
+                        lerp(animationStartScale.y, animationTargetScale.y, eased),
+                        lerp(animationStartScale.z, animationTargetScale.z, eased));
+                case SPIN -> setOrientation(
+                        Quat.slerp(animationStartOrientation, animationTargetOrientation, eased, animationOrientation));
                 default -> {
                 }
             }
 
             // Prüfung auf Animationsende
             if (progress >= 1.0f) {
-                worldPosition.set(animationTargetPosition);
-                scaleFactors.set(animationTargetScale);
+                setPosition(animationTargetPosition);
+                setScale(animationTargetScale);
+                if (animationMode == AppearanceMode.SPIN) {
+                    // Ursprüngliche Euler-Winkel exakt wiederherstellen (nicht über das Quaternion zurückgerechnet)
+                    setRotation(animationTargetRotation.x, animationTargetRotation.y, animationTargetRotation.z);
+                }
                 isAnimating = false;
                 return false;
             }
@@ -178,88 +224,174 @@ public class SceneData {
         }
 
         /**
-         * Berechnet die minimalen und maximalen Koordinaten (AABB) des Objekts.
-         * Wird für Raycasting benötigt.
+         * Zeichnet das Objekt in der zur Bildschirmgröße passenden Detailstufe.
+         * @param projectedSize Durchmesser des Objekts auf dem Bildschirm in Pixeln
          */
-        private void calculateBounds() {
-            boundingBoxMin.set(Float.MAX_VALUE);
-            boundingBoxMax.set(-Float.MAX_VALUE);
-            // Iteration über alle Vertices (Stride 6: x,y,z, nx,ny,nz)
-            for (int i = 0; i < vertices.length; i += 6) {
-                float x = vertices[i], y = vertices[i + 1], z = vertices[i + 2];
-                boundingBoxMin.x = Math.min(boundingBoxMin.x, x);
-                boundingBoxMin.y = Math.min(boundingBoxMin.y, y);
-                boundingBoxMin.z = Math.min(boundingBoxMin.z, z);
-                boundingBoxMax.x = Math.max(boundingBoxMax.x, x);
-                boundingBoxMax.y = Math.max(boundingBoxMax.y, y);
-                boundingBoxMax.z = Math.max(boundingBoxMax.z, z);
-            }
+        public void render(GL2 gl, int modelLoc, int normalMatrixLoc, int colorLoc, Mesh.FormatUniforms format,
+                           float projectedSize) {
+            draw(gl, modelLoc, normalMatrixLoc, colorLoc, format, mesh.selectLod(projectedSize), GL2.GL_TRIANGLES);
         }
 
-        public void render(GL2 gl, int modelLoc, int colorLoc) {
-            draw(gl, modelLoc, colorLoc, GL2.GL_TRIANGLES);
+        public void renderLines(GL2 gl, int modelLoc, int normalMatrixLoc, int colorLoc, Mesh.FormatUniforms format) {
+            draw(gl, modelLoc, normalMatrixLoc, colorLoc, format, mesh, GL2.GL_LINES);
         }
 
-        public void renderLines(GL2 gl, int modelLoc, int colorLoc) {
-            draw(gl, modelLoc, colorLoc, GL2.GL_LINES);
+        /**
+         * Änderungszähler für Transformation und Farbe: gleiche Version bedeutet unveränderte Modellmatrix,
+         * Welt-AABB und Farbe.
+         */
+        public int getVersion() {
+            return version;
         }
 
         /**
-         * Kern-Render-Methode.
-         * Initialisiert Puffer bei Bedarf, setzt Transformationsmatrizen und führt den Draw-Call aus.
+         * Store, in dem Transformation und Farbe liegen, und der Slot dieses Objekts darin.
          */
-        private void draw(GL2 gl, int modelLoc, int colorLoc, int drawMode) {
-            if (!initialized) init(gl);
+        public TransformStore getStore() {
+            return store;
+        }
 
-            // Aufbau der Modellmatrix: Translation -> Rotation -> Skalierung
-            Mat4 modelMatrix = new Mat4()
-                    .translate(worldPosition)
-                    .rotateAroundX(rotationAngles.x)
-                    .rotateAroundY(rotationAngles.y)
-                    .rotateAroundZ(rotationAngles.z)
-                    .scale(scaleFactors);
+        public int getSlot() {
+            return slot;
+        }
 
-            // Übermittlung an den Shader
-            gl.glUniformMatrix4fv(modelLoc, 1, false, modelMatrix.toFloatArray(), 0);
-            gl.glUniform3f(colorLoc, color.x, color.y, color.z);
+        /**
+         * Position in Weltkoordinaten.
+         * @return dest
+         */
+        public Vec3 getPosition(Vec3 dest) {
+            return store.getPosition(slot, dest);
+        }
+
+        public void setPosition(float x, float y, float z) {
+            store.setPosition(slot, x, y, z);
+            version++;
+        }
+
+        public void setPosition(Vec3 position) {
+            setPosition(position.x, position.y, position.z);
+        }
 
-            gl.glBindVertexArray(vao);
-            gl.glDrawElements(drawMode, indices.length, GL2.GL_UNSIGNED_INT, 0);
-            gl.glBindVertexArray(0);
+        /**
+         * Rotation als Euler-Winkel (Radiant) um X, Y und Z, angewendet als Rx * Ry * Rz – eine Ansicht der
+         * {@link #getOrientation Orientierung} für den Bearbeiten-Dialog.
+         * @return dest
+         */
+        public Vec3 getRotation(Vec3 dest) {
+            return store.getEulerAngles(slot, dest);
+        }
+
+        public void setRotation(float x, float y, float z) {
+            store.setEulerAngles(slot, x, y, z);
+            version++;
         }
 
         /**
-         * Initialisiert Vertex Array Object (VAO) und Buffer Objects (VBO, EBO).
-         * Lädt die Geometriedaten in den Grafikspeicher.
+         * Rotation als Einheitsquaternion.
+         * @return dest
          */
-        private void init(GL2 gl) {
-            int[] buffers = new int[3];
-            gl.glGenVertexArrays(1, buffers, 0);
-            vao = buffers[0];
-            gl.glGenBuffers(2, buffers, 1);
-            vbo = buffers[1];
-            ebo = buffers[2];
+        public Quat getOrientation(Quat dest) {
+            return store.getOrientation(slot, dest);
+        }
 
-            gl.glBindVertexArray(vao);
+        /**
+         * Setzt die Rotation als Quaternion (frei im Raum, ohne Gimbal Lock). Die Euler-Winkel von
+         * {@link #getRotation} werden daraus zurückgerechnet und können sich daher von früher gesetzten
+         * Winkeln unterscheiden, die dieselbe Rotation beschreiben.
+         */
+        public void setOrientation(Quat rotation) {
+            store.setOrientation(slot, rotation);
+            version++;
+        }
 
-            // Vertex Buffer: Enthält Positionen und Normalen
-            gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, vbo);
-            gl.glBufferData(GL2.GL_ARRAY_BUFFER, (long) vertices.length * 4, FloatBuffer.wrap(vertices), GL2.GL_STATIC_DRAW);
+        /**
+         * Skalierung je Achse.
+         * @return dest
+         */
+        public Vec3 getScale(Vec3 dest) {
+            return store.getScale(slot, dest);
+        }
 
-            // Element Buffer: Enthält die Indizes für DrawElements
-            gl.glBindBuffer(GL2.GL_ELEMENT_ARRAY_BUFFER, ebo);
-            gl.glBufferData(GL2.GL_ELEMENT_ARRAY_BUFFER, (long) indices.length * 4, IntBuffer.wrap(indices), GL2.GL_STATIC_DRAW);
+        /**
+         * Größter Betrag der Skalierungsfaktoren (für die Abschätzung der Bildschirmgröße).
+         */
+        public float getMaxScale() {
+            return store.getMaxScale(slot);
+        }
+
+        public void setScale(float x, float y, float z) {
+            store.setScale(slot, x, y, z);
+            version++;
+        }
 
-            // Attribut 0: Position (3 Floats)
-            gl.glEnableVertexAttribArray(0);
-            gl.glVertexAttribPointer(0, 3, GL2.GL_FLOAT, false, 6 * 4, 0);
+        public void setScale(Vec3 scale) {
+            setScale(scale.x, scale.y, scale.z);
+        }
 
-            // Attribut 1: Normale (3 Floats), Offset 12 Bytes (3*4)
-            gl.glEnableVertexAttribArray(1);
-            gl.glVertexAttribPointer(1, 3, GL2.GL_FLOAT, false, 6 * 4, 3 * 4);
+        /**
+         * Farbe (RGB, 0..1).
+         * @return dest
+         */
+        public Vec3 getColor(Vec3 dest) {
+            return store.getColor(slot, dest);
+        }
 
-            gl.glBindVertexArray(0);
-            initialized = true;
+        public void setColor(float r, float g, float b) {
+            store.setColor(slot, r, g, b);
+            version++;
+        }
+
+        public void setColor(Vec3 color) {
+            setColor(color.x, color.y, color.z);
+        }
+
+        /**
+         * Modelltransformation (Translation -> Rotation -> Skalierung) als affine 3x4-Matrix.
+         * Nach Änderungen werden alle veralteten Objekte des Stores gemeinsam neu berechnet.
+         * @return dest
+         */
+        public Affine3 getTransform(Affine3 dest) {
+            return store.getTransform(slot, dest);
+        }
+
+        /**
+         * Modellmatrix (Translation -> Rotation -> Skalierung) als 4x4-Matrix für den Shader.
+         * @return dest
+         */
+        public Mat4 getModelMatrix(Mat4 dest) {
+            return store.getModelMatrix(slot, dest);
+        }
+
+        /**
+         * Achsenparallele Bounding Box in Weltkoordinaten.
+         */
+        public void getWorldBounds(Vec3 min, Vec3 max) {
+            store.getWorldBounds(slot, min, max);
+        }
+
+        /**
+         * Kern-Render-Methode.
+         * Setzt Transformations-, Normalenmatrix und Farbe und zeichnet das gemeinsam genutzte Mesh bzw. dessen
+         * Detailstufe.
+         */
+        private void draw(GL2 gl, int modelLoc, int normalMatrixLoc, int colorLoc, Mesh.FormatUniforms format, Mesh lod,
+                          int drawMode) {
+            if (drawMatrix == null) {
+                drawMatrix = new Mat4();
+                drawTransform = new Affine3();
+                drawNormalMatrix = new float[9];
+                drawColor = new Vec3();
+            }
+            getModelMatrix(drawMatrix);
+            getTransform(drawTransform).getNormalMatrix(drawNormalMatrix);
+            getColor(drawColor);
+
+            // Übermittlung an den Shader
+            gl.glUniformMatrix4fv(modelLoc, 1, false, drawMatrix.toFloatArray(), 0);
+            gl.glUniformMatrix3fv(normalMatrixLoc, 1, false, drawNormalMatrix, 0);
+            gl.glUniform3f(colorLoc, drawColor.x, drawColor.y, drawColor.z);
+
+            lod.draw(gl, drawMode, format);
         }
     }
 
@@ -291,23 +423,72 @@ public class SceneData {
         for (int i = 0; i < verts.size(); i++) vArr[i] = verts.get(i);
         int[] iArr = inds.stream().mapToInt(i -> i).toArray();
 
-        Object3D grid = new Object3D("Grid", vArr, iArr);
-        grid.color.set(0.25f, 0.28f, 0.35f); // Dezentes Blaugrau
+        // Eigener Store: das Gitter gehört nicht zur Szene und wird im GL-Thread angelegt
+        Object3D grid = new Object3D("Grid", new Mesh(vArr, iArr), new TransformStore(1));
+        grid.setColor(0.25f, 0.28f, 0.35f); // Dezentes Blaugrau
         return grid;
     }
 
     /**
      * Lädt ein 3D-Objekt aus einer Datei im Dateisystem (für Import-Funktion).
+     * Dateien mit identischem Inhalt teilen sich ein Mesh (Schlüssel: Inhalts-Hash).
      */
     public static Object3D loadObj(File file) {
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            return parseObj(br, file.getName());
+        try {
+            return loadObj(file, ImportProgress.NONE);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Lädt ein 3D-Objekt und meldet dabei den Fortschritt. Nur im Event-Dispatch-Thread aufrufen, da das Objekt
+     * dort in den gemeinsamen {@link TransformStore} eingetragen wird; im Hintergrund {@link #loadObjMesh} verwenden.
+     * @throws java.io.InterruptedIOException falls der Import über {@link ImportProgress#cancel()} abgebrochen wurde
+     */
+    public static Object3D loadObj(File file, ImportProgress progress) throws IOException {
+        return new Object3D(file.getName(), loadObjMesh(file, progress));
+    }
+
+    /**
+     * Lädt nur die Geometrie einer OBJ-Datei (für den Hintergrund-Import, siehe {@link ObjImportService}).
+     * Die zurückgegebene Mesh-Referenz gehört dem Aufrufer: entweder an ein {@link Object3D} übergeben oder mit
+     * {@link MeshRegistry#release} zurückgeben. Kann aus jedem Thread aufgerufen werden.
+     * @throws java.io.InterruptedIOException falls der Import über {@link ImportProgress#cancel()} abgebrochen wurde
+     */
+    public static Mesh loadObjMesh(File file, ImportProgress progress) throws IOException {
+        String contentHash = MeshCache.keyOf(file, progress);
+        return MeshRegistry.acquire("obj:" + contentHash, () -> loadMesh(file, contentHash, progress));
+    }
+
+    /**
+     * Lädt die Geometrie einer OBJ-Datei. Bereits bekannte Dateien kommen direkt aus dem
+     * {@link MeshCache}; sehr große Dateien werden per Memory-Mapping parallel eingelesen
+     * (siehe {@link MappedObjLoader}).
+     */
+    private static Mesh loadMesh(File file, String cacheKey, ImportProgress progress) throws IOException {
+        Mesh mesh = MeshCache.load(cacheKey);
+        if (mesh != null) {
+            progress.advance(file.length());
+            return mesh;
+        }
+
+        if (file.length() >= MappedObjLoader.MIN_FILE_SIZE) {
+            mesh = MappedObjLoader.load(file, ForkJoinPool.commonPool(), progress);
+        } else {
+            try (InputStream is = progress.track(new FileInputStream(file))) {
+                mesh = ObjParser.parse(is);
+            }
+        }
+        progress.checkCancelled();
+        MeshCache.store(cacheKey, mesh);
+        return mesh;
+    }
+
+    // Dauer des Vorladens des Objektkatalogs (-1 = nicht ausgeführt)
+    private static volatile long catalogPrewarmMillis = -1;
+
     // Mapping-Tabelle für interne Typen zu Ressourcendateien und Metadaten
     private static final Map<String, Object[]> OBJECT_DEFINITIONS = Map.of(
             "Fridge", new Object[]{"kuehlschrank.obj", "Kühlschrank", new float[]{0.9f, 0.95f, 1.0f}},
@@ -335,7 +516,7 @@ public class SceneData {
 
     /**
      * Methode zum Erstellen von Objekten anhand ihres Typnamens.
-     * Lädt die entsprechende OBJ-Ressource aus dem Classpath.
+     * Alle Objekte eines Typs teilen sich ein Mesh aus der {@link MeshRegistry}.
      */
     public static Object3D createByType(String typeName) {
         Object[] definition = OBJECT_DEFINITIONS.get(typeName);
@@ -345,10 +526,10 @@ public class SceneData {
         String displayName = (String) definition[1];
         float[] color = (float[]) definition[2];
 
-        try (InputStream is = SceneData.class.getResourceAsStream("/" + resourcePath);
-             BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
-            Object3D obj = parseObj(br, displayName);
-            if (obj != null) obj.color.set(color[0], color[1], color[2]);
+        try {
+            Mesh mesh = acquireTypeMesh(typeName, resourcePath);
+            Object3D obj = new Object3D(displayName, mesh);
+            obj.setColor(color[0], color[1], color[2]);
             return obj;
         } catch (Exception e) {
             e.printStackTrace();
@@ -357,78 +538,66 @@ public class SceneData {
     }
 
     /**
-     * Parsed die OBJ-Datei.
-     * Unterstützt Vertices (v), Vertex-Normalen (vn) und Faces (f).
-     * Trianguliert Polygone automatisch (Triangle Fan).
+     * Liefert das gemeinsam genutzte Mesh eines Katalog-Typs (lädt es bei Bedarf).
      */
-    private static Object3D parseObj(BufferedReader br, String objectName) throws IOException {
-        // Temporäre Listen für Parsing-Daten
-        List<Float> v = new ArrayList<>(), vn = new ArrayList<>(), buffer = new ArrayList<>();
-        List<Integer> indices = new ArrayList<>();
-
-        String line;
-        while ((line = br.readLine()) != null) {
-            String[] p = line.trim().split("\\s+");
-            if (p.length == 0 || p[0].isEmpty()) continue;
-
-            switch (p[0]) {
-                case "v" -> {
-                    // Vertex-Position
-                    v.add(Float.valueOf(p[1]));
-                    v.add(Float.valueOf(p[2]));
-                    v.add(Float.valueOf(p[3]));
-                }
-                case "vn" -> {
-                    // Vertex-Normale
-                    vn.add(Float.valueOf(p[1]));
-                    vn.add(Float.valueOf(p[2]));
-                    vn.add(Float.valueOf(p[3]));
-                }
-                case "f" -> {
-                    // Flächen-Definition (Indizes zu v/vt/vn)
-                    List<int[]> faceVertices = new ArrayList<>();
-                    for (int k = 1; k < p.length; k++) {
-                        String[] fv = p[k].split("/");
-                        int vi = Integer.parseInt(fv[0]) - 1; // OBJ ist 1-basiert
-                        int ni = fv.length > 2 && !fv[2].isEmpty() ? Integer.parseInt(fv[2]) - 1 : -1;
-                        faceVertices.add(new int[]{vi, ni});
-                    }
-
-                    // Triangulierung für Polygone mit > 3 Ecken
-                    for (int i = 0; i < faceVertices.size() - 2; i++) {
-                        int[][] triangle = {faceVertices.get(0), faceVertices.get(i + 1), faceVertices.get(i + 2)};
-                        for (int[] vertex : triangle) {
-                            int vi = vertex[0], ni = vertex[1];
-
-                            // Position hinzufügen
-                            buffer.add(v.get(vi * 3));
-                            buffer.add(v.get(vi * 3 + 1));
-                            buffer.add(v.get(vi * 3 + 2));
-
-                            // Normale hinzufügen (oder Fallback, falls keine vorhanden)
-                            if (ni >= 0 && ni < vn.size() / 3) {
-                                buffer.add(vn.get(ni * 3));
-                                buffer.add(vn.get(ni * 3 + 1));
-                                buffer.add(vn.get(ni * 3 + 2));
-                            } else {
-                                // Default Up-Vektor als Fallback
-                                buffer.add(0f);
-                                buffer.add(1f);
-                                buffer.add(0f);
-                            }
-                            indices.add(indices.size());
-                        }
-                    }
-                }
-                default -> {
-                    // Andere OBJ-Tags (vt, usemtl, etc.) werden aktuell ignoriert
+    private static Mesh acquireTypeMesh(String typeName, String resourcePath) throws IOException {
+        return MeshRegistry.acquire("type:" + typeName, () -> loadResourceMesh(resourcePath));
+    }
+
+    /**
+     * Lädt alle Katalog-Meshes parallel vor (z.B. während das Hauptfenster aufgebaut wird), damit das
+     * erste Hinzufügen eines Typs nicht auf das Parsen warten muss. Je Typ wird eine Referenz dauerhaft
+     * gehalten, die Meshes bleiben also auch nach dem Löschen aller Instanzen in der {@link MeshRegistry}.
+     * Fehler einzelner Typen werden nur protokolliert; diese werden später wie gewohnt bei Bedarf geladen.
+     *
+     * @return Future mit den erfolgreich vorgeladenen Meshes
+     */
+    public static CompletableFuture<List<Mesh>> prewarmCatalog() {
+        long start = System.nanoTime();
+        List<CompletableFuture<Mesh>> loads = new ArrayList<>();
+        for (Map.Entry<String, Object[]> entry : OBJECT_DEFINITIONS.entrySet()) {
+            String typeName = entry.getKey();
+            String resourcePath = (String) entry.getValue()[0];
+            loads.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return acquireTypeMesh(typeName, resourcePath);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-            }
+            }).exceptionally(e -> {
+                System.err.println("Warnung: " + typeName + " konnte nicht vorgeladen werden: " + e.getMessage());
+                return null;
+            }));
         }
 
-        // Konvertierung in Arrays für OpenGL
-        float[] vertArr = new float[buffer.size()];
-        for (int i = 0; i < buffer.size(); i++) vertArr[i] = buffer.get(i);
-        return new Object3D(objectName, vertArr, indices.stream().mapToInt(i -> i).toArray());
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<Mesh> meshes = loads.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
+            catalogPrewarmMillis = (System.nanoTime() - start) / 1_000_000;
+            return meshes;
+        });
+    }
+
+    /**
+     * Dauer des letzten {@link #prewarmCatalog()} in Millisekunden, -1 falls (noch) nicht ausgeführt.
+     */
+    public static long getCatalogPrewarmMillis() {
+        return catalogPrewarmMillis;
+    }
+
+    /**
+     * Lädt die OBJ-Ressource aus dem Classpath bzw. das aufbereitete Mesh aus dem {@link MeshCache}.
+     */
+    private static Mesh loadResourceMesh(String resourcePath) throws IOException {
+        try (InputStream is = SceneData.class.getResourceAsStream("/" + resourcePath)) {
+            if (is == null) throw new FileNotFoundException("Ressource nicht gefunden: " + resourcePath);
+            byte[] content = is.readAllBytes();
+            String cacheKey = MeshCache.keyOf(content);
+            Mesh mesh = MeshCache.load(cacheKey);
+            if (mesh == null) {
+                mesh = ObjParser.parse(new ByteArrayInputStream(content));
+                MeshCache.store(cacheKey, mesh);
+            }
+            return mesh;
+        }
     }
-}
\ No newline at end of file
+}
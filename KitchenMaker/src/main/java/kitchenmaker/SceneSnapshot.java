@@ -0,0 +1,286 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unveränderlicher Zustand der Szene zu einem Zeitpunkt, wie ihn der Render-Thread zeichnet.
+ * <p>
+ * Der Event-Dispatch-Thread erzeugt nach jeder Änderung an Objekten, Transformationen, Farben oder
+ * Selektion einen neuen Snapshot und veröffentlicht ihn über {@link RenderEngine#publish}. Transformation,
+ * Welt-AABB und Farbe werden dabei kopiert; der Render-Thread greift daher nie auf die veränderlichen
+ * {@link SceneData.Object3D} zu, und keiner der beiden Threads muss auf den anderen warten.
+ * <p>
+ * Einträge unveränderter Objekte (gleiche {@link SceneData.Object3D#getVersion Version}, Auswahl und
+ * Dynamik) werden aus dem vorherigen Snapshot übernommen. Beim Ziehen eines Objekts entsteht so pro
+ * Mausereignis nur ein neuer Eintrag, auch in großen Szenen.
+ */
+public final class SceneSnapshot {
+
+    /** Leere Szene (vor der ersten Veröffentlichung). */
+    public static final SceneSnapshot EMPTY = new SceneSnapshot(0, new Entry[0]);
+
+    private static final AtomicLong NEXT_VERSION = new AtomicLong(1);
+
+    /**
+     * Zustand eines einzelnen Objekts. Die zurückgegebenen Vektoren und Matrizen sind Kopien
+     * und dürfen nicht verändert werden.
+     */
+    public static final class Entry {
+        private final SceneData.Object3D source;
+        private final Mesh mesh;
+        private final Mat4 modelMatrix;
+        private final float[] normalMatrix;
+        private final Vec3 worldBoundsMin;
+        private final Vec3 worldBoundsMax;
+        private final Vec3 color;
+        private final float maxScale;
+        private final int version;
+        private final boolean selected;
+        private final boolean dynamic;
+
+        private Entry(SceneData.Object3D obj, boolean selected, boolean dynamic) {
+            this.source = obj;
+            this.version = obj.getVersion();
+            this.mesh = obj.mesh;
+            this.modelMatrix = obj.getModelMatrix(new Mat4());
+            this.normalMatrix = normalMatrixOf(modelMatrix);
+            this.worldBoundsMin = new Vec3();
+            this.worldBoundsMax = new Vec3();
+            obj.getWorldBounds(worldBoundsMin, worldBoundsMax);
+            this.color = obj.getColor(new Vec3());
+            this.maxScale = obj.getMaxScale();
+            this.selected = selected;
+            this.dynamic = dynamic;
+        }
+
+        /**
+         * Eintrag {@code i} aus den Zielobjekten von {@link TransformStore#read}.
+         */
+        private Entry(SceneData.Object3D obj, boolean selected, boolean dynamic, StoreData data, int i) {
+            this.source = obj;
+            this.version = obj.getVersion();
+            this.mesh = obj.mesh;
+            this.modelMatrix = data.modelMatrices[i];
+            this.normalMatrix = normalMatrixOf(modelMatrix);
+            this.worldBoundsMin = data.worldBoundsMin[i];
+            this.worldBoundsMax = data.worldBoundsMax[i];
+            this.color = data.colors[i];
+            this.maxScale = data.maxScales[i];
+            this.selected = selected;
+            this.dynamic = dynamic;
+        }
+
+        /**
+         * Übernimmt die (unveränderlichen) Daten eines vorherigen Eintrags mit anderer Auswahl bzw. Dynamik.
+         */
+        private Entry(Entry previous, boolean selected, boolean dynamic) {
+            this.source = previous.source;
+            this.version = previous.version;
+            this.mesh = previous.mesh;
+            this.modelMatrix = previous.modelMatrix;
+            this.normalMatrix = previous.normalMatrix;
+            this.worldBoundsMin = previous.worldBoundsMin;
+            this.worldBoundsMax = previous.worldBoundsMax;
+            this.color = previous.color;
+            this.maxScale = previous.maxScale;
+            this.selected = selected;
+            this.dynamic = dynamic;
+        }
+
+        /**
+         * Das Szenenobjekt, aus dem der Eintrag erzeugt wurde. Nur zur Identifikation (z.B. Picking)
+         * verwenden – die Felder des Objekts können sich inzwischen geändert haben.
+         */
+        public SceneData.Object3D getSource() {
+            return source;
+        }
+
+        public Mesh getMesh() {
+            return mesh;
+        }
+
+        public Mat4 getModelMatrix() {
+            return modelMatrix;
+        }
+
+        /**
+         * Inverse Transponierte des 3x3-Anteils der Modellmatrix (9 Floats, Column-Major) für die Normalen; wird
+         * beim Erfassen einmal berechnet, damit der Render-Thread pro Frame nichts invertieren muss.
+         */
+        public float[] getNormalMatrix() {
+            return normalMatrix;
+        }
+
+        private static float[] normalMatrixOf(Mat4 modelMatrix) {
+            return new Affine3().set(modelMatrix).getNormalMatrix(new float[9]);
+        }
+
+        public Vec3 getWorldBoundsMin() {
+            return worldBoundsMin;
+        }
+
+        public Vec3 getWorldBoundsMax() {
+            return worldBoundsMax;
+        }
+
+        public Vec3 getColor() {
+            return color;
+        }
+
+        /**
+         * Größter Betrag der Skalierungsfaktoren (für die Abschätzung der Bildschirmgröße).
+         */
+        public float getMaxScale() {
+            return maxScale;
+        }
+
+        public boolean isSelected() {
+            return selected;
+        }
+
+        /**
+         * Ob sich das Objekt voraussichtlich im nächsten Frame wieder ändert (wird gerade gezogen oder animiert).
+         * Solche Objekte zeichnet die {@link RenderEngine} getrennt vom {@link StaticSceneCache}.
+         */
+        public boolean isDynamic() {
+            return dynamic;
+        }
+    }
+
+    private final long version;
+    private final List<Entry> entries;
+
+    private SceneSnapshot(long version, Entry[] entries) {
+        this.version = version;
+        this.entries = Collections.unmodifiableList(Arrays.asList(entries));
+    }
+
+    /**
+     * Erstellt einen Snapshot der übergebenen Objekte. Nur im Event-Dispatch-Thread aufrufen,
+     * da die Objekte dort verändert werden.
+     *
+     * @param selectedObject    aktuell ausgewähltes Objekt (oder null)
+     * @param manipulatedObject gerade mit der Maus verschobenes Objekt (oder null)
+     */
+    public static SceneSnapshot capture(List<SceneData.Object3D> objects, SceneData.Object3D selectedObject,
+                                        SceneData.Object3D manipulatedObject) {
+        return capture(objects, selectedObject, manipulatedObject, EMPTY);
+    }
+
+    /**
+     * Wie {@link #capture(List, SceneData.Object3D, SceneData.Object3D)}, übernimmt aber die Einträge
+     * unveränderter Objekte aus {@code previous}. Solange die Objektliste nur am Ende wächst oder schrumpft,
+     * werden die Einträge über den Index gefunden; nach dem Löschen aus der Mitte über eine Zuordnung
+     * Objekt -> Eintrag.
+     */
+    public static SceneSnapshot capture(List<SceneData.Object3D> objects, SceneData.Object3D selectedObject,
+                                        SceneData.Object3D manipulatedObject, SceneSnapshot previous) {
+        List<Entry> previousEntries = previous.entries;
+        Map<SceneData.Object3D, Entry> bySource = null;
+        Entry[] entries = new Entry[objects.size()];
+        IntList rebuild = null;
+        for (int i = 0; i < entries.length; i++) {
+            SceneData.Object3D obj = objects.get(i);
+            boolean selected = obj == selectedObject;
+            boolean dynamic = obj == manipulatedObject || obj.isAnimating;
+
+            Entry old = i < previousEntries.size() ? previousEntries.get(i) : null;
+            if (old != null && old.source != obj) {
+                if (bySource == null) bySource = indexBySource(previousEntries);
+                old = bySource.get(obj);
+            }
+
+            if (old == null || old.version != obj.getVersion()) {
+                // Neu aufzubauen: gesammelt aus dem Store gelesen (siehe unten)
+                if (rebuild == null) rebuild = new IntList(16);
+                rebuild.add(i);
+            } else if (old.selected != selected || old.dynamic != dynamic) {
+                entries[i] = new Entry(old, selected, dynamic);
+            } else {
+                entries[i] = old;
+            }
+        }
+        if (rebuild != null) {
+            rebuildEntries(objects, selectedObject, manipulatedObject, entries, rebuild.array(), rebuild.size());
+        }
+        return new SceneSnapshot(NEXT_VERSION.getAndIncrement(), entries);
+    }
+
+    /**
+     * Zielobjekte für {@link TransformStore#read}; werden direkt von den neuen Einträgen übernommen.
+     */
+    private static final class StoreData {
+        final int[] slots;
+        final Mat4[] modelMatrices;
+        final Vec3[] worldBoundsMin, worldBoundsMax, colors;
+        final float[] maxScales;
+
+        StoreData(int count) {
+            slots = new int[count];
+            modelMatrices = new Mat4[count];
+            worldBoundsMin = new Vec3[count];
+            worldBoundsMax = new Vec3[count];
+            colors = new Vec3[count];
+            maxScales = new float[count];
+        }
+
+        void add(int index, int slot) {
+            slots[index] = slot;
+            modelMatrices[index] = new Mat4();
+            worldBoundsMin[index] = new Vec3();
+            worldBoundsMax[index] = new Vec3();
+            colors[index] = new Vec3();
+        }
+    }
+
+    /**
+     * Baut die Einträge {@code entries[indices[0..count)]} neu auf. Objekte im Store des ersten Objekts
+     * (normalerweise {@link TransformStore#SHARED}) werden mit einem einzigen {@link TransformStore#read}
+     * gelesen, Objekte in anderen Stores (abgekoppelt oder {@code -Dkitchenmaker.transformStore=false}) einzeln.
+     */
+    private static void rebuildEntries(List<SceneData.Object3D> objects, SceneData.Object3D selectedObject,
+                                       SceneData.Object3D manipulatedObject, Entry[] entries, int[] indices, int count) {
+        TransformStore store = objects.get(indices[0]).getStore();
+        StoreData data = new StoreData(count);
+        int bulk = 0;
+        for (int k = 0; k < count; k++) {
+            SceneData.Object3D obj = objects.get(indices[k]);
+            if (obj.getStore() == store) {
+                indices[bulk] = indices[k];
+                data.add(bulk++, obj.getSlot());
+            } else {
+                entries[indices[k]] = new Entry(obj, obj == selectedObject, obj == manipulatedObject || obj.isAnimating);
+            }
+        }
+
+        store.read(data.slots, bulk, data.modelMatrices, data.worldBoundsMin, data.worldBoundsMax, data.colors, data.maxScales);
+        for (int k = 0; k < bulk; k++) {
+            SceneData.Object3D obj = objects.get(indices[k]);
+            entries[indices[k]] = new Entry(obj, obj == selectedObject, obj == manipulatedObject || obj.isAnimating, data, k);
+        }
+    }
+
+    private static Map<SceneData.Object3D, Entry> indexBySource(List<Entry> entries) {
+        Map<SceneData.Object3D, Entry> map = new IdentityHashMap<>(entries.size() * 2);
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            map.put(entries.get(i).source, entries.get(i));
+        }
+        return map;
+    }
+
+    /**
+     * Fortlaufende Versionsnummer; jeder veröffentlichte Snapshot hat eine größere Version als sein Vorgänger.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,411 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fasst Objekte, die sich eine Weile nicht verändert haben, zu wenigen großen Meshes zusammen (Static Batching).
+ * <p>
+ * Nach dem Platzieren bewegen sich Theken, Eckteile usw. meist nicht mehr. Sobald ein Objekt
+ * {@value #FREEZE_DELAY_MILLIS} ms lang unverändert und nicht ausgewählt ist, wird es "eingefroren": seine
+ * Geometrie wird in Weltkoordinaten transformiert und mit anderen eingefrorenen Objekten derselben
+ * Farbe zu einem Mesh verschmolzen, das mit einem einzigen Draw Call gezeichnet wird. Die Objekte einer Farbe
+ * werden dabei auf Gruppen begrenzter Größe ({@value #MAX_GROUP_MEMBERS} Objekte bzw.
+ * {@value #MAX_GROUP_VERTICES} Vertices) verteilt, damit eine einzelne Änderung nicht das Mesh aller
+ * gleichfarbigen Objekte (meist fast die ganze Szene) verwirft.
+ * <p>
+ * Wird ein Mitglied bearbeitet, ausgewählt oder gelöscht, verlässt es seine Gruppe; nur diese Gruppe wird im
+ * Hintergrund neu aufgebaut. Bis dahin werden ihre Mitglieder wieder einzeln gezeichnet, die Darstellung
+ * ist also zu jedem Zeitpunkt korrekt. Beim Neuaufbau werden alle Mitglieder erneut aus ihrem gemeinsamen
+ * {@link Mesh} transformiert; transformierte Kopien einzelner Objekte werden nicht aufbewahrt, sodass nur das
+ * verschmolzene Mesh der Gruppe Speicher belegt.
+ * <p>
+ * Alle Methoden außer dem Zusammenfügen selbst laufen im Render-Thread. Die Maps dienen nur dem Nachschlagen;
+ * die Durchläufe pro Frame gehen über indizierte Listen, damit dabei keine Iteratoren entstehen.
+ */
+public class StaticBatcher {
+
+    /** Static Batching verwenden (abschaltbar über -Dkitchenmaker.staticBatching=false). */
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.staticBatching"));
+
+    /** Zeit ohne Änderung, nach der ein Objekt eingefroren wird. */
+    public static final long FREEZE_DELAY_MILLIS = 2000;
+
+    /** Höchstzahl an Objekten in einer Gruppe. */
+    static final int MAX_GROUP_MEMBERS = 64;
+
+    /** Höchstzahl an Vertices in einer Gruppe (ein größeres Einzelobjekt erhält eine eigene Gruppe). */
+    static final int MAX_GROUP_VERTICES = 1 << 16;
+
+    /**
+     * Zustand eines Szenenobjekts aus Sicht des Batchers.
+     */
+    private static final class Tracked {
+        SceneSnapshot.Entry entry;
+        // Position in trackedList
+        int index;
+        long unchangedSince;
+        long seenVersion;
+        Group group;
+    }
+
+    private record ColorKey(float r, float g, float b) {
+    }
+
+    private static final Mat4 IDENTITY = new Mat4();
+    private static final float[] IDENTITY_NORMAL_MATRIX = {1, 0, 0, 0, 1, 0, 0, 0, 1};
+
+    /**
+     * Eingefrorene Objekte einer Farbe (höchstens {@link #MAX_GROUP_MEMBERS} bzw. {@link #MAX_GROUP_VERTICES})
+     * und das daraus erzeugte Mesh.
+     */
+    private static final class Group {
+        final ColorKey key;
+        final Vec3 color;
+        final List<Tracked> members = new ArrayList<>();
+        int vertexCount;
+        int version;
+
+        // Fertiges Mesh zur aktuellen Version (null, solange es neu aufgebaut wird)
+        Mesh mesh;
+        CompletableFuture<Mesh> pending;
+        int pendingVersion;
+        int failedVersion = -1;
+
+        Group(ColorKey key, Vec3 color) {
+            this.key = key;
+            this.color = new Vec3(color);
+        }
+    }
+
+    private final Map<SceneData.Object3D, Tracked> tracked = new IdentityHashMap<>();
+    private final List<Tracked> trackedList = new ArrayList<>();
+    private final Map<ColorKey, List<Group>> groups = new HashMap<>();
+    private final List<Group> groupList = new ArrayList<>();
+    private final Runnable requestRedraw;
+
+    private long lastVersion = -1;
+    private volatile boolean freezeCheckScheduled;
+    private int drawCalls, batchedObjects;
+
+    /**
+     * @param requestRedraw fordert einen Frame an, wenn eine Gruppe fertig ist oder Objekte eingefroren werden können
+     */
+    public StaticBatcher(Runnable requestRedraw) {
+        this.requestRedraw = requestRedraw;
+    }
+
+    /**
+     * Gleicht den Batcher mit dem aktuellen Snapshot ab, friert lange unveränderte Objekte ein und übernimmt
+     * fertig aufgebaute Gruppen. Einmal pro Frame vor dem Zeichnen aufrufen.
+     */
+    public void update(SceneSnapshot scene) {
+        long now = System.nanoTime();
+        if (scene.getVersion() != lastVersion) {
+            lastVersion = scene.getVersion();
+            synchronize(scene, now);
+        }
+        freezeUnchanged(now);
+        updateBuilds();
+    }
+
+    /**
+     * Vergleicht die Einträge mit dem zuletzt gesehenen Zustand: veränderte, ausgewählte und gelöschte
+     * Objekte verlassen ihre Gruppe.
+     */
+    private void synchronize(SceneSnapshot scene, long now) {
+        List<SceneSnapshot.Entry> entries = scene.getEntries();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            SceneSnapshot.Entry entry = entries.get(i);
+            Tracked state = tracked.get(entry.getSource());
+            if (state == null) {
+                state = new Tracked();
+                state.unchangedSince = now;
+                state.index = trackedList.size();
+                tracked.put(entry.getSource(), state);
+                trackedList.add(state);
+            } else if (entry.isSelected() || entry.isDynamic() || !sameState(state.entry, entry)) {
+                state.unchangedSince = now;
+                leaveGroup(state);
+            }
+            state.entry = entry;
+            state.seenVersion = scene.getVersion();
+        }
+
+        // Gelöschte Objekte (rückwärts, da das letzte Element an die frei gewordene Stelle rückt)
+        for (int i = trackedList.size() - 1; i >= 0; i--) {
+            Tracked state = trackedList.get(i);
+            if (state.seenVersion != scene.getVersion()) {
+                leaveGroup(state);
+                tracked.remove(state.entry.getSource());
+                removeTracked(i);
+            }
+        }
+    }
+
+    private void removeTracked(int index) {
+        Tracked last = trackedList.remove(trackedList.size() - 1);
+        if (index < trackedList.size()) {
+            trackedList.set(index, last);
+            last.index = index;
+        }
+    }
+
+    private void freezeUnchanged(long now) {
+        long delay = TimeUnit.MILLISECONDS.toNanos(FREEZE_DELAY_MILLIS);
+        long earliestPending = Long.MAX_VALUE;
+        for (int i = 0, n = trackedList.size(); i < n; i++) {
+            Tracked state = trackedList.get(i);
+            if (state.group != null || state.entry.isSelected() || state.entry.isDynamic()) continue;
+            if (now - state.unchangedSince >= delay) {
+                joinGroup(state);
+            } else {
+                earliestPending = Math.min(earliestPending, state.unchangedSince + delay);
+            }
+        }
+
+        // Im On-Demand-Modus wird sonst ggf. nie wieder gezeichnet: Frame zum Einfrieren anfordern
+        if (earliestPending != Long.MAX_VALUE && !freezeCheckScheduled) {
+            freezeCheckScheduled = true;
+            long wait = Math.max(0, earliestPending - now);
+            CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS).execute(() -> {
+                freezeCheckScheduled = false;
+                requestRedraw.run();
+            });
+        }
+    }
+
+    /**
+     * Fügt ein Objekt einer Gruppe seiner Farbe mit freiem Platz hinzu. Bevorzugt wird eine Gruppe, die ohnehin
+     * neu aufgebaut wird, damit mehrere gleichzeitig eingefrorene Objekte keine fertigen Meshes verwerfen.
+     */
+    private void joinGroup(Tracked state) {
+        Vec3 color = state.entry.getColor();
+        ColorKey key = new ColorKey(color.x, color.y, color.z);
+        List<Group> colorGroups = groups.computeIfAbsent(key, k -> new ArrayList<>());
+        int vertices = state.entry.getMesh().vertices.length / BatchMath.VERTEX_STRIDE;
+
+        Group target = null;
+        for (int i = 0, n = colorGroups.size(); i < n; i++) {
+            Group group = colorGroups.get(i);
+            if (!hasRoom(group, vertices)) continue;
+            if (group.mesh == null) {
+                target = group;
+                break;
+            }
+            if (target == null) target = group;
+        }
+        if (target == null) {
+            target = new Group(key, color);
+            colorGroups.add(target);
+            groupList.add(target);
+        }
+
+        target.members.add(state);
+        target.vertexCount += vertices;
+        state.group = target;
+        invalidate(target);
+    }
+
+    private static boolean hasRoom(Group group, int vertices) {
+        if (group.members.isEmpty()) return true;
+        return group.members.size() < MAX_GROUP_MEMBERS && group.vertexCount + vertices <= MAX_GROUP_VERTICES;
+    }
+
+    private void leaveGroup(Tracked state) {
+        Group group = state.group;
+        if (group == null) return;
+        group.members.remove(state);
+        group.vertexCount -= state.entry.getMesh().vertices.length / BatchMath.VERTEX_STRIDE;
+        state.group = null;
+        invalidate(group);
+    }
+
+    /**
+     * Verwirft das Mesh einer Gruppe; die Mitglieder werden bis zum Neuaufbau einzeln gezeichnet.
+     * Der Neuaufbau startet gesammelt in {@link #updateBuilds}, damit mehrere Änderungen eines Frames
+     * nur einen Aufbau auslösen.
+     */
+    private void invalidate(Group group) {
+        group.version++;
+        if (group.mesh != null) {
+            GpuResourceManager.release(group.mesh);
+            group.mesh = null;
+        }
+    }
+
+    private void startBuild(Group group) {
+        // Unveränderliche Einträge beim Start des Aufbaus
+        List<SceneSnapshot.Entry> members = new ArrayList<>(group.members.size());
+        for (int i = 0, n = group.members.size(); i < n; i++) members.add(group.members.get(i).entry);
+        group.pendingVersion = group.version;
+        group.pending = CompletableFuture.supplyAsync(() -> merge(members));
+        group.pending.whenComplete((mesh, error) -> {
+            if (error != null) System.err.println("Warnung: Static Batch konnte nicht erzeugt werden: " + error.getMessage());
+            requestRedraw.run();
+        });
+    }
+
+    /**
+     * Übernimmt fertige Aufbauten und startet neue für veraltete Gruppen.
+     */
+    private void updateBuilds() {
+        // Rückwärts, da leere Gruppen durch das letzte Element ersetzt werden
+        for (int i = groupList.size() - 1; i >= 0; i--) {
+            Group group = groupList.get(i);
+            if (group.pending != null && group.pending.isDone()) {
+                Mesh mesh = group.pending.isCompletedExceptionally() ? null : group.pending.join();
+                boolean current = group.pendingVersion == group.version;
+                group.pending = null;
+                if (mesh == null) group.failedVersion = group.pendingVersion;
+                // Haben sich die Mitglieder während des Aufbaus geändert, wird das Ergebnis verworfen
+                if (current && mesh != null) group.mesh = mesh;
+            }
+            if (group.members.isEmpty()) {
+                if (group.pending == null) removeGroup(i);
+            } else if (group.mesh == null && group.pending == null && group.failedVersion != group.version) {
+                startBuild(group);
+            }
+        }
+    }
+
+    private void removeGroup(int index) {
+        Group group = groupList.get(index);
+        Group last = groupList.remove(groupList.size() - 1);
+        if (index < groupList.size()) groupList.set(index, last);
+
+        List<Group> colorGroups = groups.get(group.key);
+        colorGroups.remove(group);
+        if (colorGroups.isEmpty()) groups.remove(group.key);
+    }
+
+    /**
+     * Gibt an, ob das Objekt dieses Eintrags über eine fertige Gruppe gezeichnet wird.
+     */
+    public boolean isBatched(SceneSnapshot.Entry entry) {
+        Tracked state = tracked.get(entry.getSource());
+        return state != null && state.group != null && state.group.mesh != null && state.entry == entry;
+    }
+
+    /**
+     * Zeichnet alle fertigen Gruppen im Sichtbereich (Modell- und Normalenmatrix = Einheitsmatrix, da in
+     * Weltkoordinaten).
+     *
+     * @return Anzahl der dabei gezeichneten Objekte
+     */
+    public int draw(GL2 gl, Frustum frustum, int modelLoc, int normalMatrixLoc, int colorLoc, int selectedLoc,
+                    Mesh.FormatUniforms format, FrameProfiler profiler) {
+        drawCalls = 0;
+        batchedObjects = 0;
+        int drawn = 0;
+        boolean uniformsSet = false;
+        for (int i = 0, n = groupList.size(); i < n; i++) {
+            Group group = groupList.get(i);
+            Mesh mesh = group.mesh;
+            if (mesh == null) continue;
+            batchedObjects += group.members.size();
+            if (!frustum.intersects(mesh.boundingBoxMin, mesh.boundingBoxMax)) continue;
+
+            if (!uniformsSet) {
+                gl.glUniformMatrix4fv(modelLoc, 1, false, IDENTITY.toFloatArray(), 0);
+                gl.glUniformMatrix3fv(normalMatrixLoc, 1, false, IDENTITY_NORMAL_MATRIX, 0);
+                gl.glUniform1i(selectedLoc, 0);
+                profiler.countUniformUploads(3);
+                uniformsSet = true;
+            }
+            gl.glUniform3f(colorLoc, group.color.x, group.color.y, group.color.z);
+            mesh.draw(gl, GL2.GL_TRIANGLES, format);
+            profiler.countUniformUploads(1 + Mesh.FormatUniforms.COUNT);
+            profiler.countDrawCall(mesh.getTriangleCount());
+            drawCalls++;
+            drawn += group.members.size();
+        }
+        return drawn;
+    }
+
+    /**
+     * Anzahl der Draw Calls für Gruppen im letzten Frame.
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Anzahl der Objekte, die im letzten Frame über Gruppen gezeichnet wurden bzw. hätten werden können.
+     */
+    public int getBatchedObjectCount() {
+        return batchedObjects;
+    }
+
+    /**
+     * Gibt alle Gruppen frei (beim Zerstören des GL-Kontexts); sie werden bei Bedarf neu aufgebaut.
+     */
+    public void dispose() {
+        for (int i = 0, n = groupList.size(); i < n; i++) {
+            Group group = groupList.get(i);
+            if (group.mesh != null) GpuResourceManager.release(group.mesh);
+            for (int j = 0, m = group.members.size(); j < m; j++) group.members.get(j).group = null;
+        }
+        groups.clear();
+        groupList.clear();
+        tracked.clear();
+        trackedList.clear();
+        lastVersion = -1;
+    }
+
+    /**
+     * Verschmilzt die Mitglieder zu einem Mesh in Weltkoordinaten. Läuft im Hintergrund; jedes Mitglied wird
+     * aus seinem gemeinsamen Mesh in einen wiederverwendeten Zwischenpuffer transformiert (siehe
+     * {@link BatchMath#transformVertices}: Normalen mit der inversen Transponierten, also auch bei ungleichmäßiger
+     * Skalierung korrekt) und von dort in das Ergebnis kopiert.
+     */
+    private static Mesh merge(List<SceneSnapshot.Entry> members) {
+        int vertexFloats = 0, indexCount = 0, largest = 0;
+        for (int i = 0, n = members.size(); i < n; i++) {
+            Mesh mesh = members.get(i).getMesh();
+            vertexFloats += mesh.vertices.length;
+            indexCount += mesh.indices.length;
+            largest = Math.max(largest, mesh.vertices.length);
+        }
+
+        float[] vertices = new float[vertexFloats];
+        int[] indices = new int[indexCount];
+        float[] baked = new float[largest];
+        int vertexOffset = 0, indexOffset = 0;
+        for (int i = 0, n = members.size(); i < n; i++) {
+            SceneSnapshot.Entry entry = members.get(i);
+            float[] source = entry.getMesh().vertices;
+            BatchMath.transformVertices(entry.getModelMatrix(), source, baked, source.length / BatchMath.VERTEX_STRIDE);
+            System.arraycopy(baked, 0, vertices, vertexOffset, source.length);
+
+            int base = vertexOffset / BatchMath.VERTEX_STRIDE;
+            int[] sourceIndices = entry.getMesh().indices;
+            for (int j = 0; j < sourceIndices.length; j++) {
+                indices[indexOffset + j] = sourceIndices[j] + base;
+            }
+            vertexOffset += source.length;
+            indexOffset += sourceIndices.length;
+        }
+        return new Mesh(vertices, indices);
+    }
+
+    private static boolean sameState(SceneSnapshot.Entry a, SceneSnapshot.Entry b) {
+        return a == b || sameTransform(a, b) && sameColor(a.getColor(), b.getColor());
+    }
+
+    private static boolean sameTransform(SceneSnapshot.Entry a, SceneSnapshot.Entry b) {
+        return Arrays.equals(a.getModelMatrix().matrixElements, b.getModelMatrix().matrixElements);
+    }
+
+    private static boolean sameColor(Vec3 a, Vec3 b) {
+        return a.x == b.x && a.y == b.y && a.z == b.z;
+    }
+}
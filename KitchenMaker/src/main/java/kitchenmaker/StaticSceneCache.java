@@ -0,0 +1,289 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GL2;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Zwischenspeicher für den statischen Teil der Szene (Farb- und Tiefenbild in einem Framebuffer-Objekt).
+ * <p>
+ * Beim Verschieben eines Objekts mit der Maus ändert sich pro Frame nur dieses eine Objekt; Raster und alle
+ * übrigen Objekte sehen bei ruhender Kamera genauso aus wie im Frame davor. Solange die Szene dynamische
+ * Objekte enthält (gezogen oder animiert, siehe {@link SceneSnapshot.Entry#isDynamic}), zeichnet die
+ * {@link RenderEngine} den statischen Teil daher einmal in dieses FBO, kopiert ihn in jedem weiteren Frame
+ * samt Tiefenwerten per Vollbild-Dreieck in den Framebuffer und zeichnet nur noch die dynamischen Objekte darüber.
+ * <p>
+ * Der Inhalt wird neu aufgebaut, sobald sich Kamera, Fenstergröße oder ein statisches Objekt (Transformation,
+ * Farbe, Auswahl, Hinzufügen/Löschen) ändert. Ob er noch gültig ist, ermittelt {@link #isValid} durch Vergleich
+ * mit den Snapshot-Einträgen, aus denen er gezeichnet wurde. Nur im Render-Thread verwenden.
+ */
+public class StaticSceneCache {
+
+    /** Szenen-Cache verwenden (abschaltbar über -Dkitchenmaker.sceneCache=false). */
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.sceneCache"));
+
+    // Vollbild-Dreieck: Position direkt in Clip-Koordinaten, Texturkoordinaten daraus abgeleitet
+    static final String VERTEX_SHADER = """
+                #version 120
+                attribute vec2 aPos;
+                varying vec2 TexCoord;
+                void main() {
+                    TexCoord = aPos * 0.5 + 0.5;
+                    gl_Position = vec4(aPos, 0.0, 1.0);
+                }
+            """;
+
+    // Ein Dreieck, das den Bildschirm [-1, 1]² vollständig überdeckt (keine Diagonale wie beim Quad)
+    private static final float[] FULLSCREEN_TRIANGLE = {-1, -1, 3, -1, -1, 3};
+
+    // Übernimmt Farbe und Tiefe aus dem Cache, damit dynamische Objekte korrekt verdeckt werden
+    static final String FRAGMENT_SHADER = """
+                #version 120
+                uniform sampler2D uColorTexture; uniform sampler2D uDepthTexture;
+                varying vec2 TexCoord;
+                void main() {
+                    gl_FragColor = texture2D(uColorTexture, TexCoord);
+                    gl_FragDepth = texture2D(uDepthTexture, TexCoord).r;
+                }
+            """;
+
+    private final int programId;
+    private final GpuResourceManager.Handle vao, vbo;
+    private int framebuffer, colorTexture, depthTexture;
+    private int width, height;
+
+    // Zustand, aus dem der aktuelle Inhalt gezeichnet wurde
+    private final Contents contents = new Contents();
+
+    /**
+     * @param programId gelinktes Programm aus {@link #VERTEX_SHADER} und {@link #FRAGMENT_SHADER}
+     */
+    public StaticSceneCache(GL2 gl, int programId) {
+        this.programId = programId;
+        gl.glUseProgram(programId);
+        gl.glUniform1i(gl.glGetUniformLocation(programId, "uColorTexture"), 0);
+        gl.glUniform1i(gl.glGetUniformLocation(programId, "uDepthTexture"), 1);
+        gl.glUseProgram(0);
+
+        // Attribut 0 ist im Programm an "aPos" gebunden (siehe RenderEngine.createProgram)
+        vao = GpuResourceManager.createVertexArray(gl);
+        vbo = GpuResourceManager.createBuffer(gl);
+        gl.glBindVertexArray(vao.id());
+        GpuResourceManager.bufferData(gl, vbo, GL2.GL_ARRAY_BUFFER, (long) FULLSCREEN_TRIANGLE.length * 4,
+                FloatBuffer.wrap(FULLSCREEN_TRIANGLE), GL2.GL_STATIC_DRAW);
+        gl.glEnableVertexAttribArray(0);
+        gl.glVertexAttribPointer(0, 2, GL2.GL_FLOAT, false, 2 * 4, 0);
+        gl.glBindVertexArray(0);
+        gl.glBindBuffer(GL2.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Prüft, ob der Kontext Framebuffer-Objekte mit Tiefentexturen unterstützt.
+     */
+    public static boolean isSupported(GL2 gl) {
+        return gl.hasBasicFBOSupport() && gl.isFunctionAvailable("glFramebufferTexture2D");
+    }
+
+    /**
+     * Ob die Szene dynamische Objekte enthält; nur dann lohnt sich der Umweg über den Cache.
+     */
+    public static boolean hasDynamicEntries(SceneSnapshot scene) {
+        List<SceneSnapshot.Entry> entries = scene.getEntries();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            if (entries.get(i).isDynamic()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Prüft, ob der Inhalt für die gegebene Kamera, Größe und die statischen Objekte des Snapshots noch stimmt.
+     */
+    public boolean isValid(SceneSnapshot scene, Mat4 viewProjection, int width, int height) {
+        return contents.matches(scene, viewProjection, width, height);
+    }
+
+    /**
+     * Leitet das Zeichnen in das FBO um und löscht es. Danach den statischen Teil der Szene zeichnen
+     * und mit {@link #end} abschließen.
+     */
+    public void begin(GL2 gl, int width, int height) {
+        if (framebuffer == 0 || width != this.width || height != this.height) {
+            allocate(gl, width, height);
+        }
+        gl.glBindFramebuffer(GL2.GL_FRAMEBUFFER, framebuffer);
+        gl.glClear(GL2.GL_COLOR_BUFFER_BIT | GL2.GL_DEPTH_BUFFER_BIT);
+    }
+
+    /**
+     * Schaltet zurück auf den Framebuffer der Ansicht und merkt sich, woraus der Inhalt entstanden ist.
+     *
+     * @param drawnObjects Anzahl der dabei gezeichneten Objekte (für die Statistik)
+     */
+    public void end(GL2 gl, SceneSnapshot scene, Mat4 viewProjection, int drawnObjects) {
+        // Beim GLJPanel ist der "Standard"-Framebuffer selbst ein FBO, daher nicht einfach 0 binden
+        gl.glBindFramebuffer(GL2.GL_DRAW_FRAMEBUFFER, gl.getDefaultDrawFramebuffer());
+        gl.glBindFramebuffer(GL2.GL_READ_FRAMEBUFFER, gl.getDefaultReadFramebuffer());
+
+        contents.set(scene, viewProjection, width, height, drawnObjects);
+    }
+
+    /**
+     * Kopiert Farbe und Tiefe des Caches in den aktuellen Framebuffer. Hinterlässt kein aktives Programm.
+     */
+    public void composite(GL2 gl) {
+        gl.glUseProgram(programId);
+        gl.glActiveTexture(GL2.GL_TEXTURE1);
+        gl.glBindTexture(GL2.GL_TEXTURE_2D, depthTexture);
+        gl.glActiveTexture(GL2.GL_TEXTURE0);
+        gl.glBindTexture(GL2.GL_TEXTURE_2D, colorTexture);
+
+        // Tiefe bedingungslos übernehmen
+        gl.glDepthFunc(GL2.GL_ALWAYS);
+        gl.glBindVertexArray(vao.id());
+        gl.glDrawArrays(GL2.GL_TRIANGLES, 0, 3);
+        gl.glBindVertexArray(0);
+        gl.glDepthFunc(GL2.GL_LEQUAL);
+
+        gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+        gl.glUseProgram(0);
+    }
+
+    /**
+     * Anzahl der Objekte, die im Cache enthalten sind (beim letzten Aufbau im Sichtbereich).
+     */
+    public int getCachedDrawnObjects() {
+        return contents.drawnObjects;
+    }
+
+    /**
+     * Verwirft den Inhalt; der nächste Frame mit dynamischen Objekten baut ihn neu auf.
+     */
+    public void invalidate() {
+        contents.invalidate();
+    }
+
+    private void allocate(GL2 gl, int width, int height) {
+        release(gl);
+        this.width = width;
+        this.height = height;
+
+        int[] ids = new int[2];
+        gl.glGenTextures(2, ids, 0);
+        colorTexture = ids[0];
+        depthTexture = ids[1];
+
+        gl.glBindTexture(GL2.GL_TEXTURE_2D, colorTexture);
+        setNearestFiltering(gl);
+        gl.glTexImage2D(GL2.GL_TEXTURE_2D, 0, GL2.GL_RGBA8, width, height, 0, GL2.GL_RGBA, GL2.GL_UNSIGNED_BYTE, null);
+
+        gl.glBindTexture(GL2.GL_TEXTURE_2D, depthTexture);
+        setNearestFiltering(gl);
+        // Tiefenwerte direkt auslesen (kein Vergleich wie bei Schattentexturen)
+        gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_COMPARE_MODE, GL2.GL_NONE);
+        gl.glTexImage2D(GL2.GL_TEXTURE_2D, 0, GL2.GL_DEPTH_COMPONENT24, width, height, 0,
+                GL2.GL_DEPTH_COMPONENT, GL2.GL_UNSIGNED_INT, null);
+        gl.glBindTexture(GL2.GL_TEXTURE_2D, 0);
+
+        gl.glGenFramebuffers(1, ids, 0);
+        framebuffer = ids[0];
+        gl.glBindFramebuffer(GL2.GL_FRAMEBUFFER, framebuffer);
+        gl.glFramebufferTexture2D(GL2.GL_FRAMEBUFFER, GL2.GL_COLOR_ATTACHMENT0, GL2.GL_TEXTURE_2D, colorTexture, 0);
+        gl.glFramebufferTexture2D(GL2.GL_FRAMEBUFFER, GL2.GL_DEPTH_ATTACHMENT, GL2.GL_TEXTURE_2D, depthTexture, 0);
+        int status = gl.glCheckFramebufferStatus(GL2.GL_FRAMEBUFFER);
+        gl.glBindFramebuffer(GL2.GL_DRAW_FRAMEBUFFER, gl.getDefaultDrawFramebuffer());
+        gl.glBindFramebuffer(GL2.GL_READ_FRAMEBUFFER, gl.getDefaultReadFramebuffer());
+        if (status != GL2.GL_FRAMEBUFFER_COMPLETE) {
+            release(gl);
+            throw new IllegalStateException("Framebuffer für den Szenen-Cache unvollständig: 0x" + Integer.toHexString(status));
+        }
+    }
+
+    private static void setNearestFiltering(GL2 gl) {
+        gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_MIN_FILTER, GL2.GL_NEAREST);
+        gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_MAG_FILTER, GL2.GL_NEAREST);
+        gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_WRAP_S, GL2.GL_CLAMP_TO_EDGE);
+        gl.glTexParameteri(GL2.GL_TEXTURE_2D, GL2.GL_TEXTURE_WRAP_T, GL2.GL_CLAMP_TO_EDGE);
+    }
+
+    private void release(GL2 gl) {
+        if (framebuffer != 0) gl.glDeleteFramebuffers(1, new int[]{framebuffer}, 0);
+        if (colorTexture != 0) gl.glDeleteTextures(2, new int[]{colorTexture, depthTexture}, 0);
+        framebuffer = colorTexture = depthTexture = 0;
+        width = height = 0;
+        invalidate();
+    }
+
+    /**
+     * Gibt FBO, Texturen, Vertex-Puffer und Programm frei (beim Zerstören des GL-Kontexts).
+     */
+    public void dispose(GL2 gl) {
+        release(gl);
+        GpuResourceManager.delete(vao);
+        GpuResourceManager.delete(vbo);
+        gl.glDeleteProgram(programId);
+    }
+
+    /**
+     * Woraus der Inhalt entstanden ist: Kamera, Größe und statische Snapshot-Einträge. Reine CPU-Buchführung
+     * ohne GL-Aufrufe, damit {@code RenderLoopBenchmark} die Gültigkeitsprüfung ohne Kontext ausführen kann.
+     */
+    static final class Contents {
+        private final List<SceneSnapshot.Entry> entries = new ArrayList<>();
+        private final float[] viewProjection = new float[16];
+        private int width, height;
+        private boolean valid;
+        private int drawnObjects;
+
+        /**
+         * Prüft, ob der Inhalt für die gegebene Kamera, Größe und die statischen Objekte des Snapshots noch stimmt.
+         */
+        boolean matches(SceneSnapshot scene, Mat4 viewProjection, int width, int height) {
+            if (!valid || width != this.width || height != this.height) return false;
+            if (!Arrays.equals(this.viewProjection, viewProjection.matrixElements)) return false;
+
+            List<SceneSnapshot.Entry> sceneEntries = scene.getEntries();
+            int index = 0;
+            for (int i = 0, n = sceneEntries.size(); i < n; i++) {
+                SceneSnapshot.Entry entry = sceneEntries.get(i);
+                if (entry.isDynamic()) continue;
+                if (index >= entries.size() || !sameState(entries.get(index), entry)) return false;
+                index++;
+            }
+            return index == entries.size();
+        }
+
+        /**
+         * Merkt sich die statischen Einträge des Snapshots, aus denen der Inhalt gerade gezeichnet wurde.
+         */
+        void set(SceneSnapshot scene, Mat4 viewProjection, int width, int height, int drawnObjects) {
+            entries.clear();
+            List<SceneSnapshot.Entry> sceneEntries = scene.getEntries();
+            for (int i = 0, n = sceneEntries.size(); i < n; i++) {
+                SceneSnapshot.Entry entry = sceneEntries.get(i);
+                if (!entry.isDynamic()) entries.add(entry);
+            }
+            System.arraycopy(viewProjection.matrixElements, 0, this.viewProjection, 0, 16);
+            this.width = width;
+            this.height = height;
+            this.drawnObjects = drawnObjects;
+            valid = true;
+        }
+
+        void invalidate() {
+            valid = false;
+            entries.clear();
+        }
+    }
+
+    private static boolean sameState(SceneSnapshot.Entry a, SceneSnapshot.Entry b) {
+        if (a == b) return true; // aus dem vorherigen Snapshot übernommen
+        return a.getSource() == b.getSource()
+                && a.getMesh() == b.getMesh()
+                && a.isSelected() == b.isSelected()
+                && Arrays.equals(a.getModelMatrix().matrixElements, b.getModelMatrix().matrixElements)
+                && a.getColor().x == b.getColor().x && a.getColor().y == b.getColor().y && a.getColor().z == b.getColor().z;
+    }
+}
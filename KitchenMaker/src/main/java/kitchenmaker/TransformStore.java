@@ -0,0 +1,406 @@
+package kitchenmaker;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Transformationsdaten vieler Objekte als Structure of Arrays.
+ * <p>
+ * Position, Rotation (Quaternion und Euler-Ansicht), Skalierung, Farbe, die daraus berechnete affine
+ * Transformation sowie lokale und Welt-AABB liegen in zusammenhängenden float-Arrays, adressiert über
+ * einen Slot pro Objekt ({@link SceneData.Object3D} ist nur ein Handle darauf). Komponente c von Slot i
+ * steht jeweils bei {@code array[c * capacity + i]}; das Layout entspricht {@link BatchMath#transformBounds}.
+ * Bei großen Szenen (Ladenplanung mit 10 000+ Objekten) werden so beim Aktualisieren nur wenige
+ * Cache-Lines gelesen, statt je Objekt mehrere verstreute {@code Vec3}-Instanzen.
+ * <p>
+ * Änderungen markieren den Slot als veraltet. {@link #update()} berechnet alle veralteten Transformationen und
+ * Welt-AABBs in einem Durchlauf; ab {@link #PARALLEL_THRESHOLD} veralteten Slots verteilt auf den
+ * Fork-Join-Pool. Zugriffe auf abgeleitete Daten rufen {@link #update()} bei Bedarf selbst auf, sodass nach
+ * vielen Änderungen der erste Zugriff alle gemeinsam aktualisiert.
+ * <p>
+ * Szenenobjekte werden nur im Event-Dispatch-Thread angelegt und verändert; die Methoden sind dennoch
+ * synchronisiert, damit auch eigene Stores (z.B. des Bodengitters im GL-Thread) sicher sind. Standardmäßig teilen sich
+ * alle Szenenobjekte {@link #SHARED}; mit {@code -Dkitchenmaker.transformStore=false} erhält jedes Objekt einen
+ * eigenen Store mit einem Slot (wie zuvor je Objekt verteilte Daten).
+ */
+public final class TransformStore {
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("kitchenmaker.transformStore"));
+
+    /** Gemeinsamer Store der Szenenobjekte. */
+    public static final TransformStore SHARED = new TransformStore(256);
+
+    /** Ab dieser Zahl veralteter Slots rechnet {@link #update()} parallel. */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    // Slots pro Fork-Join-Teilaufgabe
+    private static final int CHUNK_SIZE = 1024;
+
+    private int capacity;
+    private int size; // Höchster je belegter Slot + 1
+
+    // Structure of Arrays: Komponente c von Slot i bei [c * capacity + i]
+    private float[] positions;   // x, y, z
+    private float[] rotations;   // Quaternion x, y, z, w
+    private float[] eulerAngles; // x, y, z (Radiant, Ansicht für den Bearbeiten-Dialog)
+    private float[] scales;      // x, y, z
+    private float[] colors;      // r, g, b
+    private float[] transforms;  // 12 Elemente wie Affine3.elements
+    private float[] localBounds; // min x, y, z, max x, y, z der Mesh-Bounding-Box
+    private float[] worldBounds; // min x, y, z, max x, y, z in Weltkoordinaten
+
+    private boolean[] dirty;
+    private final IntList dirtySlots = new IntList(64);
+    private final IntList freeSlots = new IntList(16);
+
+    // Hilfsobjekte für die Umrechnung Euler <-> Quaternion (nur unter der Sperre verwendet)
+    private final Quat scratchRotation = new Quat();
+    private final Vec3 scratchAngles = new Vec3();
+
+    public TransformStore(int initialCapacity) {
+        capacity = Math.max(1, initialCapacity);
+        positions = new float[3 * capacity];
+        rotations = new float[4 * capacity];
+        eulerAngles = new float[3 * capacity];
+        scales = new float[3 * capacity];
+        colors = new float[3 * capacity];
+        transforms = new float[12 * capacity];
+        localBounds = new float[6 * capacity];
+        worldBounds = new float[6 * capacity];
+        dirty = new boolean[capacity];
+    }
+
+    /**
+     * Belegt einen Slot für ein Objekt mit dem angegebenen Mesh (Ursprung, keine Rotation, Skalierung 1, Grau).
+     * @return Slot-Index
+     */
+    public synchronized int allocate(Mesh mesh) {
+        int slot;
+        if (freeSlots.size() > 0) {
+            slot = freeSlots.removeLast();
+        } else {
+            if (size == capacity) grow(capacity * 2);
+            slot = size++;
+        }
+
+        int c = capacity;
+        positions[slot] = 0; positions[c + slot] = 0; positions[2 * c + slot] = 0;
+        rotations[slot] = 0; rotations[c + slot] = 0; rotations[2 * c + slot] = 0; rotations[3 * c + slot] = 1;
+        eulerAngles[slot] = 0; eulerAngles[c + slot] = 0; eulerAngles[2 * c + slot] = 0;
+        scales[slot] = 1; scales[c + slot] = 1; scales[2 * c + slot] = 1;
+        colors[slot] = 0.8f; colors[c + slot] = 0.8f; colors[2 * c + slot] = 0.8f;
+        Vec3 min = mesh.boundingBoxMin, max = mesh.boundingBoxMax;
+        localBounds[slot] = min.x; localBounds[c + slot] = min.y; localBounds[2 * c + slot] = min.z;
+        localBounds[3 * c + slot] = max.x; localBounds[4 * c + slot] = max.y; localBounds[5 * c + slot] = max.z;
+        markDirty(slot);
+        return slot;
+    }
+
+    /**
+     * Gibt einen Slot frei; er wird von einem späteren {@link #allocate} wiederverwendet.
+     */
+    public synchronized void free(int slot) {
+        freeSlots.add(slot);
+    }
+
+    /**
+     * Kopiert alle Daten eines Slots in einen Slot eines anderen Stores (z.B. beim Abkoppeln gelöschter Objekte).
+     */
+    public synchronized void copyTo(int slot, TransformStore target, int targetSlot) {
+        synchronized (target) {
+            copyColumns(positions, capacity, slot, target.positions, target.capacity, targetSlot, 3);
+            copyColumns(rotations, capacity, slot, target.rotations, target.capacity, targetSlot, 4);
+            copyColumns(eulerAngles, capacity, slot, target.eulerAngles, target.capacity, targetSlot, 3);
+            copyColumns(scales, capacity, slot, target.scales, target.capacity, targetSlot, 3);
+            copyColumns(colors, capacity, slot, target.colors, target.capacity, targetSlot, 3);
+            copyColumns(localBounds, capacity, slot, target.localBounds, target.capacity, targetSlot, 6);
+            target.markDirty(targetSlot);
+        }
+    }
+
+    public synchronized Vec3 getPosition(int slot, Vec3 dest) {
+        return get3(positions, slot, dest);
+    }
+
+    public synchronized void setPosition(int slot, float x, float y, float z) {
+        set3(positions, slot, x, y, z);
+        markDirty(slot);
+    }
+
+    /**
+     * Euler-Winkel (Radiant, Rx * Ry * Rz), wie zuletzt gesetzt oder aus dem Quaternion zurückgerechnet.
+     */
+    public synchronized Vec3 getEulerAngles(int slot, Vec3 dest) {
+        return get3(eulerAngles, slot, dest);
+    }
+
+    /**
+     * Setzt die Rotation als Euler-Winkel; das Quaternion wird daraus berechnet.
+     */
+    public synchronized void setEulerAngles(int slot, float x, float y, float z) {
+        set3(eulerAngles, slot, x, y, z);
+        setRotation(slot, scratchRotation.setFromEuler(x, y, z));
+        markDirty(slot);
+    }
+
+    public synchronized Quat getOrientation(int slot, Quat dest) {
+        int c = capacity;
+        return dest.set(rotations[slot], rotations[c + slot], rotations[2 * c + slot], rotations[3 * c + slot]);
+    }
+
+    /**
+     * Setzt die Rotation als Quaternion (wird normiert); die Euler-Ansicht wird daraus zurückgerechnet
+     * (siehe {@link Quat#getEuler}).
+     */
+    public synchronized void setOrientation(int slot, Quat rotation) {
+        setRotation(slot, scratchRotation.set(rotation).normalize());
+        Vec3 angles = scratchRotation.getEuler(scratchAngles);
+        set3(eulerAngles, slot, angles.x, angles.y, angles.z);
+        markDirty(slot);
+    }
+
+    private void setRotation(int slot, Quat rotation) {
+        int c = capacity;
+        rotations[slot] = rotation.x;
+        rotations[c + slot] = rotation.y;
+        rotations[2 * c + slot] = rotation.z;
+        rotations[3 * c + slot] = rotation.w;
+    }
+
+    public synchronized Vec3 getScale(int slot, Vec3 dest) {
+        return get3(scales, slot, dest);
+    }
+
+    /**
+     * Größter Betrag der Skalierungsfaktoren.
+     */
+    public synchronized float getMaxScale(int slot) {
+        int c = capacity;
+        return Math.max(Math.abs(scales[slot]), Math.max(Math.abs(scales[c + slot]), Math.abs(scales[2 * c + slot])));
+    }
+
+    public synchronized void setScale(int slot, float x, float y, float z) {
+        set3(scales, slot, x, y, z);
+        markDirty(slot);
+    }
+
+    public synchronized Vec3 getColor(int slot, Vec3 dest) {
+        return get3(colors, slot, dest);
+    }
+
+    /**
+     * Setzt die Farbe (beeinflusst weder Transformation noch AABB).
+     */
+    public synchronized void setColor(int slot, float r, float g, float b) {
+        set3(colors, slot, r, g, b);
+    }
+
+    /**
+     * Modelltransformation (Translation -> Rotation -> Skalierung) des Slots.
+     * @return dest
+     */
+    public synchronized Affine3 getTransform(int slot, Affine3 dest) {
+        if (dirty[slot]) update();
+        float[] d = dest.elements;
+        for (int e = 0; e < 12; e++) d[e] = transforms[e * capacity + slot];
+        return dest;
+    }
+
+    /**
+     * Modellmatrix des Slots als 4x4-Matrix für den Shader.
+     * @return dest
+     */
+    public synchronized Mat4 getModelMatrix(int slot, Mat4 dest) {
+        if (dirty[slot]) update();
+        float[] m = dest.matrixElements;
+        int c = capacity;
+        for (int column = 0; column < 4; column++) {
+            m[column * 4] = transforms[(column * 3) * c + slot];
+            m[column * 4 + 1] = transforms[(column * 3 + 1) * c + slot];
+            m[column * 4 + 2] = transforms[(column * 3 + 2) * c + slot];
+            m[column * 4 + 3] = column == 3 ? 1 : 0;
+        }
+        return dest;
+    }
+
+    /**
+     * Achsenparallele Bounding Box des Slots in Weltkoordinaten.
+     */
+    public synchronized void getWorldBounds(int slot, Vec3 min, Vec3 max) {
+        if (dirty[slot]) update();
+        int c = capacity;
+        min.set(worldBounds[slot], worldBounds[c + slot], worldBounds[2 * c + slot]);
+        max.set(worldBounds[3 * c + slot], worldBounds[4 * c + slot], worldBounds[5 * c + slot]);
+    }
+
+    /**
+     * Liest Modellmatrix, Welt-AABB, Farbe und größte Skalierung von {@code count} Slots unter einer einzigen
+     * Sperre (für {@link SceneSnapshot#capture}) in die übergebenen Zielobjekte. Veraltete Slots werden vorher
+     * gemeinsam aktualisiert.
+     */
+    public synchronized void read(int[] slots, int count, Mat4[] modelMatrices, Vec3[] worldBoundsMin,
+                                  Vec3[] worldBoundsMax, Vec3[] colors, float[] maxScales) {
+        for (int i = 0; i < count; i++) {
+            if (dirty[slots[i]]) {
+                update();
+                break;
+            }
+        }
+
+        int c = capacity;
+        float[] t = transforms, b = worldBounds, s = scales;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            float[] m = modelMatrices[i].matrixElements;
+            for (int column = 0; column < 4; column++) {
+                m[column * 4] = t[(column * 3) * c + slot];
+                m[column * 4 + 1] = t[(column * 3 + 1) * c + slot];
+                m[column * 4 + 2] = t[(column * 3 + 2) * c + slot];
+                m[column * 4 + 3] = column == 3 ? 1 : 0;
+            }
+            worldBoundsMin[i].set(b[slot], b[c + slot], b[2 * c + slot]);
+            worldBoundsMax[i].set(b[3 * c + slot], b[4 * c + slot], b[5 * c + slot]);
+            get3(this.colors, slot, colors[i]);
+            maxScales[i] = Math.max(Math.abs(s[slot]), Math.max(Math.abs(s[c + slot]), Math.abs(s[2 * c + slot])));
+        }
+    }
+
+    /**
+     * Anzahl der Slots mit veralteter Transformation.
+     */
+    public synchronized int getDirtyCount() {
+        return dirtySlots.size();
+    }
+
+    /**
+     * Berechnet Transformation und Welt-AABB aller veralteten Slots. Ab {@link #PARALLEL_THRESHOLD} Slots
+     * wird die Liste auf den Fork-Join-Pool verteilt; jede Teilaufgabe schreibt nur ihre eigenen Slots.
+     */
+    public synchronized void update() {
+        int count = dirtySlots.size();
+        if (count == 0) return;
+
+        int[] slots = dirtySlots.array();
+        if (count >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new UpdateTask(slots, 0, count));
+        } else {
+            updateSlots(slots, 0, count);
+        }
+
+        for (int i = 0; i < count; i++) dirty[slots[i]] = false;
+        dirtySlots.clear();
+    }
+
+    /**
+     * Teilt die Liste veralteter Slots rekursiv, bis ein Teil höchstens {@link #CHUNK_SIZE} Slots umfasst.
+     */
+    private final class UpdateTask extends RecursiveAction {
+        private final int[] slots;
+        private final int from, to;
+
+        UpdateTask(int[] slots, int from, int to) {
+            this.slots = slots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                updateSlots(slots, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new UpdateTask(slots, from, middle), new UpdateTask(slots, middle, to));
+        }
+    }
+
+    /**
+     * Berechnet die Slots {@code slots[from..to)}: erst die Transformationen direkt aus Quaternion, Position
+     * und Skalierung, dann die Welt-AABBs. Aufeinanderfolgende Slots (z.B. nach dem Laden einer großen Szene)
+     * werden als Bereich an {@link BatchMath#transformBounds} übergeben.
+     */
+    private void updateSlots(int[] slots, int from, int to) {
+        int c = capacity;
+        float[] p = positions, q = rotations, s = scales, t = transforms;
+        for (int i = from; i < to; i++) {
+            int slot = slots[i];
+            // Wie Affine3.setTransform
+            float x = q[slot], y = q[c + slot], z = q[2 * c + slot], w = q[3 * c + slot];
+            float xx = x * x, yy = y * y, zz = z * z;
+            float xy = x * y, xz = x * z, yz = y * z;
+            float wx = w * x, wy = w * y, wz = w * z;
+            float sx = s[slot], sy = s[c + slot], sz = s[2 * c + slot];
+
+            t[slot] = (1 - 2 * (yy + zz)) * sx;
+            t[c + slot] = 2 * (xy + wz) * sx;
+            t[2 * c + slot] = 2 * (xz - wy) * sx;
+            t[3 * c + slot] = 2 * (xy - wz) * sy;
+            t[4 * c + slot] = (1 - 2 * (xx + zz)) * sy;
+            t[5 * c + slot] = 2 * (yz + wx) * sy;
+            t[6 * c + slot] = 2 * (xz + wy) * sz;
+            t[7 * c + slot] = 2 * (yz - wx) * sz;
+            t[8 * c + slot] = (1 - 2 * (xx + yy)) * sz;
+            t[9 * c + slot] = p[slot];
+            t[10 * c + slot] = p[c + slot];
+            t[11 * c + slot] = p[2 * c + slot];
+        }
+
+        int runStart = from;
+        for (int i = from + 1; i <= to; i++) {
+            if (i < to && slots[i] == slots[i - 1] + 1) continue;
+            BatchMath.transformBounds(transforms, localBounds, worldBounds, c, slots[runStart], slots[i - 1] + 1);
+            runStart = i;
+        }
+    }
+
+    private void markDirty(int slot) {
+        if (dirty[slot]) return;
+        dirty[slot] = true;
+        dirtySlots.add(slot);
+    }
+
+    private Vec3 get3(float[] array, int slot, Vec3 dest) {
+        int c = capacity;
+        return dest.set(array[slot], array[c + slot], array[2 * c + slot]);
+    }
+
+    private void set3(float[] array, int slot, float x, float y, float z) {
+        int c = capacity;
+        array[slot] = x;
+        array[c + slot] = y;
+        array[2 * c + slot] = z;
+    }
+
+    /**
+     * Vergrößert alle Arrays; jede Komponente wird an ihren neuen Block-Anfang kopiert.
+     */
+    private void grow(int newCapacity) {
+        positions = regroup(positions, 3, newCapacity);
+        rotations = regroup(rotations, 4, newCapacity);
+        eulerAngles = regroup(eulerAngles, 3, newCapacity);
+        scales = regroup(scales, 3, newCapacity);
+        colors = regroup(colors, 3, newCapacity);
+        transforms = regroup(transforms, 12, newCapacity);
+        localBounds = regroup(localBounds, 6, newCapacity);
+        worldBounds = regroup(worldBounds, 6, newCapacity);
+        dirty = Arrays.copyOf(dirty, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private float[] regroup(float[] array, int components, int newCapacity) {
+        float[] result = new float[components * newCapacity];
+        for (int component = 0; component < components; component++) {
+            System.arraycopy(array, component * capacity, result, component * newCapacity, size);
+        }
+        return result;
+    }
+
+    private static void copyColumns(float[] source, int sourceCapacity, int sourceSlot,
+                                    float[] target, int targetCapacity, int targetSlot, int components) {
+        for (int component = 0; component < components; component++) {
+            target[component * targetCapacity + targetSlot] = source[component * sourceCapacity + sourceSlot];
+        }
+    }
+}
@@ -70,17 +70,7 @@ public class Vec4 {
      * Das Ergebnis überschreibt den aktuellen Vektorinhalt.
      */
     public Vec4 multiply(Mat4 transformMatrix) {
-        float[] m = transformMatrix.matrixElements;
-        float resultX = x * m[0] + y * m[4] + z * m[8] + w * m[12];
-        float resultY = x * m[1] + y * m[5] + z * m[9] + w * m[13];
-        float resultZ = x * m[2] + y * m[6] + z * m[10] + w * m[14];
-        float resultW = x * m[3] + y * m[7] + z * m[11] + w * m[15];
-
-        this.x = resultX;
-        this.y = resultY;
-        this.z = resultZ;
-        this.w = resultW;
-        return this;
+        return transformMatrix.transform(this, this);
     }
 
     /**
@@ -0,0 +1,175 @@
+package kitchenmaker;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD-Implementierung von {@link BatchMath} mit der Java Vector API (Modul {@code jdk.incubator.vector}).
+ * Wird nur geladen, wenn das Modul vorhanden ist.
+ * <p>
+ * Verschachtelte Daten (Stride 3 oder 6) werden ohne Gather/Scatter verarbeitet: Nach
+ * {@code kgV(Stride, Lanes)} Floats (immer drei Vektoren) wiederholt sich die Zuordnung Lane -> Komponente. Für jede Lane liegen die
+ * Eingaben ihres Vertex höchstens zwei Floats links oder rechts, also wird jeder Ausgabevektor aus fünf
+ * verschobenen, zusammenhängenden Loads mit vorberechneten Koeffizientenvektoren per FMA berechnet.
+ */
+final class VectorBatchMath {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int SHIFTS = 5; // Verschiebungen -2..2
+    private static final int VECTORS = 3; // Vektoren pro Block: kgV(3 bzw. 6, Lanes) / Lanes bei Lanes = 2^n >= 4
+
+    private VectorBatchMath() {
+    }
+
+    /**
+     * Lohnt sich nur, wenn die Hardware mindestens vier Floats pro Vektor verarbeitet.
+     */
+    static boolean isUseful() {
+        return LANES >= 4;
+    }
+
+    /**
+     * Siehe {@link BatchMath#scalarTransform}; {@code rows} enthält je Komponente drei Koeffizienten und die Translation.
+     */
+    static void transform(float[] rows, int stride, int normalStart, float[] source, float[] dest, int length) {
+        int period = VECTORS * LANES;
+
+        // Koeffizienten je Vektor im Block und Verschiebung; select markiert die Normalen-Lanes für die Länge
+        float[] coefficients = new float[VECTORS * SHIFTS * LANES];
+        float[] translation = new float[VECTORS * LANES];
+        float[] select = new float[VECTORS * SHIFTS * LANES];
+        for (int o = 0; o < period; o++) {
+            int v = o / LANES, lane = o % LANES;
+            int component = o % stride;
+            int group = component - component % 3;
+            for (int k = 0; k < 3; k++) {
+                int index = (v * SHIFTS + group + k - component + 2) * LANES + lane;
+                coefficients[index] = rows[component * 4 + k];
+                if (group == normalStart) select[index] = 1;
+            }
+            translation[v * LANES + lane] = rows[component * 4 + 3];
+        }
+
+        // Der erste Block und der Rest am Ende laufen skalar, damit die verschobenen Loads im Array bleiben.
+        // Die drei Vektoren eines Blocks stehen in lokalen Variablen (nicht in einem Array), damit die JIT sie
+        // in Registern hält statt sie als Objekte anzulegen.
+        int start = Math.min(period, length);
+        int end = start;
+        for (int base = period; base + period + 2 <= length; base += period) {
+            affine(source, base, 0, coefficients, translation).intoArray(dest, base);
+            affine(source, base, 1, coefficients, translation).intoArray(dest, base + LANES);
+            affine(source, base, 2, coefficients, translation).intoArray(dest, base + 2 * LANES);
+            if (normalStart >= 0) {
+                // Erst alle Faktoren des Blocks berechnen: die Längen lesen auch Lanes der Nachbarvektoren
+                FloatVector factor0 = inverseLength(dest, base, 0, select);
+                FloatVector factor1 = inverseLength(dest, base, 1, select);
+                FloatVector factor2 = inverseLength(dest, base, 2, select);
+                FloatVector.fromArray(SPECIES, dest, base).mul(factor0).intoArray(dest, base);
+                FloatVector.fromArray(SPECIES, dest, base + LANES).mul(factor1).intoArray(dest, base + LANES);
+                FloatVector.fromArray(SPECIES, dest, base + 2 * LANES).mul(factor2).intoArray(dest, base + 2 * LANES);
+            }
+            end = base + period;
+        }
+        BatchMath.scalarTransform(rows, stride, normalStart, source, dest, 0, start);
+        BatchMath.scalarTransform(rows, stride, normalStart, source, dest, end, length);
+    }
+
+    /**
+     * Vektor {@code v} eines Blocks: Summe der fünf verschobenen Loads mal Koeffizienten plus Translation.
+     */
+    private static FloatVector affine(float[] source, int base, int v, float[] coefficients, float[] translation) {
+        int offset = base + v * LANES;
+        FloatVector result = FloatVector.fromArray(SPECIES, translation, v * LANES);
+        for (int s = 0; s < SHIFTS; s++) {
+            FloatVector input = FloatVector.fromArray(SPECIES, source, offset + s - 2);
+            result = input.fma(FloatVector.fromArray(SPECIES, coefficients, (v * SHIFTS + s) * LANES), result);
+        }
+        return result;
+    }
+
+    /**
+     * Kehrwert der Normalenlänge je Lane; Positions-Lanes und Nullvektoren erhalten den Faktor 1.
+     */
+    private static FloatVector inverseLength(float[] data, int base, int v, float[] select) {
+        int offset = base + v * LANES;
+        FloatVector lengthSquared = FloatVector.zero(SPECIES);
+        for (int s = 0; s < SHIFTS; s++) {
+            FloatVector value = FloatVector.fromArray(SPECIES, data, offset + s - 2);
+            lengthSquared = value.mul(value).fma(FloatVector.fromArray(SPECIES, select, (v * SHIFTS + s) * LANES), lengthSquared);
+        }
+        FloatVector one = FloatVector.broadcast(SPECIES, 1f);
+        return one.div(lengthSquared.lanewise(VectorOperators.SQRT)).blend(one, lengthSquared.compare(VectorOperators.EQ, 0f));
+    }
+
+    /**
+     * Siehe {@link BatchMath#bounds}; min/max sind bereits initialisiert.
+     */
+    static void bounds(float[] data, int stride, int length, Vec3 min, Vec3 max) {
+        int period = VECTORS * LANES;
+        FloatVector min0 = FloatVector.broadcast(SPECIES, Float.MAX_VALUE), min1 = min0, min2 = min0;
+        FloatVector max0 = FloatVector.broadcast(SPECIES, -Float.MAX_VALUE), max1 = max0, max2 = max0;
+
+        int base = 0;
+        for (; base + period <= length; base += period) {
+            FloatVector value0 = FloatVector.fromArray(SPECIES, data, base);
+            FloatVector value1 = FloatVector.fromArray(SPECIES, data, base + LANES);
+            FloatVector value2 = FloatVector.fromArray(SPECIES, data, base + 2 * LANES);
+            min0 = min0.min(value0);
+            min1 = min1.min(value1);
+            min2 = min2.min(value2);
+            max0 = max0.max(value0);
+            max1 = max1.max(value1);
+            max2 = max2.max(value2);
+        }
+
+        // Lanes wieder den Komponenten zuordnen; Lanes jenseits von x, y, z (z.B. Normalen) entfallen
+        float[] lanesMin = new float[period], lanesMax = new float[period];
+        min0.intoArray(lanesMin, 0);
+        min1.intoArray(lanesMin, LANES);
+        min2.intoArray(lanesMin, 2 * LANES);
+        max0.intoArray(lanesMax, 0);
+        max1.intoArray(lanesMax, LANES);
+        max2.intoArray(lanesMax, 2 * LANES);
+        for (int o = 0; o < period; o++) {
+            switch (o % stride) {
+                case 0 -> { min.x = Math.min(min.x, lanesMin[o]); max.x = Math.max(max.x, lanesMax[o]); }
+                case 1 -> { min.y = Math.min(min.y, lanesMin[o]); max.y = Math.max(max.y, lanesMax[o]); }
+                case 2 -> { min.z = Math.min(min.z, lanesMin[o]); max.z = Math.max(max.z, lanesMax[o]); }
+                default -> {
+                }
+            }
+        }
+        BatchMath.scalarBounds(data, stride, base, length, min, max);
+    }
+
+    /**
+     * Siehe {@link BatchMath#transformBounds}; eine Lane pro Box.
+     */
+    static void transformBounds(float[] transforms, float[] localBounds, float[] worldBounds, int capacity, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        for (int i = from; i < bound; i += LANES) {
+            FloatVector minX = FloatVector.fromArray(SPECIES, localBounds, i);
+            FloatVector minY = FloatVector.fromArray(SPECIES, localBounds, capacity + i);
+            FloatVector minZ = FloatVector.fromArray(SPECIES, localBounds, 2 * capacity + i);
+            FloatVector maxX = FloatVector.fromArray(SPECIES, localBounds, 3 * capacity + i);
+            FloatVector maxY = FloatVector.fromArray(SPECIES, localBounds, 4 * capacity + i);
+            FloatVector maxZ = FloatVector.fromArray(SPECIES, localBounds, 5 * capacity + i);
+            FloatVector cx = minX.add(maxX).mul(0.5f), cy = minY.add(maxY).mul(0.5f), cz = minZ.add(maxZ).mul(0.5f);
+            FloatVector ex = maxX.sub(minX).mul(0.5f), ey = maxY.sub(minY).mul(0.5f), ez = maxZ.sub(minZ).mul(0.5f);
+
+            for (int row = 0; row < 3; row++) {
+                FloatVector m0 = FloatVector.fromArray(SPECIES, transforms, row * capacity + i);
+                FloatVector m1 = FloatVector.fromArray(SPECIES, transforms, (row + 3) * capacity + i);
+                FloatVector m2 = FloatVector.fromArray(SPECIES, transforms, (row + 6) * capacity + i);
+                FloatVector m3 = FloatVector.fromArray(SPECIES, transforms, (row + 9) * capacity + i);
+                FloatVector center = m0.fma(cx, m1.fma(cy, m2.fma(cz, m3)));
+                FloatVector extent = m0.abs().fma(ex, m1.abs().fma(ey, m2.abs().mul(ez)));
+                center.sub(extent).intoArray(worldBounds, row * capacity + i);
+                center.add(extent).intoArray(worldBounds, (row + 3) * capacity + i);
+            }
+        }
+        BatchMath.scalarTransformBounds(transforms, localBounds, worldBounds, capacity, bound, to);
+    }
+}
@@ -0,0 +1,106 @@
+package kitchenmaker;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * Kodierung von Mesh-Daten in ein kompaktes GPU-Format.
+ * <p>
+ * Pro Vertex werden 8 statt 24 Bytes übertragen:
+ * <ul>
+ *     <li>Position: 3 × unsigned short, normiert auf die Bounding Box des Meshes
+ *     (im Shader: {@code pos = min + aPos * (max - min)})</li>
+ *     <li>Normale: 2 × signed byte, oktaedrisch kodiert (siehe "A Survey of Efficient Representations
+ *     for Independent Unit Vectors", Cigolle et al. 2014)</li>
+ * </ul>
+ * Indizes werden als unsigned short abgelegt, sofern das Mesh höchstens 65536 Vertices hat.
+ */
+public class VertexQuantizer {
+
+    /** Bytes pro Vertex im kompakten Format. */
+    public static final int COMPACT_STRIDE = 8;
+
+    /** Byte-Offset der Normalen innerhalb eines kompakten Vertex. */
+    public static final int NORMAL_OFFSET = 6;
+
+    private static final int POSITION_MAX = 65535;
+    private static final int NORMAL_MAX = 127;
+
+    private VertexQuantizer() {
+    }
+
+    /**
+     * Kodiert interleavte Vertices (x,y,z, nx,ny,nz) in das kompakte Format.
+     * @return Direct-Buffer in nativer Byte-Reihenfolge, bereit für glBufferData
+     */
+    public static ByteBuffer encodeVertices(float[] vertices, Vec3 boundsMin, Vec3 boundsMax) {
+        int vertexCount = vertices.length / 6;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(vertexCount * COMPACT_STRIDE).order(ByteOrder.nativeOrder());
+
+        // Kehrwerte der Ausdehnung; flache Achsen (Ausdehnung 0) werden auf 0 abgebildet
+        float sx = inverseExtent(boundsMin.x, boundsMax.x);
+        float sy = inverseExtent(boundsMin.y, boundsMax.y);
+        float sz = inverseExtent(boundsMin.z, boundsMax.z);
+
+        for (int i = 0; i < vertices.length; i += 6) {
+            buffer.putShort(quantize((vertices[i] - boundsMin.x) * sx));
+            buffer.putShort(quantize((vertices[i + 1] - boundsMin.y) * sy));
+            buffer.putShort(quantize((vertices[i + 2] - boundsMin.z) * sz));
+            encodeOctahedral(buffer, vertices[i + 3], vertices[i + 4], vertices[i + 5]);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Prüft, ob die Indizes als 16-Bit-Werte abgelegt werden können.
+     */
+    public static boolean fitsShortIndices(int vertexCount) {
+        return vertexCount <= 65536;
+    }
+
+    /**
+     * Kodiert Indizes als unsigned short (Voraussetzung: {@link #fitsShortIndices}).
+     */
+    public static ShortBuffer encodeShortIndices(int[] indices) {
+        ShortBuffer buffer = ByteBuffer.allocateDirect(indices.length * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+        for (int index : indices) buffer.put((short) index);
+        return buffer.flip();
+    }
+
+    private static float inverseExtent(float min, float max) {
+        float extent = max - min;
+        return extent > 0 ? 1.0f / extent : 0.0f;
+    }
+
+    private static short quantize(float normalized) {
+        int q = Math.round(normalized * POSITION_MAX);
+        return (short) Math.max(0, Math.min(POSITION_MAX, q));
+    }
+
+    /**
+     * Projiziert die Normale auf das Oktaeder |x|+|y|+|z| = 1 und klappt die untere Hälfte
+     * in die Ebene, sodass zwei Komponenten genügen.
+     */
+    private static void encodeOctahedral(ByteBuffer buffer, float x, float y, float z) {
+        float l1 = Math.abs(x) + Math.abs(y) + Math.abs(z);
+        if (l1 == 0) {
+            // Entartete Normale: Default Up-Vektor
+            x = 0; y = 1; z = 0;
+            l1 = 1;
+        }
+        float ox = x / l1, oy = y / l1;
+        if (z < 0) {
+            float fx = (1.0f - Math.abs(oy)) * signNotZero(ox);
+            float fy = (1.0f - Math.abs(ox)) * signNotZero(oy);
+            ox = fx;
+            oy = fy;
+        }
+        buffer.put((byte) Math.round(Math.max(-1f, Math.min(1f, ox)) * NORMAL_MAX));
+        buffer.put((byte) Math.round(Math.max(-1f, Math.min(1f, oy)) * NORMAL_MAX));
+    }
+
+    private static float signNotZero(float v) {
+        return v >= 0 ? 1.0f : -1.0f;
+    }
+}
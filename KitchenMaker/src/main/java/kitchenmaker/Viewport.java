@@ -0,0 +1,203 @@
+package kitchenmaker;
+
+import com.jogamp.opengl.GLAutoDrawable;
+import com.jogamp.opengl.GLCapabilities;
+import com.jogamp.opengl.GLEventListener;
+import com.jogamp.opengl.awt.GLCanvas;
+import com.jogamp.opengl.awt.GLJPanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 3D-Ansicht mit wählbarer OpenGL-Komponente.
+ * <p>
+ * {@link Backend#GLJPANEL} ist eine leichtgewichtige Swing-Komponente: JOGL rendert offscreen, liest den
+ * gesamten Framebuffer pro Frame zurück und zeichnet ihn über Java2D. Das fügt sich nahtlos in Swing ein,
+ * kostet bei großen Fenstern (4K) aber einen erheblichen Teil der Frame-Zeit.
+ * {@link Backend#GLCANVAS} ist ein schwergewichtiges AWT-Canvas, das direkt in das Fenster rendert und per
+ * Buffer-Swap anzeigt – ohne Rücklesen. Beide liefern normale AWT-Maus-Events, sodass Picking und Drag
+ * unverändert funktionieren.
+ */
+public class Viewport {
+
+    /**
+     * OpenGL-Komponente der Ansicht (Voreinstellung über -Dkitchenmaker.viewport=gljpanel bzw. canvas).
+     */
+    public enum Backend {
+        GLJPANEL,
+        GLCANVAS
+    }
+
+    /** Frames, die vor einer Messung ohne Aufzeichnung gezeichnet werden. */
+    private static final int WARMUP_FRAMES = 30;
+
+    private final Backend backend;
+    private final GLCapabilities capabilities;
+    private final GLAutoDrawable drawable;
+    private final Component component;
+
+    public Viewport(Backend backend, GLCapabilities capabilities) {
+        this.backend = backend;
+        this.capabilities = capabilities;
+        if (backend == Backend.GLCANVAS) {
+            GLCanvas canvas = new GLCanvas(capabilities);
+            // Popups und Tooltips als eigene Fenster, damit sie nicht hinter dem Canvas verschwinden
+            JPopupMenu.setDefaultLightWeightPopupEnabled(false);
+            ToolTipManager.sharedInstance().setLightWeightPopupEnabled(false);
+            this.drawable = canvas;
+            this.component = canvas;
+        } else {
+            GLJPanel panel = new GLJPanel(capabilities);
+            this.drawable = panel;
+            this.component = panel;
+        }
+    }
+
+    /**
+     * Voreingestelltes Backend aus der System-Property {@code kitchenmaker.viewport} (Standard: GLJPANEL).
+     */
+    public static Backend defaultBackend() {
+        String value = System.getProperty("kitchenmaker.viewport", "gljpanel");
+        return "canvas".equalsIgnoreCase(value) || "glcanvas".equalsIgnoreCase(value) ? Backend.GLCANVAS : Backend.GLJPANEL;
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public GLAutoDrawable getDrawable() {
+        return drawable;
+    }
+
+    /**
+     * Die Komponente für das Swing-Layout und für Maus-Listener.
+     */
+    public Component getComponent() {
+        return component;
+    }
+
+    public void addGLEventListener(GLEventListener listener) {
+        drawable.addGLEventListener(listener);
+    }
+
+    /**
+     * Fordert asynchron einen neuen Frame an. Kann aus jedem Thread aufgerufen werden.
+     */
+    public void repaint() {
+        component.repaint();
+    }
+
+    /**
+     * Misst die Frame-Zeit des Backends: zeichnet {@code frames} Frames direkt hintereinander (ohne VSync)
+     * und zeichnet die Dauer je Frame einschließlich Rücklesen bzw. Buffer-Swap auf.
+     * <p>
+     * Blockiert bis zum Ende der Messung und darf daher nicht im Event-Dispatch-Thread aufgerufen werden.
+     * Während der Messung sollte kein Animator laufen.
+     */
+    public FrameStats measureFrameTimes(int frames) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("Frame-Zeit-Messung nicht im Event-Dispatch-Thread starten");
+        }
+        // VSync aus, sonst begrenzt die Bildwiederholrate beide Backends auf dieselbe Frame-Zeit.
+        // Der bisherige Wert wird danach wiederhergestellt.
+        AtomicInteger previousSwapInterval = new AtomicInteger(1);
+        drawable.invoke(true, d -> {
+            previousSwapInterval.set(d.getGL().getSwapInterval());
+            d.getGL().setSwapInterval(0);
+            return true;
+        });
+        try {
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                drawable.display();
+            }
+            FrameStats stats = new FrameStats(frames);
+            for (int i = 0; i < frames; i++) {
+                long start = System.nanoTime();
+                drawable.display();
+                stats.record(System.nanoTime() - start);
+            }
+            return stats;
+        } finally {
+            drawable.invoke(false, d -> {
+                d.getGL().setSwapInterval(previousSwapInterval.get());
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Misst zum Vergleich ein anderes Backend mit derselben Szene und Größe wie {@link #measureFrameTimes}.
+     * <p>
+     * Dafür wird vorübergehend eine Komponente des anderen Backends in einem rahmenlosen Fenster genau über
+     * der Ansicht geöffnet. Die GL-Listener (Renderer) ziehen dorthin um: Sie geben ihre Ressourcen im
+     * bisherigen Kontext per {@code dispose} frei, laden sie im neuen Kontext wieder hoch und kehren nach der
+     * Messung auf demselben Weg zurück. Die Szene wird also nie in zwei Kontexten gleichzeitig gezeichnet.
+     * <p>
+     * Blockiert bis zum Ende der Messung und darf daher nicht im Event-Dispatch-Thread aufgerufen werden.
+     *
+     * @return Messwerte des anderen Backends und dessen Zeichenfläche
+     */
+    public Measurement measureFrameTimes(Backend other, int frames) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("Frame-Zeit-Messung nicht im Event-Dispatch-Thread starten");
+        }
+        GLEventListener[] listeners = new GLEventListener[drawable.getGLEventListenerCount()];
+        // Swing-Komponenten nur im EDT erzeugen; die Felder werden über invokeAndWait veröffentlicht
+        Viewport[] temporary = new Viewport[1];
+        JWindow[] window = new JWindow[1];
+        runOnEventDispatchThread(() -> {
+            for (int i = 0; i < listeners.length; i++) listeners[i] = drawable.getGLEventListener(i);
+            for (GLEventListener listener : listeners) drawable.disposeGLEventListener(listener, true);
+            temporary[0] = new Viewport(other, capabilities);
+            for (GLEventListener listener : listeners) temporary[0].addGLEventListener(listener);
+
+            window[0] = new JWindow(SwingUtilities.getWindowAncestor(component));
+            window[0].getContentPane().add(temporary[0].getComponent());
+            window[0].setBounds(new Rectangle(component.getLocationOnScreen(), component.getSize()));
+            window[0].setVisible(true);
+        });
+        try {
+            // Erster Frame erzeugt den Kontext und ruft init() der Listener auf
+            temporary[0].drawable.display();
+            return new Measurement(other, temporary[0].getSurfaceSize(), temporary[0].measureFrameTimes(frames));
+        } finally {
+            runOnEventDispatchThread(() -> {
+                for (GLEventListener listener : listeners) temporary[0].drawable.disposeGLEventListener(listener, true);
+                window[0].dispose();
+                for (GLEventListener listener : listeners) drawable.addGLEventListener(listener);
+                component.repaint();
+            });
+        }
+    }
+
+    private static void runOnEventDispatchThread(Runnable task) {
+        try {
+            SwingUtilities.invokeAndWait(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Frame-Zeit-Messung unterbrochen", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Frame-Zeit-Messung fehlgeschlagen", e.getCause());
+        }
+    }
+
+    /**
+     * Ergebnis einer Frame-Zeit-Messung: Backend, Größe der Zeichenfläche und Frame-Zeiten.
+     */
+    public record Measurement(Backend backend, Dimension surfaceSize, FrameStats stats) {
+        @Override
+        public String toString() {
+            return "Viewport " + backend + " (" + surfaceSize.width + "x" + surfaceSize.height + "): " + stats;
+        }
+    }
+
+    /**
+     * Größe der Zeichenfläche in Pixeln (bei HiDPI größer als die Komponente).
+     */
+    public Dimension getSurfaceSize() {
+        return new Dimension(drawable.getSurfaceWidth(), drawable.getSurfaceHeight());
+    }
+}